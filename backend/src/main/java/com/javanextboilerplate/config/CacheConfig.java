@@ -0,0 +1,40 @@
+package com.javanextboilerplate.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caffeine-backed caches, one per entry under {@code app.cache.specs}
+ * (name → Caffeine spec, e.g. {@code maximumSize=10000,expireAfterWrite=10m}).
+ *
+ * Only the configured caches exist: a cache name without a spec fails at first
+ * use rather than silently growing without bound. Statistics are always
+ * recorded, so actuator publishes cache.gets (hit/miss), cache.evictions and
+ * cache.size for every cache.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(Environment env) {
+        Map<String, String> specs = Binder.get(env)
+                .bind("app.cache.specs", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCacheNames(List.of()); // static: no on-the-fly caches
+        manager.setAllowNullValues(false);
+        specs.forEach((name, spec) -> manager.registerCustomCache(name,
+                Caffeine.from(spec.contains("recordStats") ? spec : spec + ",recordStats").build()));
+        return manager;
+    }
+}
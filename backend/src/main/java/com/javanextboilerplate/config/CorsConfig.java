@@ -33,7 +33,7 @@ public class CorsConfig {
         configuration.setAllowCredentials(true);
 
         // Expose headers
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Next-Cursor"));
 
         // Max age for preflight cache
         configuration.setMaxAge(3600L);
@@ -0,0 +1,18 @@
+package com.javanextboilerplate.config;
+
+import com.javanextboilerplate.service.TrackingMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Caps the slug tag of tracking.clicks so a large link catalogue can't blow up meter cardinality. */
+    @Bean
+    public MeterFilter trackingClicksCardinalityLimit(
+            @Value("${app.tracking.per-slug-metrics-max:1000}") int perSlugMax) {
+        return MeterFilter.maximumAllowableTags(TrackingMetrics.CLICKS, "slug", perSlugMax, MeterFilter.deny());
+    }
+}
@@ -1,6 +1,9 @@
 package com.javanextboilerplate.config;
 
 import com.javanextboilerplate.security.SupabaseJwtAuthenticationFilter;
+import com.javanextboilerplate.security.SupabaseUserDetails;
+import com.javanextboilerplate.service.AdminService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +12,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -20,6 +24,7 @@ public class SecurityConfig {
 
     private final SupabaseJwtAuthenticationFilter jwtAuthenticationFilter;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final AdminService adminService;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -37,6 +42,9 @@ public class SecurityConfig {
                         }
                 ))
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of an async (SSE) response already authorized on the original request;
+                        // the stateless context isn't there any more on the ASYNC dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Allow CORS preflight requests
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // Public endpoints - webhooks verify themselves with signatures
@@ -49,6 +57,10 @@ public class SecurityConfig {
                         .requestMatchers("/error").permitAll()
                         // Health check - only expose health endpoint
                         .requestMatchers("/actuator/health", "/health", "/").permitAll()
+                        // Metrics (tracking, sync) are for admins only
+                        .requestMatchers("/actuator/metrics/**").access((authentication, context) ->
+                                new AuthorizationDecision(authentication.get().getPrincipal() instanceof SupabaseUserDetails user
+                                        && adminService.isAdmin(user.getUserId())))
                         // Restrict all other actuator endpoints
                         .requestMatchers("/actuator/**").denyAll()
                         // All other API endpoints require authentication
@@ -1,13 +1,17 @@
 package com.javanextboilerplate.controller;
 
-import com.javanextboilerplate.entity.UtmLink;
 import com.javanextboilerplate.service.AffiliateCampaignService;
+import com.javanextboilerplate.service.HyperLogLog;
+import com.javanextboilerplate.service.ProjectEventHub;
+import com.javanextboilerplate.service.SlugRoutingTable;
+import com.javanextboilerplate.service.TrackingMetrics;
 import com.javanextboilerplate.service.UtmLinkService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,65 +25,67 @@ public class AffiliateTrackingController {
 
     private static final String COOKIE_PREFIX  = "mst_";
     private static final int    COOKIE_MAX_AGE = 60 * 60 * 24; // 24 h
+    // SameSite=Lax — works for top-level navigations
+    private static final String COOKIE_ATTRIBUTES = "=1; Max-Age=" + COOKIE_MAX_AGE + "; Path=/; HttpOnly; SameSite=Lax";
 
     private final AffiliateCampaignService affiliateService;
     private final UtmLinkService utmLinkService;
+    private final SlugRoutingTable routingTable;
+    private final TrackingMetrics metrics;
+    private final ProjectEventHub projectEvents;
 
+    // Hot path: nothing below logs per request; outcomes are counted in TrackingMetrics.
     @GetMapping("/t/{slug}")
     public void track(
             @PathVariable String slug,
             HttpServletRequest req,
             HttpServletResponse res
     ) throws IOException {
-        // Step 1: Look up affiliate campaign first, then fall back to UTM link
-        var campaignOpt = affiliateService.findActiveCampaign(slug);
-        String destination;
-        Long recordId;
-        boolean isUtm;
-
-        if (campaignOpt.isPresent()) {
-            var campaign = campaignOpt.get();
-            destination = campaign.getDestinationUrl();
-            recordId    = campaign.getId();
-            isUtm       = false;
-        } else {
-            var utmOpt = utmLinkService.findActiveLink(slug);
-            if (utmOpt.isEmpty()) {
-                log.warn("Unknown or inactive slug={}", slug);
-                res.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                res.setContentType("text/plain");
-                res.getWriter().write("Not Found");
-                return;
-            }
-            UtmLink link = utmOpt.get();
-            destination  = utmLinkService.buildUtmUrl(link);
-            recordId     = link.getId();
-            isUtm        = true;
+        // Step 1: Resolve the slug from the in-memory routing table
+        var routeOpt = routingTable.resolve(slug);
+        if (routeOpt.isEmpty()) {
+            metrics.notFound();
+            res.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            res.setContentType("text/plain");
+            res.getWriter().write("Not Found");
+            return;
         }
+        SlugRoutingTable.Route route = routeOpt.get();
+        Long recordId      = route.recordId();
+        boolean isUtm      = route.kind() == SlugRoutingTable.Kind.UTM;
 
         // Step 2: Set unique-visit cookie
         String cookieName = COOKIE_PREFIX + slug;
         boolean isUnique  = isFreshVisit(req, cookieName);
         if (isUnique) {
-            // SameSite=Lax — works for top-level navigations
-            res.addHeader("Set-Cookie",
-                    cookieName + "=1; Max-Age=" + COOKIE_MAX_AGE + "; Path=/; HttpOnly; SameSite=Lax");
+            res.addHeader(HttpHeaders.SET_COOKIE, cookieName + COOKIE_ATTRIBUTES);
         }
 
         // Step 3: Record the click — NEVER blocks the redirect
         try {
-            if (isUtm) {
-                utmLinkService.recordClick(recordId, req.getHeader("User-Agent"), req.getHeader("Referer"), isUnique);
+            String userAgent = req.getHeader(HttpHeaders.USER_AGENT);
+            String referer   = req.getHeader(HttpHeaders.REFERER);
+            // Cookie-independent fingerprint for the HyperLogLog unique-visitor sketch. The remote
+            // address is the client's only when X-Forwarded-For came through a trusted proxy
+            // (server.forward-headers-strategy); a client can't pick its own.
+            long visitorHash = HyperLogLog.hash(req.getRemoteAddr(), userAgent);
+            boolean recorded = isUtm
+                    ? utmLinkService.recordClick(recordId, userAgent, referer, isUnique, visitorHash)
+                    : affiliateService.recordClick(recordId, userAgent, referer, isUnique, visitorHash);
+            if (recorded) {
+                metrics.click(slug, route.kind());
+                projectEvents.click(route.projectId(), route.kind(), recordId, isUnique);
             } else {
-                affiliateService.recordClick(recordId, req.getHeader("User-Agent"), req.getHeader("Referer"), isUnique);
+                metrics.botSkip(route.kind());
             }
         } catch (Exception e) {
             log.warn("Click recording failed for slug={}: {} — {}", slug, e.getClass().getSimpleName(), e.getMessage(), e);
         }
 
-        // Step 4: Redirect — unconditional
-        log.info("Redirecting slug={} -> {}", slug, destination);
-        res.sendRedirect(destination);
+        // Step 4: Redirect — unconditional. The route's URL is already absolute and
+        // encoded, so skip sendRedirect()'s location resolution and write the header directly.
+        res.setStatus(HttpServletResponse.SC_FOUND);
+        res.setHeader(HttpHeaders.LOCATION, route.destination());
     }
 
     private boolean isFreshVisit(HttpServletRequest req, String cookieName) {
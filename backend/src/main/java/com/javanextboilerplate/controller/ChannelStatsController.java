@@ -1,20 +1,16 @@
 package com.javanextboilerplate.controller;
 
+import com.javanextboilerplate.dto.response.ChannelPostSummaryResponse;
 import com.javanextboilerplate.dto.response.ChannelStatsResponse;
-import com.javanextboilerplate.entity.Channel;
-import com.javanextboilerplate.entity.User;
-import com.javanextboilerplate.repository.ChannelRepository;
-import com.javanextboilerplate.repository.ChannelStatsRepository;
-import com.javanextboilerplate.repository.LinkedChannelRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import com.javanextboilerplate.security.SupabaseUserDetails;
-import com.javanextboilerplate.service.UserService;
+import com.javanextboilerplate.service.PostFeedService;
+import com.javanextboilerplate.service.ProjectAccess;
+import com.javanextboilerplate.service.StatsTimeSeries;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,11 +19,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ChannelStatsController {
 
-    private final ChannelRepository channelRepository;
-    private final ChannelStatsRepository channelStatsRepository;
-    private final LinkedChannelRepository linkedChannelRepository;
-    private final SaasProjectRepository projectRepository;
-    private final UserService userService;
+    private final StatsTimeSeries statsTimeSeries;
+    private final PostFeedService postFeedService;
+    private final ProjectAccess projectAccess;
 
     @GetMapping
     public ResponseEntity<List<ChannelStatsResponse>> getStats(
@@ -36,33 +30,32 @@ public class ChannelStatsController {
             @RequestParam(defaultValue = "30") int days,
             @AuthenticationPrincipal SupabaseUserDetails userDetails
     ) {
-        User user = userService.getUserBySupabaseId(userDetails.getUserId());
-
-        // Verify project belongs to user
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-
-        // Verify channel belongs to project (owned or linked)
-        Channel channel = channelRepository.findById(channelId)
-                .orElseThrow(() -> new RuntimeException("Channel not found"));
-
-        boolean isOwned = channel.getProject().getId().equals(projectId);
-        boolean isLinked = linkedChannelRepository.existsByProjectIdAndChannelId(projectId, channelId);
-        if (!isOwned && !isLinked) {
+        // Verify project belongs to user, and channel to project (owned or linked)
+        projectAccess.assertOwner(projectId, userDetails.getUserId());
+        if (!projectAccess.belongsTo(projectId, ProjectAccess.Resource.CHANNEL, channelId)) {
             return ResponseEntity.notFound().build();
         }
 
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Object[]> raw = channelStatsRepository
-                .findDailySnapshotsByChannelId(channelId, since, LocalDateTime.now());
-
-        List<ChannelStatsResponse> response = raw.stream()
-                .map(row -> new ChannelStatsResponse(
-                        ((Timestamp) row[0]).toLocalDateTime(),
-                        ((Number) row[1]).longValue()
-                ))
+        List<ChannelStatsResponse> response = statsTimeSeries
+                .dailyFollowers(List.of(channelId), since, LocalDateTime.now()).stream()
+                .map(point -> new ChannelStatsResponse(point.day(), point.value()))
                 .toList();
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/summary")
+    public ResponseEntity<ChannelPostSummaryResponse> getSummary(
+            @PathVariable Long projectId,
+            @PathVariable Long channelId,
+            @RequestParam(defaultValue = "5") int top,
+            @AuthenticationPrincipal SupabaseUserDetails userDetails
+    ) {
+        projectAccess.assertOwner(projectId, userDetails.getUserId());
+        if (!projectAccess.belongsTo(projectId, ProjectAccess.Resource.CHANNEL, channelId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(postFeedService.channelSummary(channelId, top));
+    }
 }
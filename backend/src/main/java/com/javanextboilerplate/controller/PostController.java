@@ -1,22 +1,15 @@
 package com.javanextboilerplate.controller;
 
 import com.javanextboilerplate.dto.response.PostResponse;
-import com.javanextboilerplate.entity.Channel;
-import com.javanextboilerplate.entity.Post;
-import com.javanextboilerplate.entity.User;
-import com.javanextboilerplate.repository.ChannelRepository;
-import com.javanextboilerplate.repository.LinkedChannelRepository;
-import com.javanextboilerplate.repository.PostRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import com.javanextboilerplate.security.SupabaseUserDetails;
-import com.javanextboilerplate.service.UserService;
+import com.javanextboilerplate.service.PostFeedService;
+import com.javanextboilerplate.service.ProjectAccess;
+import com.javanextboilerplate.service.ProjectService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -24,40 +17,41 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PostController {
 
-    private final PostRepository postRepository;
-    private final SaasProjectRepository projectRepository;
-    private final ChannelRepository channelRepository;
-    private final LinkedChannelRepository linkedChannelRepository;
-    private final UserService userService;
-
+    private final PostFeedService postFeedService;
+    private final ProjectService projectService;
+    private final ProjectAccess projectAccess;
+
+    /**
+     * Posts published in the last {@code days} days, newest first, with their
+     * latest stats; {@code days} is capped at 90. Without {@code limit} or
+     * {@code cursor} every post in the window is returned, up to 500. Paging is
+     * opt-in: with either, at most {@code limit} posts (default 200) are
+     * returned. Whenever there are more, the X-Next-Cursor response header
+     * carries the value to pass as {@code cursor} for the next page.
+     * {@code sparkline} &gt; 0 adds up to that many view counts per post,
+     * spread over the window, and needs {@code limit} or {@code cursor}.
+     */
     @GetMapping
     public ResponseEntity<List<PostResponse>> getPosts(
             @PathVariable Long projectId,
             @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int sparkline,
             @AuthenticationPrincipal SupabaseUserDetails userDetails
     ) {
-        User user = userService.getUserBySupabaseId(userDetails.getUserId());
-
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-
-        // Collect all channel IDs: owned + linked
-        List<Long> ownedIds = channelRepository.findByProjectId(projectId).stream()
-                .map(Channel::getId).toList();
-        List<Long> linkedIds = linkedChannelRepository.findLinkedChannelsByProjectId(projectId).stream()
-                .map(Channel::getId).toList();
-        List<Long> allChannelIds = new ArrayList<>(ownedIds);
-        allChannelIds.addAll(linkedIds);
-
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Post> posts = allChannelIds.isEmpty()
-                ? List.of()
-                : postRepository.findByChannelIdsAndPublishedAfter(allChannelIds, since);
-
-        List<PostResponse> response = posts.stream()
-                .map(PostResponse::from)
-                .toList();
-
-        return ResponseEntity.ok(response);
+        projectAccess.assertOwner(projectId, userDetails.getUserId());
+
+        int pageSize = limit != null ? Math.max(1, limit)
+                : cursor != null ? PostFeedService.DEFAULT_LIMIT
+                : PostFeedService.UNPAGED;
+        PostFeedService.Page page = postFeedService.recentPosts(
+                projectService.getChannelIds(projectId), days, pageSize, cursor, sparkline);
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header("X-Next-Cursor", page.nextCursor());
+        }
+        return ok.body(page.posts());
     }
 }
@@ -4,28 +4,24 @@ import com.javanextboilerplate.dto.request.CreateProjectRequest;
 import com.javanextboilerplate.dto.request.LinkChannelRequest;
 import com.javanextboilerplate.dto.request.UpdateProjectRequest;
 import com.javanextboilerplate.dto.response.ChannelResponse;
+import com.javanextboilerplate.dto.response.ProjectOverviewResponse;
 import com.javanextboilerplate.dto.response.ProjectResponse;
 import com.javanextboilerplate.dto.response.ProjectStatsResponse;
-import com.javanextboilerplate.entity.Channel;
-import com.javanextboilerplate.entity.Platform;
-import com.javanextboilerplate.entity.User;
-import com.javanextboilerplate.repository.ChannelRepository;
-import com.javanextboilerplate.repository.ChannelStatsRepository;
-import com.javanextboilerplate.repository.LinkedChannelRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import com.javanextboilerplate.security.SupabaseUserDetails;
+import com.javanextboilerplate.service.ProjectAccess;
+import com.javanextboilerplate.service.ProjectEventHub;
+import com.javanextboilerplate.service.ProjectOverviewService;
 import com.javanextboilerplate.service.ProjectService;
-import com.javanextboilerplate.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -35,11 +31,9 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
-    private final UserService userService;
-    private final SaasProjectRepository projectRepository;
-    private final ChannelStatsRepository channelStatsRepository;
-    private final ChannelRepository channelRepository;
-    private final LinkedChannelRepository linkedChannelRepository;
+    private final ProjectAccess projectAccess;
+    private final ProjectOverviewService projectOverviewService;
+    private final ProjectEventHub projectEvents;
 
     @GetMapping
     public ResponseEntity<List<ProjectResponse>> listProjects(
@@ -122,64 +116,30 @@ public class ProjectController {
             @PathVariable Long id,
             @AuthenticationPrincipal SupabaseUserDetails userDetails
     ) {
-        User user = userService.getUserBySupabaseId(userDetails.getUserId());
-        projectRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-
-        // Collect all channel IDs: owned + linked
-        List<Long> channelIds = getAllChannelIds(id);
-
-        if (channelIds.isEmpty()) {
-            return ResponseEntity.ok(new ProjectStatsResponse(0L, null, List.of(), List.of()));
-        }
-
-        // Get timeline data (aggregated by day across all channels)
-        // Native query returns Timestamp for the date column and Long/BigInteger for the sum.
-        List<Object[]> timelineRaw = channelStatsRepository.getFollowerTimelineByChannelIds(channelIds);
-        List<ProjectStatsResponse.TimelinePoint> timeline = timelineRaw.stream()
-                .map(row -> new ProjectStatsResponse.TimelinePoint(
-                        ((Timestamp) row[0]).toLocalDateTime(),
-                        ((Number) row[1]).longValue()
-                ))
-                .toList();
-
-        // Get per-platform breakdown (JPQL query, returns Platform enum + Long directly)
-        List<Object[]> platformRaw = channelRepository.getFollowersByChannelIds(channelIds);
-        List<ProjectStatsResponse.PlatformBreakdown> platforms = platformRaw.stream()
-                .map(row -> new ProjectStatsResponse.PlatformBreakdown(
-                        ((Platform) row[0]).name().toLowerCase(),
-                        ((Number) row[1]).longValue()
-                ))
-                .toList();
-
-        // Compute total followers from platform breakdown
-        long totalFollowers = platforms.stream()
-                .mapToLong(ProjectStatsResponse.PlatformBreakdown::getFollowers)
-                .sum();
-
-        // Compute growth % from timeline
-        Double growthPercent = null;
-        if (timeline.size() >= 2) {
-            long earliest = timeline.getFirst().getTotalFollowers();
-            long latest = timeline.getLast().getTotalFollowers();
-            if (earliest > 0) {
-                growthPercent = ((double) (latest - earliest) / earliest) * 100.0;
-            }
-        }
-
-        return ResponseEntity.ok(new ProjectStatsResponse(totalFollowers, growthPercent, timeline, platforms));
+        projectAccess.assertOwner(id, userDetails.getUserId());
+        return ResponseEntity.ok(projectService.getStats(id));
     }
 
-    private List<Long> getAllChannelIds(Long projectId) {
-        List<Long> ownedIds = channelRepository.findByProjectId(projectId).stream()
-                .map(Channel::getId)
-                .toList();
-        List<Long> linkedIds = linkedChannelRepository.findLinkedChannelsByProjectId(projectId).stream()
-                .map(Channel::getId)
-                .toList();
-        List<Long> allIds = new ArrayList<>(ownedIds);
-        allIds.addAll(linkedIds);
-        return allIds;
+    /** All dashboard widgets for the project in one response; see ProjectOverviewService. */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<ProjectOverviewResponse> getOverview(
+            @PathVariable Long id,
+            @AuthenticationPrincipal SupabaseUserDetails userDetails
+    ) {
+        return ResponseEntity.ok(projectOverviewService.getOverview(id, userDetails.getUserId()));
+    }
+
+    /**
+     * Live updates for the project dashboard as Server-Sent Events (clicks,
+     * channel_synced, seo_audit); see ProjectEventHub for the payloads.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @PathVariable Long id,
+            @AuthenticationPrincipal SupabaseUserDetails userDetails
+    ) {
+        projectAccess.assertOwner(id, userDetails.getUserId());
+        return projectEvents.subscribe(id);
     }
 
     @DeleteMapping("/{id}")
@@ -1,11 +1,9 @@
 package com.javanextboilerplate.controller;
 
 import com.javanextboilerplate.dto.response.SeoAuditResponse;
-import com.javanextboilerplate.entity.User;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import com.javanextboilerplate.security.SupabaseUserDetails;
+import com.javanextboilerplate.service.ProjectAccess;
 import com.javanextboilerplate.service.SeoAuditService;
-import com.javanextboilerplate.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -21,8 +19,7 @@ import java.util.Map;
 public class SeoAuditController {
 
     private final SeoAuditService seoAuditService;
-    private final UserService userService;
-    private final SaasProjectRepository projectRepository;
+    private final ProjectAccess projectAccess;
 
     /** Returns the latest persisted audit for the project, or 204 if none exists. */
     @GetMapping("/audit")
@@ -30,9 +27,7 @@ public class SeoAuditController {
             @PathVariable Long projectId,
             @AuthenticationPrincipal SupabaseUserDetails userDetails
     ) {
-        User user = userService.getUserBySupabaseId(userDetails.getUserId());
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccess.assertOwner(projectId, userDetails.getUserId());
 
         return seoAuditService.getLatest(projectId)
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
@@ -45,9 +40,7 @@ public class SeoAuditController {
             @PathVariable Long projectId,
             @AuthenticationPrincipal SupabaseUserDetails userDetails
     ) {
-        User user = userService.getUserBySupabaseId(userDetails.getUserId());
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccess.assertOwner(projectId, userDetails.getUserId());
 
         try {
             SeoAuditResponse result = seoAuditService.runAudit(projectId);
@@ -15,6 +15,8 @@ public class CampaignStatsResponse {
     Map<String, Integer> byDevice;
     int totalClicks;
     int uniqueClicks;
+    // Distinct visitors over the whole range, estimated from the merged daily HyperLogLog sketches
+    long uniqueVisitors;
 
     @Value
     @Builder
@@ -22,5 +24,6 @@ public class CampaignStatsResponse {
         LocalDate date;
         int totalClicks;
         int uniqueClicks;
+        long uniqueVisitors;
     }
 }
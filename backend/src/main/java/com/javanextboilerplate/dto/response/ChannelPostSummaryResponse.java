@@ -0,0 +1,25 @@
+package com.javanextboilerplate.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/** Channel-wide post totals from each post's latest stats (post_stats_latest). */
+@Value
+@Builder
+public class ChannelPostSummaryResponse {
+    long totalViews;
+    // Mean of the posts' engagement rates in percent; null when the channel has no synced posts
+    Double averageEngagementRate;
+    List<TopPost> topPosts;
+
+    @Value
+    @Builder
+    public static class TopPost {
+        Long postId;
+        String title;
+        String postUrl;
+        long viewsCount;
+    }
+}
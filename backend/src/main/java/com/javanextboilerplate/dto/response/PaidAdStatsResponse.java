@@ -20,6 +20,8 @@ public class PaidAdStatsResponse {
     // UTM-tracked clicks for linked UTM links (auto-populated, no manual input needed)
     long utmTotalClicks;
     long utmUniqueClicks;
+    // Distinct visitors across all linked UTM links and days (HyperLogLog estimate)
+    long utmUniqueVisitors;
 
     @Value
     @Builder
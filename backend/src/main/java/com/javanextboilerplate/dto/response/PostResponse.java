@@ -1,11 +1,13 @@
 package com.javanextboilerplate.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.javanextboilerplate.entity.Post;
-import com.javanextboilerplate.entity.PostStats;
+import com.javanextboilerplate.entity.PostStatsLatest;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -24,8 +26,11 @@ public class PostResponse {
     private Long commentsCount;
     private Long sharesCount;
 
-    public static PostResponse from(Post post) {
-        PostStats latest = post.getLatestStats();
+    // Views over the requested window, oldest first; only present when asked for
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> viewsSparkline;
+
+    public static PostResponse from(Post post, PostStatsLatest latest, List<Long> viewsSparkline) {
         return new PostResponse(
                 post.getId(),
                 post.getPlatformPostId(),
@@ -38,7 +43,8 @@ public class PostResponse {
                 latest != null ? latest.getViewsCount() : 0L,
                 latest != null ? latest.getLikesCount() : 0L,
                 latest != null ? latest.getCommentsCount() : 0L,
-                latest != null ? latest.getSharesCount() : 0L
+                latest != null ? latest.getSharesCount() : 0L,
+                viewsSparkline
         );
     }
 }
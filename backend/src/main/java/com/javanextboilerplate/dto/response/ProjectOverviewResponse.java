@@ -0,0 +1,25 @@
+package com.javanextboilerplate.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Everything the project dashboard shows on first paint. A section that could
+ * not be loaded is null and named in {@code unavailable}; the dashboard can
+ * fall back to that section's own endpoint.
+ */
+@Value
+@Builder
+public class ProjectOverviewResponse {
+    ProjectStatsResponse stats;
+    List<PostResponse> posts;
+    // Cursor for GET /posts when the window holds more than the first page
+    String postsNextCursor;
+    Long paidAdTotalSpendCents;
+    List<CampaignResponse> affiliateCampaigns;
+    List<UtmLinkResponse> utmLinks;
+    SeoAuditResponse seoAudit;
+    List<String> unavailable;
+}
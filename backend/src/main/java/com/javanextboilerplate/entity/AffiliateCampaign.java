@@ -32,6 +32,11 @@ public class AffiliateCampaign {
     @Column(nullable = false, length = 50, unique = true)
     private String slug;
 
+    /** Lifetime clicks, maintained by the click flush SQL; never written through JPA. */
+    @Column(name = "total_clicks", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Long totalClicks = 0L;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
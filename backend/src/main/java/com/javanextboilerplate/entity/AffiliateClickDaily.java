@@ -48,4 +48,8 @@ public class AffiliateClickDaily {
     @Convert(converter = IntegerMapConverter.class)
     @Builder.Default
     private Map<String, Integer> byDevice = new HashMap<>();
+
+    /** HyperLogLog registers of distinct visitors (see HyperLogLog); null before the first fingerprinted click. */
+    @Column(name = "visitor_sketch")
+    private byte[] visitorSketch;
 }
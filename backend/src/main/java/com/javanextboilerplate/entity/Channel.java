@@ -52,6 +52,9 @@ public class Channel {
     @Column(name = "token_expires_at")
     private LocalDateTime tokenExpiresAt;
 
+    @Column(name = "token_refresh_until")
+    private LocalDateTime tokenRefreshUntil; // Refresh lease, see ChannelTokenRefresher
+
     @Column(name = "follower_count")
     private Long followerCount;
 
@@ -62,6 +65,12 @@ public class Channel {
     @Column(name = "last_synced_at")
     private LocalDateTime lastSyncedAt;
 
+    @Column(name = "next_sync_at")
+    private LocalDateTime nextSyncAt; // null = due now
+
+    @Column(name = "sync_interval_minutes")
+    private Integer syncIntervalMinutes; // Current adaptive interval, see SyncCadence
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
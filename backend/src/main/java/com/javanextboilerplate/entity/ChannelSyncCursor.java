@@ -0,0 +1,42 @@
+package com.javanextboilerplate.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where the last post sync of a channel left off; see V25.
+ */
+@Entity
+@Table(name = "channel_sync_cursors")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelSyncCursor {
+
+    @Id
+    @Column(name = "channel_id")
+    private Long channelId;
+
+    @Column(name = "newest_post_id")
+    private String newestPostId;
+
+    @Column(name = "newest_published_at")
+    private LocalDateTime newestPublishedAt;
+
+    @Column(name = "source_ref")
+    private String sourceRef; // e.g. YouTube uploads playlist id
+
+    @Column(name = "etag")
+    private String etag;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
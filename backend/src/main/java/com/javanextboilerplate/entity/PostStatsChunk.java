@@ -0,0 +1,46 @@
+package com.javanextboilerplate.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One calendar month of compacted PostStats snapshots for a post.
+ * The payload is produced and read by StatsChunkCodec; see V24.
+ */
+@Entity
+@Table(name = "post_stats_chunks", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"post_id", "period_start"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostStatsChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(name = "first_at", nullable = false)
+    private LocalDateTime firstAt;
+
+    @Column(name = "last_at", nullable = false)
+    private LocalDateTime lastAt;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(nullable = false)
+    private byte[] payload;
+}
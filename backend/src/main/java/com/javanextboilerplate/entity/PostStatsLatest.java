@@ -0,0 +1,54 @@
+package com.javanextboilerplate.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Latest stats of a post, one row per post. Written by the sync path through
+ * PostStatsLatestRepository.upsertFromSync; see V30.
+ */
+@Entity
+@Table(name = "post_stats_latest")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostStatsLatest {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "views_count", nullable = false)
+    private long viewsCount;
+
+    @Column(name = "likes_count", nullable = false)
+    private long likesCount;
+
+    @Column(name = "comments_count", nullable = false)
+    private long commentsCount;
+
+    @Column(name = "shares_count", nullable = false)
+    private long sharesCount;
+
+    @Column(name = "saves_count", nullable = false)
+    private long savesCount;
+
+    @Column(name = "watch_time_seconds", nullable = false)
+    private long watchTimeSeconds;
+
+    @Column(name = "engagement_rate", precision = 5, scale = 2)
+    private BigDecimal engagementRate; // Percentage
+}
@@ -0,0 +1,59 @@
+package com.javanextboilerplate.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued channel sync; see V26 and SyncJobQueue. Rows are written through
+ * the native queries in SyncJobRepository, the entity exists for reads.
+ */
+@Entity
+@Table(name = "sync_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "run_after", nullable = false)
+    private LocalDateTime runAfter;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -50,6 +50,11 @@ public class UtmLink {
     @Column(name = "campaign_id")
     private Long campaignId;
 
+    /** Lifetime clicks, maintained by the click flush SQL; never written through JPA. */
+    @Column(name = "total_clicks", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Long totalClicks = 0L;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -0,0 +1,18 @@
+package com.javanextboilerplate.exception;
+
+import lombok.Getter;
+
+/**
+ * A social platform API answered with an unexpected HTTP status. Thrown by the
+ * sync clients so failures can be classified by status (see SyncMetrics).
+ */
+@Getter
+public class PlatformApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public PlatformApiException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+}
@@ -2,8 +2,11 @@ package com.javanextboilerplate.repository;
 
 import com.javanextboilerplate.entity.AffiliateCampaign;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +15,15 @@ public interface AffiliateCampaignRepository extends JpaRepository<AffiliateCamp
 
     List<AffiliateCampaign> findByProjectIdOrderByCreatedAtDesc(Long projectId);
 
+    boolean existsByIdAndProjectId(Long id, Long projectId);
+
     Optional<AffiliateCampaign> findBySlug(String slug);
+
+    List<AffiliateCampaign> findByIsActiveTrue();
+
+    @Query("SELECT x.slug FROM AffiliateCampaign x")
+    List<String> findAllSlugs();
+
+    @Query("SELECT x.slug FROM AffiliateCampaign x WHERE x.createdAt >= :since")
+    List<String> findSlugsCreatedSince(@Param("since") LocalDateTime since);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -29,33 +30,87 @@ public interface AffiliateClickDailyRepository extends JpaRepository<AffiliateCl
     long sumTotalClicksByProjectId(@Param("projectId") Long projectId);
 
     /**
-     * Atomic PostgreSQL UPSERT: inserts a new row for the day or increments
-     * the counters and JSONB maps if a row already exists.
+     * Multi-row PostgreSQL UPSERT used by the click buffer flush.
+     *
+     * {@code rowsJson} is a JSON array of pre-aggregated daily rows
+     * ({@code id, date, total, uniq, by_referer, by_device, sketch, base_md5}), at most
+     * one per (id, date). Existing counters and JSONB maps are incremented key by
+     * key, so a whole flush window lands in a single statement and a single row
+     * lock per (id, date). The base64 visitor sketch arrives already merged with
+     * the stored one (see {@link #findSketches}); it simply replaces it when the
+     * stored sketch still has the md5 in {@code base_md5}, and only a row another
+     * replica wrote in between falls back to the register-wise hll_merge (V22).
+     * The same statement adds each campaign's share to
+     * affiliate_campaigns.total_clicks; rows for campaigns deleted since the
+     * clicks were buffered are dropped instead of failing the FK. The parent
+     * rows are locked first, in id order ({@code locked}), and the daily rows
+     * after them in (id, date) order, so concurrent flushes on other replicas
+     * always wait on each other in the same order instead of deadlocking.
      *
      * Using native UPSERT avoids the JPA merge/persist ambiguity that arises
      * with composite PKs where Spring Data always calls em.merge() regardless
      * of whether the row is new.
      */
     @Modifying
+    @Transactional
     @Query(value = """
-            INSERT INTO affiliate_click_daily (campaign_id, date, total_clicks, unique_clicks, by_referer, by_device)
-            VALUES (:campaignId, :date, :totalDelta, :uniqueDelta,
-                    jsonb_build_object(:refererKey, :totalDelta),
-                    jsonb_build_object(:deviceKey,  :totalDelta))
+            WITH input AS (
+                SELECT r.*
+                FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                     AS r(id BIGINT, date DATE, total INT, uniq INT, by_referer JSONB, by_device JSONB, sketch TEXT, base_md5 TEXT)
+            ),
+            locked AS MATERIALIZED (
+                SELECT p.id FROM affiliate_campaigns p
+                WHERE p.id IN (SELECT id FROM input)
+                ORDER BY p.id
+                FOR UPDATE
+            ),
+            batch AS (
+                SELECT r.* FROM input r JOIN locked l ON l.id = r.id
+            ),
+            totals AS (
+                UPDATE affiliate_campaigns p
+                SET total_clicks = p.total_clicks + t.total
+                FROM (SELECT id, SUM(total) AS total FROM batch GROUP BY id) t
+                WHERE p.id = t.id
+            )
+            INSERT INTO affiliate_click_daily (campaign_id, date, total_clicks, unique_clicks, by_referer, by_device, visitor_sketch)
+            SELECT r.id, r.date, r.total, r.uniq, r.by_referer, r.by_device, decode(r.sketch, 'base64')
+            FROM batch r
+            ORDER BY r.id, r.date
             ON CONFLICT (campaign_id, date) DO UPDATE SET
-                total_clicks  = affiliate_click_daily.total_clicks  + :totalDelta,
-                unique_clicks = affiliate_click_daily.unique_clicks + :uniqueDelta,
-                by_referer    = affiliate_click_daily.by_referer ||
-                                jsonb_build_object(:refererKey,
-                                    COALESCE(CAST(affiliate_click_daily.by_referer ->> :refererKey AS INTEGER), 0) + :totalDelta),
-                by_device     = affiliate_click_daily.by_device ||
-                                jsonb_build_object(:deviceKey,
-                                    COALESCE(CAST(affiliate_click_daily.by_device ->> :deviceKey AS INTEGER), 0) + :totalDelta)
+                total_clicks  = affiliate_click_daily.total_clicks  + EXCLUDED.total_clicks,
+                unique_clicks = affiliate_click_daily.unique_clicks + EXCLUDED.unique_clicks,
+                by_referer    = affiliate_click_daily.by_referer || (
+                                SELECT COALESCE(jsonb_object_agg(e.key,
+                                    COALESCE(CAST(affiliate_click_daily.by_referer ->> e.key AS INTEGER), 0) + CAST(e.value AS INTEGER)),
+                                    CAST('{}' AS jsonb))
+                                FROM jsonb_each_text(EXCLUDED.by_referer) e),
+                by_device     = affiliate_click_daily.by_device || (
+                                SELECT COALESCE(jsonb_object_agg(e.key,
+                                    COALESCE(CAST(affiliate_click_daily.by_device ->> e.key AS INTEGER), 0) + CAST(e.value AS INTEGER)),
+                                    CAST('{}' AS jsonb))
+                                FROM jsonb_each_text(EXCLUDED.by_device) e),
+                visitor_sketch = CASE
+                    -- Row unchanged since ClickBuffer read it: the sketch was already merged in Java
+                    WHEN md5(affiliate_click_daily.visitor_sketch) IS NOT DISTINCT FROM (
+                            SELECT b.base_md5 FROM batch b WHERE b.id = EXCLUDED.campaign_id AND b.date = EXCLUDED.date)
+                        THEN COALESCE(EXCLUDED.visitor_sketch, affiliate_click_daily.visitor_sketch)
+                    ELSE hll_merge(affiliate_click_daily.visitor_sketch, EXCLUDED.visitor_sketch)
+                END
+            """, nativeQuery = true)
+    void upsertClicks(@Param("rowsJson") String rowsJson);
+
+    /**
+     * Stored visitor sketches for the given {@code [{id, date}]} keys, as
+     * [id, date (text), sketch, md5(sketch)]; keys without a sketch are absent.
+     * Read by ClickBuffer ahead of {@link #upsertClicks}, outside any row lock.
+     */
+    @Query(value = """
+            SELECT d.campaign_id, CAST(d.date AS TEXT), d.visitor_sketch, md5(d.visitor_sketch)
+            FROM jsonb_to_recordset(CAST(:keysJson AS jsonb)) AS k(id BIGINT, date DATE)
+            JOIN affiliate_click_daily d ON d.campaign_id = k.id AND d.date = k.date
+            WHERE d.visitor_sketch IS NOT NULL
             """, nativeQuery = true)
-    void upsertClick(@Param("campaignId") Long campaignId,
-                     @Param("date")       LocalDate date,
-                     @Param("totalDelta") int totalDelta,
-                     @Param("uniqueDelta") int uniqueDelta,
-                     @Param("refererKey") String refererKey,
-                     @Param("deviceKey")  String deviceKey);
+    List<Object[]> findSketches(@Param("keysJson") String keysJson);
 }
@@ -3,9 +3,11 @@ package com.javanextboilerplate.repository;
 import com.javanextboilerplate.entity.Channel;
 import com.javanextboilerplate.entity.Platform;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +21,11 @@ public interface ChannelRepository extends JpaRepository<Channel, Long> {
      */
     List<Channel> findByProjectId(Long projectId);
 
+    /**
+     * Check that a channel is owned by a project (see ProjectAccess)
+     */
+    boolean existsByIdAndProjectId(Long id, Long projectId);
+
     /**
      * Find channels by platform
      */
@@ -35,17 +42,89 @@ public interface ChannelRepository extends JpaRepository<Channel, Long> {
     Optional<Channel> findByProjectIdAndPlatformAndChannelId(Long projectId, Platform platform, String channelId);
 
     /**
-     * Find channels that need syncing (haven't been synced recently)
+     * Find channels whose next sync time (see SyncCadence) is at or before the threshold
      */
-    @Query("SELECT c FROM Channel c WHERE c.isActive = true AND (c.lastSyncedAt IS NULL OR c.lastSyncedAt < :threshold)")
+    @Query("SELECT c FROM Channel c WHERE c.isActive = true AND (c.nextSyncAt IS NULL OR c.nextSyncAt <= :threshold)")
     List<Channel> findChannelsNeedingSync(LocalDateTime threshold);
 
+    /**
+     * Push back a channel's next sync without touching the rest of the row
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Channel c SET c.nextSyncAt = :nextSyncAt WHERE c.id = :id")
+    int postponeSync(@Param("id") Long id, @Param("nextSyncAt") LocalDateTime nextSyncAt);
+
     /**
      * Find channels with expired tokens
      */
     @Query("SELECT c FROM Channel c WHERE c.isActive = true AND c.tokenExpiresAt < :now")
     List<Channel> findChannelsWithExpiredTokens(LocalDateTime now);
 
+    /**
+     * Take the token refresh lease unless another refresh holds it; returns 1 when taken
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Channel c SET c.tokenRefreshUntil = :until
+            WHERE c.id = :id AND c.isActive = true
+              AND (c.tokenRefreshUntil IS NULL OR c.tokenRefreshUntil < :now)
+            """)
+    int claimTokenRefresh(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Channel c SET c.tokenRefreshUntil = NULL WHERE c.id = :id")
+    int releaseTokenRefresh(@Param("id") Long id);
+
+    /**
+     * Store a refreshed token and release the lease in one statement. A null refresh
+     * token keeps the current one (providers that don't rotate).
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Channel c
+            SET c.accessToken = :accessToken,
+                c.refreshToken = COALESCE(:refreshToken, c.refreshToken),
+                c.tokenExpiresAt = :expiresAt,
+                c.tokenRefreshUntil = NULL,
+                c.updatedAt = :now
+            WHERE c.id = :id
+            """)
+    int storeRefreshedToken(@Param("id") Long id,
+                            @Param("accessToken") String accessToken,
+                            @Param("refreshToken") String refreshToken,
+                            @Param("expiresAt") LocalDateTime expiresAt,
+                            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Channel c SET c.isActive = false, c.tokenRefreshUntil = NULL, c.updatedAt = :now WHERE c.id = :id")
+    int deactivate(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Record a finished sync without writing the token columns, which the
+     * token refresher may have rotated while the sync was running
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Channel c
+            SET c.followerCount = :followerCount,
+                c.lastSyncedAt = :syncedAt,
+                c.nextSyncAt = :nextSyncAt,
+                c.syncIntervalMinutes = :intervalMinutes,
+                c.updatedAt = :syncedAt
+            WHERE c.id = :id
+            """)
+    int recordSync(@Param("id") Long id,
+                   @Param("followerCount") Long followerCount,
+                   @Param("syncedAt") LocalDateTime syncedAt,
+                   @Param("nextSyncAt") LocalDateTime nextSyncAt,
+                   @Param("intervalMinutes") Integer intervalMinutes);
+
     /**
      * Count active channels by platform for a project
      */
@@ -71,16 +150,30 @@ public interface ChannelRepository extends JpaRepository<Channel, Long> {
     /**
      * Get follower counts grouped by platform for a project
      */
-    @Query("SELECT c.platform, c.followerCount " +
-           "FROM Channel c " +
-           "WHERE c.project.id = :projectId AND c.isActive = true AND c.followerCount IS NOT NULL")
+    @Query("""
+            SELECT c.platform, c.followerCount
+            FROM Channel c
+            WHERE c.project.id = :projectId AND c.isActive = true AND c.followerCount IS NOT NULL
+            """)
     List<Object[]> getFollowersByPlatform(@Param("projectId") Long projectId);
 
     /**
      * Get follower counts grouped by platform for a set of channel IDs (owned + linked)
      */
-    @Query("SELECT c.platform, c.followerCount " +
-           "FROM Channel c " +
-           "WHERE c.id IN :channelIds AND c.isActive = true AND c.followerCount IS NOT NULL")
+    @Query("""
+            SELECT c.platform, c.followerCount
+            FROM Channel c
+            WHERE c.id IN :channelIds AND c.isActive = true AND c.followerCount IS NOT NULL
+            """)
     List<Object[]> getFollowersByChannelIds(@Param("channelIds") List<Long> channelIds);
+
+    /**
+     * IDs of the channels a project shows: its own plus those linked into it
+     */
+    @Query("""
+            SELECT c.id FROM Channel c
+            WHERE c.project.id = :projectId
+               OR c.id IN (SELECT l.channelId FROM LinkedChannel l WHERE l.projectId = :projectId)
+            """)
+    List<Long> findChannelIdsForProject(@Param("projectId") Long projectId);
 }
@@ -0,0 +1,43 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.entity.ChannelStatsChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChannelStatsChunkRepository extends JpaRepository<ChannelStatsChunk, Long> {
+
+    Optional<ChannelStatsChunk> findByChannelIdAndPeriodStart(Long channelId, LocalDateTime periodStart);
+
+    /**
+     * Chunks holding at least one snapshot in [from, to] for any of the given channels
+     */
+    @Query("SELECT c FROM ChannelStatsChunk c WHERE c.channelId IN :channelIds AND c.lastAt >= :from AND c.firstAt <= :to ORDER BY c.firstAt ASC")
+    List<ChannelStatsChunk> findOverlapping(@Param("channelIds") List<Long> channelIds,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    /**
+     * Chunks not yet folded into channel_stats_daily (V31), oldest first. Locked
+     * with SKIP LOCKED so replicas starting together backfill different chunks.
+     */
+    @Query(value = """
+            SELECT c.* FROM channel_stats_chunks c
+            WHERE NOT c.daily_rolled_up
+            ORDER BY c.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ChannelStatsChunk> findNotRolledUp(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE channel_stats_chunks SET daily_rolled_up = true WHERE id IN (:ids)", nativeQuery = true)
+    int markRolledUp(@Param("ids") List<Long> ids);
+}
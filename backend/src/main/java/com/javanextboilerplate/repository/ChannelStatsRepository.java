@@ -2,10 +2,13 @@ package com.javanextboilerplate.repository;
 
 import com.javanextboilerplate.entity.ChannelStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -14,97 +17,104 @@ import java.util.Optional;
 public interface ChannelStatsRepository extends JpaRepository<ChannelStats, Long> {
 
     /**
-     * Find all stats for a channel ordered by date
+     * Find the latest stats for a channel
      */
-    List<ChannelStats> findByChannelIdOrderByRecordedAtDesc(Long channelId);
+    @Query("SELECT cs FROM ChannelStats cs WHERE cs.channel.id = :channelId ORDER BY cs.recordedAt DESC LIMIT 1")
+    Optional<ChannelStats> findLatestByChannelId(Long channelId);
 
-    /**
-     * Find stats in a date range
-     */
-    List<ChannelStats> findByChannelIdAndRecordedAtBetweenOrderByRecordedAtAsc(
-        Long channelId, LocalDateTime startDate, LocalDateTime endDate
-    );
+    // ── Daily rollup (channel_stats_daily, V29) ─────────────────────────────
 
     /**
-     * Find the latest stats for a channel
+     * Record the channel's follower count for the day. Later readings replace
+     * earlier ones, so the row always holds the last value seen that day.
      */
-    @Query("SELECT cs FROM ChannelStats cs WHERE cs.channel.id = :channelId ORDER BY cs.recordedAt DESC LIMIT 1")
-    Optional<ChannelStats> findLatestByChannelId(Long channelId);
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO channel_stats_daily (channel_id, day, followers_count, recorded_at)
+            VALUES (:channelId, CAST(:recordedAt AS DATE), :followers, :recordedAt)
+            ON CONFLICT (channel_id, day) DO UPDATE SET
+                followers_count = EXCLUDED.followers_count,
+                recorded_at     = EXCLUDED.recorded_at
+            WHERE channel_stats_daily.recorded_at <= EXCLUDED.recorded_at
+            """, nativeQuery = true)
+    int upsertDaily(@Param("channelId") Long channelId,
+                    @Param("followers") Long followers,
+                    @Param("recordedAt") LocalDateTime recordedAt);
 
     /**
-     * Find stats recorded after a certain date
+     * Backfill daily rows in bulk. Like upsertDaily, a row only replaces an
+     * existing one for the same day when it was recorded later.
      */
-    List<ChannelStats> findByChannelIdAndRecordedAtAfter(Long channelId, LocalDateTime since);
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO channel_stats_daily (channel_id, day, followers_count, recorded_at)
+            SELECT r.channel_id, r.day, r.followers_count, r.recorded_at
+            FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                 AS r(channel_id BIGINT, day DATE, followers_count BIGINT, recorded_at TIMESTAMP)
+            ORDER BY r.channel_id, r.day
+            ON CONFLICT (channel_id, day) DO UPDATE SET
+                followers_count = EXCLUDED.followers_count,
+                recorded_at     = EXCLUDED.recorded_at
+            WHERE channel_stats_daily.recorded_at < EXCLUDED.recorded_at
+            """, nativeQuery = true)
+    int upsertDailyIfLater(@Param("rowsJson") String rowsJson);
 
     /**
-     * Get average engagement rate for a channel over a period
+     * Daily rows in [from, to] for the given channels: channel_id, day, followers_count
      */
-    @Query("SELECT AVG(cs.engagementRate) FROM ChannelStats cs WHERE cs.channel.id = :channelId AND cs.recordedAt BETWEEN :startDate AND :endDate")
-    Double getAverageEngagementRate(Long channelId, LocalDateTime startDate, LocalDateTime endDate);
+    @Query(value = """
+            SELECT channel_id, day, followers_count
+            FROM channel_stats_daily
+            WHERE channel_id IN :channelIds AND day BETWEEN :from AND :to
+            ORDER BY channel_id, day
+            """, nativeQuery = true)
+    List<Object[]> findDailyBetween(@Param("channelIds") List<Long> channelIds,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
 
     /**
-     * Get follower growth for a channel
+     * Each channel's last daily row before the given day (one primary-key probe
+     * per channel), used to carry values into the start of a range
      */
-    @Query("SELECT cs.recordedAt, cs.followersCount FROM ChannelStats cs WHERE cs.channel.id = :channelId AND cs.recordedAt BETWEEN :startDate AND :endDate ORDER BY cs.recordedAt ASC")
-    List<Object[]> getFollowerGrowth(Long channelId, LocalDateTime startDate, LocalDateTime endDate);
+    @Query(value = """
+            SELECT d.channel_id, d.day, d.followers_count
+            FROM channels c
+            JOIN LATERAL (
+                SELECT cd.channel_id, cd.day, cd.followers_count
+                FROM channel_stats_daily cd
+                WHERE cd.channel_id = c.id AND cd.day < :day
+                ORDER BY cd.day DESC
+                LIMIT 1
+            ) d ON TRUE
+            WHERE c.id IN :channelIds
+            """, nativeQuery = true)
+    List<Object[]> findDailyBefore(@Param("channelIds") List<Long> channelIds,
+                                   @Param("day") LocalDate day);
 
     /**
-     * Get daily total followers across all channels for a project (for sparkline).
-     * Uses DISTINCT ON to take only the latest snapshot per channel per day before summing,
-     * so repeated syncs on the same day don't inflate the total.
+     * Find stats in a date range for several channels at once (hot rows only; see StatsTimeSeries)
      */
-    @Query(value =
-        "SELECT day, SUM(followers_count) AS total_followers " +
-        "FROM ( " +
-        "  SELECT DISTINCT ON (cs.channel_id, DATE_TRUNC('day', cs.recorded_at)) " +
-        "    cs.channel_id, " +
-        "    DATE_TRUNC('day', cs.recorded_at) AS day, " +
-        "    cs.followers_count " +
-        "  FROM channel_stats cs " +
-        "  JOIN channels c ON cs.channel_id = c.id " +
-        "  WHERE c.project_id = :projectId " +
-        "  ORDER BY cs.channel_id, DATE_TRUNC('day', cs.recorded_at), cs.recorded_at DESC " +
-        ") latest_per_channel_day " +
-        "GROUP BY day " +
-        "ORDER BY day ASC",
-        nativeQuery = true)
-    List<Object[]> getProjectFollowerTimeline(@Param("projectId") Long projectId);
+    @Query("SELECT cs FROM ChannelStats cs WHERE cs.channel.id IN :channelIds AND cs.recordedAt BETWEEN :from AND :to ORDER BY cs.recordedAt ASC")
+    List<ChannelStats> findByChannelIdsBetween(@Param("channelIds") List<Long> channelIds,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
 
     /**
-     * Get one snapshot per day for a channel (latest recorded_at wins).
-     * Uses DISTINCT ON to deduplicate multiple syncs within the same day.
+     * Channels with a snapshot older than the cutoff that is not their newest,
+     * i.e. something for StatsCompactor to move. The newest snapshot always
+     * stays hot, so a channel that is no longer synced drops out once compacted.
      */
-    @Query(value =
-        "SELECT DISTINCT ON (DATE_TRUNC('day', recorded_at)) " +
-        "  DATE_TRUNC('day', recorded_at) AS day, followers_count " +
-        "FROM channel_stats " +
-        "WHERE channel_id = :channelId AND recorded_at BETWEEN :startDate AND :endDate " +
-        "ORDER BY DATE_TRUNC('day', recorded_at), recorded_at DESC",
-        nativeQuery = true)
-    List<Object[]> findDailySnapshotsByChannelId(
-        @Param("channelId") Long channelId,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
-    );
+    @Query("SELECT cs.channel.id FROM ChannelStats cs GROUP BY cs.channel.id " +
+           "HAVING MIN(cs.recordedAt) < :cutoff AND MIN(cs.recordedAt) < MAX(cs.recordedAt)")
+    List<Long> findChannelIdsWithStatsBefore(@Param("cutoff") LocalDateTime cutoff);
 
     /**
-     * Get follower timeline aggregated across a set of channel IDs (owned + linked).
-     * Uses DISTINCT ON to take only the latest snapshot per channel per day before summing,
-     * so repeated syncs on the same day don't inflate the total.
+     * Snapshots older than the cutoff, excluding the channel's newest one (which always stays hot)
      */
-    @Query(value =
-        "SELECT day, SUM(followers_count) AS total_followers " +
-        "FROM ( " +
-        "  SELECT DISTINCT ON (channel_id, DATE_TRUNC('day', recorded_at)) " +
-        "    channel_id, " +
-        "    DATE_TRUNC('day', recorded_at) AS day, " +
-        "    followers_count " +
-        "  FROM channel_stats " +
-        "  WHERE channel_id IN :channelIds " +
-        "  ORDER BY channel_id, DATE_TRUNC('day', recorded_at), recorded_at DESC " +
-        ") latest_per_channel_day " +
-        "GROUP BY day " +
-        "ORDER BY day ASC",
-        nativeQuery = true)
-    List<Object[]> getFollowerTimelineByChannelIds(@Param("channelIds") List<Long> channelIds);
+    @Query("SELECT cs FROM ChannelStats cs WHERE cs.channel.id = :channelId AND cs.recordedAt < :cutoff " +
+           "AND cs.recordedAt < (SELECT MAX(cs2.recordedAt) FROM ChannelStats cs2 WHERE cs2.channel.id = :channelId) " +
+           "ORDER BY cs.recordedAt ASC")
+    List<ChannelStats> findCompactable(@Param("channelId") Long channelId, @Param("cutoff") LocalDateTime cutoff);
 }
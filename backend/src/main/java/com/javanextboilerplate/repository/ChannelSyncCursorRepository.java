@@ -0,0 +1,9 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.entity.ChannelSyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChannelSyncCursorRepository extends JpaRepository<ChannelSyncCursor, Long> {
+}
@@ -18,6 +18,9 @@ public interface LinkedChannelRepository extends JpaRepository<LinkedChannel, Lo
 
     void deleteByProjectIdAndChannelId(Long projectId, Long channelId);
 
+    @Query("SELECT lc.projectId FROM LinkedChannel lc WHERE lc.channelId = :channelId")
+    List<Long> findProjectIdsByChannelId(@Param("channelId") Long channelId);
+
     /**
      * Fetch the actual Channel entities linked to a project, with project eagerly loaded.
      */
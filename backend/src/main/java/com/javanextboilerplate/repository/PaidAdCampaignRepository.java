@@ -10,4 +10,6 @@ import java.util.List;
 public interface PaidAdCampaignRepository extends JpaRepository<PaidAdCampaign, Long> {
 
     List<PaidAdCampaign> findByProjectIdOrderByCreatedAtDesc(Long projectId);
+
+    boolean existsByIdAndProjectId(Long id, Long projectId);
 }
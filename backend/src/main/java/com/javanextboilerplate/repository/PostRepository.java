@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.springframework.data.repository.query.Param;
 
@@ -60,8 +61,65 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByProjectIdAndPublishedAfter(@Param("projectId") Long projectId, @Param("since") LocalDateTime since);
 
     /**
-     * Find posts across a set of channel IDs (owned + linked) within a date range
+     * One page of posts across a set of channel IDs (owned + linked) published
+     * since the given date, newest first, each paired with its latest stats
+     * (null if it has none yet): rows of [Post, PostStatsLatest].
+     *
+     * Keyset pagination on (published_at, id): pass the last row of the previous
+     * page as {@code beforePublishedAt}/{@code beforeId}; for the first page, any
+     * bound above every post (see PostFeedService). The page size comes from
+     * {@code pageable}, whose page number should stay 0, or Pageable.unpaged()
+     * for every row.
      */
-    @Query("SELECT p FROM Post p JOIN FETCH p.channel LEFT JOIN FETCH p.stats WHERE p.channel.id IN :channelIds AND p.publishedAt >= :since ORDER BY p.publishedAt DESC")
-    List<Post> findByChannelIdsAndPublishedAfter(@Param("channelIds") List<Long> channelIds, @Param("since") LocalDateTime since);
+    @Query("""
+            SELECT p, l FROM Post p JOIN FETCH p.channel
+            LEFT JOIN PostStatsLatest l ON l.postId = p.id
+            WHERE p.channel.id IN :channelIds AND p.publishedAt >= :since
+              AND (p.publishedAt < :beforePublishedAt
+                   OR (p.publishedAt = :beforePublishedAt AND p.id < :beforeId))
+            ORDER BY p.publishedAt DESC, p.id DESC
+            """)
+    List<Object[]> findPageByChannelIdsAndPublishedAfter(@Param("channelIds") List<Long> channelIds,
+                                                        @Param("since") LocalDateTime since,
+                                                        @Param("beforePublishedAt") LocalDateTime beforePublishedAt,
+                                                        @Param("beforeId") Long beforeId,
+                                                        Pageable pageable);
+
+    /**
+     * Multi-row PostgreSQL UPSERT used by channel sync.
+     *
+     * {@code rowsJson} is a JSON array of fetched posts ({@code platform_post_id,
+     * title, description, post_url, thumbnail_url, duration_seconds, published_at}),
+     * at most one per platform_post_id. New posts are inserted (published_at
+     * defaulting to {@code now}); existing ones only take the non-null fields,
+     * and are left untouched when those match what is stored.
+     * Returns {@code [id, platform_post_id, inserted]} for each inserted or
+     * changed row only.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO posts (channel_id, platform_post_id, title, description, post_url, thumbnail_url,
+                               duration_seconds, published_at)
+            SELECT :channelId, r.platform_post_id, r.title, r.description, r.post_url, r.thumbnail_url,
+                   r.duration_seconds, COALESCE(r.published_at, :now)
+            FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                 AS r(platform_post_id TEXT, title TEXT, description TEXT, post_url TEXT, thumbnail_url TEXT,
+                      duration_seconds INT, published_at TIMESTAMP)
+            ON CONFLICT (channel_id, platform_post_id) DO UPDATE SET
+                title            = COALESCE(EXCLUDED.title, posts.title),
+                description      = COALESCE(EXCLUDED.description, posts.description),
+                post_url         = COALESCE(EXCLUDED.post_url, posts.post_url),
+                thumbnail_url    = COALESCE(EXCLUDED.thumbnail_url, posts.thumbnail_url),
+                duration_seconds = COALESCE(EXCLUDED.duration_seconds, posts.duration_seconds),
+                updated_at       = NOW()
+            WHERE (posts.title, posts.description, posts.post_url, posts.thumbnail_url, posts.duration_seconds)
+                  IS DISTINCT FROM
+                  (COALESCE(EXCLUDED.title, posts.title), COALESCE(EXCLUDED.description, posts.description),
+                   COALESCE(EXCLUDED.post_url, posts.post_url), COALESCE(EXCLUDED.thumbnail_url, posts.thumbnail_url),
+                   COALESCE(EXCLUDED.duration_seconds, posts.duration_seconds))
+            RETURNING id, platform_post_id, (xmax = 0) AS inserted
+            """, nativeQuery = true)
+    List<Object[]> upsertPosts(@Param("channelId") Long channelId,
+                               @Param("rowsJson") String rowsJson,
+                               @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,25 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.entity.PostStatsChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PostStatsChunkRepository extends JpaRepository<PostStatsChunk, Long> {
+
+    Optional<PostStatsChunk> findByPostIdAndPeriodStart(Long postId, LocalDateTime periodStart);
+
+    /**
+     * Chunks holding at least one snapshot in [from, to] for any of the given posts
+     */
+    @Query("SELECT c FROM PostStatsChunk c WHERE c.postId IN :postIds AND c.lastAt >= :from AND c.firstAt <= :to ORDER BY c.firstAt ASC")
+    List<PostStatsChunk> findOverlapping(@Param("postIds") List<Long> postIds,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+}
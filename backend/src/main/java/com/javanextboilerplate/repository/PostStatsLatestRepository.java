@@ -0,0 +1,71 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.entity.PostStatsLatest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PostStatsLatestRepository extends JpaRepository<PostStatsLatest, Long> {
+
+    /**
+     * Get total views for all posts in a channel
+     */
+    @Query("SELECT SUM(l.viewsCount) FROM PostStatsLatest l WHERE l.channelId = :channelId")
+    Long getTotalViewsForChannel(@Param("channelId") Long channelId);
+
+    /**
+     * Get average engagement rate for posts in a channel
+     */
+    @Query("SELECT AVG(l.engagementRate) FROM PostStatsLatest l WHERE l.channelId = :channelId")
+    Double getAverageEngagementRateForChannel(@Param("channelId") Long channelId);
+
+    /**
+     * Get top performing posts by views: post id and view count, best first
+     */
+    @Query("SELECT l.postId, l.viewsCount FROM PostStatsLatest l WHERE l.channelId = :channelId ORDER BY l.viewsCount DESC")
+    List<Object[]> getTopPostsByViews(@Param("channelId") Long channelId, Pageable pageable);
+
+    /**
+     * Brings the projection up to date from one sync's rows of {@code rowsJson}
+     * ({@code platform_post_id, views, likes, comments, shares}), the same
+     * payload as PostStatsRepository.insertChangedSnapshots. Rows whose
+     * counters are unchanged are left alone, so idle posts don't churn the
+     * table. Engagement rate is (likes + comments + shares) / views in percent.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO post_stats_latest (post_id, channel_id, recorded_at, views_count, likes_count,
+                                           comments_count, shares_count, engagement_rate)
+            SELECT p.id, p.channel_id, :recordedAt, r.views, r.likes, r.comments, r.shares,
+                   CASE WHEN r.views > 0
+                        THEN LEAST(999.99, ROUND((r.likes + r.comments + r.shares) * 100.0 / r.views, 2))
+                        ELSE 0 END
+            FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                 AS r(platform_post_id TEXT, views BIGINT, likes BIGINT, comments BIGINT, shares BIGINT)
+            JOIN posts p ON p.channel_id = :channelId AND p.platform_post_id = r.platform_post_id
+            ON CONFLICT (post_id) DO UPDATE SET
+                recorded_at     = EXCLUDED.recorded_at,
+                views_count     = EXCLUDED.views_count,
+                likes_count     = EXCLUDED.likes_count,
+                comments_count  = EXCLUDED.comments_count,
+                shares_count    = EXCLUDED.shares_count,
+                engagement_rate = EXCLUDED.engagement_rate
+            WHERE post_stats_latest.recorded_at <= EXCLUDED.recorded_at
+              AND (post_stats_latest.views_count, post_stats_latest.likes_count,
+                   post_stats_latest.comments_count, post_stats_latest.shares_count)
+                  IS DISTINCT FROM
+                  (EXCLUDED.views_count, EXCLUDED.likes_count, EXCLUDED.comments_count, EXCLUDED.shares_count)
+            """, nativeQuery = true)
+    int upsertFromSync(@Param("channelId") Long channelId,
+                       @Param("rowsJson") String rowsJson,
+                       @Param("recordedAt") LocalDateTime recordedAt);
+}
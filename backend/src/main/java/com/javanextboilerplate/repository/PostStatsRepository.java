@@ -2,8 +2,11 @@ package com.javanextboilerplate.repository;
 
 import com.javanextboilerplate.entity.PostStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,18 +15,6 @@ import java.util.Optional;
 @Repository
 public interface PostStatsRepository extends JpaRepository<PostStats, Long> {
 
-    /**
-     * Find all stats for a post ordered by date
-     */
-    List<PostStats> findByPostIdOrderByRecordedAtDesc(Long postId);
-
-    /**
-     * Find stats in a date range
-     */
-    List<PostStats> findByPostIdAndRecordedAtBetweenOrderByRecordedAtAsc(
-        Long postId, LocalDateTime startDate, LocalDateTime endDate
-    );
-
     /**
      * Find the latest stats for a post
      */
@@ -31,25 +22,61 @@ public interface PostStatsRepository extends JpaRepository<PostStats, Long> {
     Optional<PostStats> findLatestByPostId(Long postId);
 
     /**
-     * Find stats recorded after a certain date
+     * Find stats in a date range for several posts at once (hot rows only; see StatsTimeSeries)
      */
-    List<PostStats> findByPostIdAndRecordedAtAfter(Long postId, LocalDateTime since);
+    @Query("SELECT ps FROM PostStats ps WHERE ps.post.id IN :postIds AND ps.recordedAt BETWEEN :from AND :to ORDER BY ps.recordedAt ASC")
+    List<PostStats> findByPostIdsBetween(@Param("postIds") List<Long> postIds,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 
     /**
-     * Get total views for all posts in a channel
+     * Posts with a snapshot older than the cutoff that is not their newest,
+     * i.e. something for StatsCompactor to move. The newest snapshot always
+     * stays hot, so a post that is no longer synced drops out once compacted.
      */
-    @Query("SELECT SUM(ps.viewsCount) FROM PostStats ps WHERE ps.post.channel.id = :channelId AND ps.recordedAt = (SELECT MAX(ps2.recordedAt) FROM PostStats ps2 WHERE ps2.post.id = ps.post.id)")
-    Long getTotalViewsForChannel(Long channelId);
+    @Query("SELECT ps.post.id FROM PostStats ps GROUP BY ps.post.id " +
+           "HAVING MIN(ps.recordedAt) < :cutoff AND MIN(ps.recordedAt) < MAX(ps.recordedAt)")
+    List<Long> findPostIdsWithStatsBefore(@Param("cutoff") LocalDateTime cutoff);
 
     /**
-     * Get top performing posts by views
+     * Snapshots older than the cutoff, excluding the post's newest one (which always stays hot)
      */
-    @Query("SELECT ps.post.id, MAX(ps.viewsCount) as maxViews FROM PostStats ps WHERE ps.post.channel.id = :channelId GROUP BY ps.post.id ORDER BY maxViews DESC")
-    List<Object[]> getTopPostsByViews(Long channelId);
+    @Query("SELECT ps FROM PostStats ps WHERE ps.post.id = :postId AND ps.recordedAt < :cutoff " +
+           "AND ps.recordedAt < (SELECT MAX(ps2.recordedAt) FROM PostStats ps2 WHERE ps2.post.id = :postId) " +
+           "ORDER BY ps.recordedAt ASC")
+    List<PostStats> findCompactable(@Param("postId") Long postId, @Param("cutoff") LocalDateTime cutoff);
 
     /**
-     * Get average engagement rate for posts in a channel
+     * Writes one snapshot per row of {@code rowsJson}
+     * ({@code platform_post_id, views, likes, comments, shares}) for posts of
+     * the given channel, in a single statement. A row is skipped when the
+     * post's latest snapshot has the same counters and is newer than
+     * {@code heartbeatCutoff}, so idle posts stop accruing identical rows.
+     * IDENTITY keys rule out JDBC batching through saveAll, hence the native insert.
      */
-    @Query("SELECT AVG(ps.engagementRate) FROM PostStats ps WHERE ps.post.channel.id = :channelId AND ps.recordedAt = (SELECT MAX(ps2.recordedAt) FROM PostStats ps2 WHERE ps2.post.id = ps.post.id)")
-    Double getAverageEngagementRateForChannel(Long channelId);
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO post_stats (post_id, recorded_at, views_count, likes_count, comments_count, shares_count,
+                                    saves_count, watch_time_seconds)
+            SELECT p.id, :recordedAt, r.views, r.likes, r.comments, r.shares, 0, 0
+            FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                 AS r(platform_post_id TEXT, views BIGINT, likes BIGINT, comments BIGINT, shares BIGINT)
+            JOIN posts p ON p.channel_id = :channelId AND p.platform_post_id = r.platform_post_id
+            LEFT JOIN LATERAL (
+                SELECT ps.recorded_at, ps.views_count, ps.likes_count, ps.comments_count, ps.shares_count
+                FROM post_stats ps
+                WHERE ps.post_id = p.id
+                ORDER BY ps.recorded_at DESC
+                LIMIT 1
+            ) last ON TRUE
+            WHERE last.recorded_at IS NULL
+               OR last.recorded_at < :heartbeatCutoff
+               OR (last.views_count, last.likes_count, last.comments_count, last.shares_count)
+                  IS DISTINCT FROM (r.views, r.likes, r.comments, r.shares)
+            """, nativeQuery = true)
+    int insertChangedSnapshots(@Param("channelId") Long channelId,
+                               @Param("rowsJson") String rowsJson,
+                               @Param("recordedAt") LocalDateTime recordedAt,
+                               @Param("heartbeatCutoff") LocalDateTime heartbeatCutoff);
 }
@@ -21,6 +21,11 @@ public interface SaasProjectRepository extends JpaRepository<SaasProject, Long>
      */
     Optional<SaasProject> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Check project ownership without loading the project (see ProjectAccess)
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
     /**
      * Check if a user has any projects
      */
@@ -0,0 +1,131 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.entity.SyncJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Native queries behind SyncJobQueue. All timing (run_after, leases) uses the
+ * database clock so replicas with skewed clocks agree on what is due.
+ */
+@Repository
+public interface SyncJobRepository extends JpaRepository<SyncJob, Long> {
+
+    /**
+     * Queues a job for each of the given channels. Channels that already have an
+     * open job are skipped by the partial unique index, so concurrent enqueues
+     * from several replicas are safe.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO sync_jobs (channel_id, status, run_after)
+            SELECT c.id, 'PENDING', NOW()
+            FROM channels c
+            WHERE c.id IN (:channelIds)
+            ON CONFLICT (channel_id) WHERE status IN ('PENDING', 'RUNNING') DO NOTHING
+            """, nativeQuery = true)
+    int enqueue(@Param("channelIds") List<Long> channelIds);
+
+    /**
+     * Claims up to {@code limit} due jobs for {@code owner}: pending jobs whose
+     * run_after has passed, and running jobs whose lease expired. SKIP LOCKED lets
+     * replicas claim concurrently without blocking on each other's rows.
+     * Returns {@code [id, channel_id, attempts]} per claimed job.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE sync_jobs j
+            SET status           = 'RUNNING',
+                lease_owner      = :owner,
+                lease_expires_at = NOW() + make_interval(secs => :leaseSeconds),
+                attempts         = j.attempts + 1,
+                updated_at       = NOW()
+            WHERE j.id IN (
+                SELECT id FROM sync_jobs
+                WHERE (status = 'PENDING' AND run_after <= NOW())
+                   OR (status = 'RUNNING' AND lease_expires_at < NOW() AND attempts < :maxAttempts)
+                ORDER BY run_after
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING j.id, j.channel_id, j.attempts
+            """, nativeQuery = true)
+    List<Object[]> claim(@Param("owner") String owner,
+                         @Param("limit") int limit,
+                         @Param("leaseSeconds") int leaseSeconds,
+                         @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Extends the leases {@code owner} still holds among {@code ids}. Returns the
+     * ids renewed; a missing id means another replica has claimed the job since.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE sync_jobs
+            SET lease_expires_at = NOW() + make_interval(secs => :leaseSeconds),
+                updated_at       = NOW()
+            WHERE id IN (:ids) AND status = 'RUNNING' AND lease_owner = :owner
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> renewLeases(@Param("ids") List<Long> ids,
+                           @Param("owner") String owner,
+                           @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE sync_jobs
+            SET status = 'DONE', finished_at = NOW(), updated_at = NOW(),
+                lease_owner = NULL, lease_expires_at = NULL, last_error = NULL
+            WHERE id = :id AND lease_owner = :owner
+            """, nativeQuery = true)
+    int complete(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Puts a failed job back in the queue after {@code backoffSeconds}, or marks it
+     * FAILED once it has used {@code maxAttempts}.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE sync_jobs
+            SET status           = CASE WHEN attempts >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                finished_at      = CASE WHEN attempts >= :maxAttempts THEN NOW() END,
+                run_after        = NOW() + make_interval(secs => :backoffSeconds),
+                last_error       = :error,
+                lease_owner      = NULL,
+                lease_expires_at = NULL,
+                updated_at       = NOW()
+            WHERE id = :id AND lease_owner = :owner
+            """, nativeQuery = true)
+    int fail(@Param("id") Long id,
+             @Param("owner") String owner,
+             @Param("error") String error,
+             @Param("backoffSeconds") int backoffSeconds,
+             @Param("maxAttempts") int maxAttempts);
+
+    /** Gives up on jobs whose workers kept dying: lease expired with no attempts left. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE sync_jobs
+            SET status = 'FAILED', finished_at = NOW(), updated_at = NOW(),
+                last_error = COALESCE(last_error, 'Lease expired'), lease_owner = NULL, lease_expires_at = NULL
+            WHERE status = 'RUNNING' AND lease_expires_at < NOW() AND attempts >= :maxAttempts
+            """, nativeQuery = true)
+    int failAbandoned(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM sync_jobs WHERE status IN ('DONE', 'FAILED') AND finished_at < :before",
+           nativeQuery = true)
+    int purgeFinished(@Param("before") LocalDateTime before);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,28 +24,69 @@ public interface UtmClickDailyRepository extends JpaRepository<UtmClickDaily, Ut
             List<Long> utmLinkIds, LocalDate from, LocalDate to);
 
     /**
-     * Atomic PostgreSQL UPSERT — same pattern as AffiliateClickDailyRepository.
+     * Multi-row PostgreSQL UPSERT — same pattern as AffiliateClickDailyRepository,
+     * maintaining utm_links.total_clicks.
      */
     @Modifying
+    @Transactional
     @Query(value = """
-            INSERT INTO utm_click_daily (utm_link_id, date, total_clicks, unique_clicks, by_referer, by_device)
-            VALUES (:utmLinkId, :date, :totalDelta, :uniqueDelta,
-                    jsonb_build_object(:refererKey, :totalDelta),
-                    jsonb_build_object(:deviceKey,  :totalDelta))
+            WITH input AS (
+                SELECT r.*
+                FROM jsonb_to_recordset(CAST(:rowsJson AS jsonb))
+                     AS r(id BIGINT, date DATE, total INT, uniq INT, by_referer JSONB, by_device JSONB, sketch TEXT, base_md5 TEXT)
+            ),
+            locked AS MATERIALIZED (
+                SELECT p.id FROM utm_links p
+                WHERE p.id IN (SELECT id FROM input)
+                ORDER BY p.id
+                FOR UPDATE
+            ),
+            batch AS (
+                SELECT r.* FROM input r JOIN locked l ON l.id = r.id
+            ),
+            totals AS (
+                UPDATE utm_links p
+                SET total_clicks = p.total_clicks + t.total
+                FROM (SELECT id, SUM(total) AS total FROM batch GROUP BY id) t
+                WHERE p.id = t.id
+            )
+            INSERT INTO utm_click_daily (utm_link_id, date, total_clicks, unique_clicks, by_referer, by_device, visitor_sketch)
+            SELECT r.id, r.date, r.total, r.uniq, r.by_referer, r.by_device, decode(r.sketch, 'base64')
+            FROM batch r
+            ORDER BY r.id, r.date
             ON CONFLICT (utm_link_id, date) DO UPDATE SET
-                total_clicks  = utm_click_daily.total_clicks  + :totalDelta,
-                unique_clicks = utm_click_daily.unique_clicks + :uniqueDelta,
-                by_referer    = utm_click_daily.by_referer ||
-                                jsonb_build_object(:refererKey,
-                                    COALESCE(CAST(utm_click_daily.by_referer ->> :refererKey AS INTEGER), 0) + :totalDelta),
-                by_device     = utm_click_daily.by_device ||
-                                jsonb_build_object(:deviceKey,
-                                    COALESCE(CAST(utm_click_daily.by_device ->> :deviceKey AS INTEGER), 0) + :totalDelta)
+                total_clicks  = utm_click_daily.total_clicks  + EXCLUDED.total_clicks,
+                unique_clicks = utm_click_daily.unique_clicks + EXCLUDED.unique_clicks,
+                by_referer    = utm_click_daily.by_referer || (
+                                SELECT COALESCE(jsonb_object_agg(e.key,
+                                    COALESCE(CAST(utm_click_daily.by_referer ->> e.key AS INTEGER), 0) + CAST(e.value AS INTEGER)),
+                                    CAST('{}' AS jsonb))
+                                FROM jsonb_each_text(EXCLUDED.by_referer) e),
+                by_device     = utm_click_daily.by_device || (
+                                SELECT COALESCE(jsonb_object_agg(e.key,
+                                    COALESCE(CAST(utm_click_daily.by_device ->> e.key AS INTEGER), 0) + CAST(e.value AS INTEGER)),
+                                    CAST('{}' AS jsonb))
+                                FROM jsonb_each_text(EXCLUDED.by_device) e),
+                visitor_sketch = CASE
+                    -- Row unchanged since ClickBuffer read it: the sketch was already merged in Java
+                    WHEN md5(utm_click_daily.visitor_sketch) IS NOT DISTINCT FROM (
+                            SELECT b.base_md5 FROM batch b WHERE b.id = EXCLUDED.utm_link_id AND b.date = EXCLUDED.date)
+                        THEN COALESCE(EXCLUDED.visitor_sketch, utm_click_daily.visitor_sketch)
+                    ELSE hll_merge(utm_click_daily.visitor_sketch, EXCLUDED.visitor_sketch)
+                END
             """, nativeQuery = true)
-    void upsertClick(@Param("utmLinkId")   Long utmLinkId,
-                     @Param("date")        LocalDate date,
-                     @Param("totalDelta")  int totalDelta,
-                     @Param("uniqueDelta") int uniqueDelta,
-                     @Param("refererKey")  String refererKey,
-                     @Param("deviceKey")   String deviceKey);
+    void upsertClicks(@Param("rowsJson") String rowsJson);
+
+    /**
+     * Stored visitor sketches for the given {@code [{id, date}]} keys, as
+     * [id, date (text), sketch, md5(sketch)]; keys without a sketch are absent.
+     * Read by ClickBuffer ahead of {@link #upsertClicks}, outside any row lock.
+     */
+    @Query(value = """
+            SELECT d.utm_link_id, CAST(d.date AS TEXT), d.visitor_sketch, md5(d.visitor_sketch)
+            FROM jsonb_to_recordset(CAST(:keysJson AS jsonb)) AS k(id BIGINT, date DATE)
+            JOIN utm_click_daily d ON d.utm_link_id = k.id AND d.date = k.date
+            WHERE d.visitor_sketch IS NOT NULL
+            """, nativeQuery = true)
+    List<Object[]> findSketches(@Param("keysJson") String keysJson);
 }
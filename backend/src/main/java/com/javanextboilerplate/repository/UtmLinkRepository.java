@@ -2,8 +2,11 @@ package com.javanextboilerplate.repository;
 
 import com.javanextboilerplate.entity.UtmLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,12 @@ public interface UtmLinkRepository extends JpaRepository<UtmLink, Long> {
     List<UtmLink> findByCampaignId(Long campaignId);
 
     Optional<UtmLink> findBySlug(String slug);
+
+    List<UtmLink> findByIsActiveTrue();
+
+    @Query("SELECT x.slug FROM UtmLink x")
+    List<String> findAllSlugs();
+
+    @Query("SELECT x.slug FROM UtmLink x WHERE x.createdAt >= :since")
+    List<String> findSlugsCreatedSince(@Param("since") LocalDateTime since);
 }
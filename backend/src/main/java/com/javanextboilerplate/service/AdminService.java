@@ -12,6 +12,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
@@ -28,14 +30,24 @@ public class AdminService {
     private final SaasProjectRepository projectRepository;
     private final ChannelRepository channelRepository;
     private final ChannelSyncService channelSyncService;
+    private final SyncJobQueue syncJobQueue;
 
     public void assertAdmin(String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        if (!user.isAdmin()) {
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
+        if (!user.admin()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin access required");
         }
     }
 
+    /** Non-throwing variant for security rules (e.g. the actuator metrics endpoint). */
+    public boolean isAdmin(String supabaseUserId) {
+        try {
+            return userService.getUserBySupabaseId(supabaseUserId).admin();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<AdminUserResponse> getAllUsers() {
         return userRepository.findAll().stream()
@@ -57,7 +69,7 @@ public class AdminService {
     @Async
     public void triggerGlobalSync() {
         log.info("Admin triggered global sync");
-        channelSyncService.syncAllChannels();
+        syncJobQueue.enqueueAll();
     }
 
     @Async
@@ -65,13 +77,7 @@ public class AdminService {
         log.info("Admin triggered sync for user {}", userId);
         List<Channel> channels = channelRepository.findActiveChannelsByUserId(userId);
         log.info("Found {} active channels for user {}", channels.size(), userId);
-        for (Channel channel : channels) {
-            try {
-                channelSyncService.syncChannel(channel);
-            } catch (Exception e) {
-                log.warn("Failed to sync channel {} for user {}: {}", channel.getId(), userId, e.getMessage());
-            }
-        }
+        channelSyncService.syncChannels(channels);
     }
 
     @Transactional
@@ -80,6 +86,25 @@ public class AdminService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         user.setAdmin(isAdmin);
         userRepository.save(user);
+        String supabaseUserId = user.getSupabaseUserId();
+        afterCommit(() -> userService.evictCachedUser(supabaseUserId));
         log.info("Set isAdmin={} for user {}", isAdmin, userId);
     }
+
+    /**
+     * Evict only once the change is visible, so a concurrent admin check can't
+     * re-cache the old flag. Other replicas keep theirs until the "users" TTL.
+     */
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
 }
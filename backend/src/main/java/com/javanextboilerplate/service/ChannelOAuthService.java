@@ -6,7 +6,6 @@ import com.javanextboilerplate.entity.Channel;
 import com.javanextboilerplate.entity.ChannelStats;
 import com.javanextboilerplate.entity.Platform;
 import com.javanextboilerplate.entity.SaasProject;
-import com.javanextboilerplate.entity.User;
 import com.javanextboilerplate.repository.ChannelRepository;
 import com.javanextboilerplate.repository.ChannelStatsRepository;
 import com.javanextboilerplate.repository.SaasProjectRepository;
@@ -20,7 +19,6 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
@@ -46,6 +44,7 @@ public class ChannelOAuthService {
     private final ChannelSyncService channelSyncService;
     private final UserService userService;
     private final ObjectMapper objectMapper;
+    private final PlatformHttpClient platformHttp;
 
     @Value("${FRONTEND_URL:http://localhost:3000}")
     private String frontendUrl;
@@ -99,16 +98,12 @@ public class ChannelOAuthService {
     // PKCE: store code_verifier keyed by state (short-lived, in-memory is fine)
     private final ConcurrentHashMap<String, String> pkceVerifiers = new ConcurrentHashMap<>();
 
-    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
-
     // ─── Authorization URL ───
 
     public String getAuthorizationUrl(Platform platform, Long projectId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
 
-        projectRepository.findByIdAndUserId(projectId, user.getId())
+        projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
         String clientId = getClientId(platform);
@@ -117,7 +112,7 @@ public class ChannelOAuthService {
                     platform.name() + "_CLIENT_ID environment variable.");
         }
 
-        String state = createSignedState(projectId, user.getId());
+        String state = createSignedState(projectId, user.id());
         String redirectUri = backendUrl + "/api/channels/oauth/" + platform.getValue() + "/callback";
         String scope = SCOPES.get(platform);
         String authUrl = AUTH_URLS.get(platform);
@@ -217,11 +212,13 @@ public class ChannelOAuthService {
         // Save an immediate follower-count snapshot inside this transaction.
         // This guarantees a data point even if the afterCommit sync below fails.
         if (userInfo.followerCount() != null && userInfo.followerCount() > 0) {
+            LocalDateTime recordedAt = LocalDateTime.now();
             channelStatsRepository.save(ChannelStats.builder()
                     .channel(savedChannel)
-                    .recordedAt(LocalDateTime.now())
+                    .recordedAt(recordedAt)
                     .followersCount(userInfo.followerCount())
                     .build());
+            channelStatsRepository.upsertDaily(savedChannel.getId(), userInfo.followerCount(), recordedAt);
         }
 
         // Trigger initial sync AFTER transaction commits so a sync failure can't roll back the channel save
@@ -273,7 +270,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TIKTOK, "oauth.token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -307,7 +305,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TWITTER, "oauth.token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -344,7 +343,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.YOUTUBE, "oauth.token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -372,7 +372,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.INSTAGRAM, "oauth.token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -396,7 +397,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.INSTAGRAM, "oauth.long_lived_token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -418,7 +420,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.FACEBOOK, "oauth.token", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String accessToken = json.path("access_token").asText();
@@ -456,7 +459,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TIKTOK, "user.info", request,
+                HttpResponse.BodyHandlers.ofString());
         log.info("TikTok user info response [status={}]: {}", response.statusCode(), response.body());
         JsonNode json = objectMapper.readTree(response.body());
 
@@ -490,7 +494,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TWITTER, "users.me", request,
+                HttpResponse.BodyHandlers.ofString());
         log.info("Twitter user info response [status={}]: {}", response.statusCode(), response.body());
         JsonNode json = objectMapper.readTree(response.body());
         JsonNode data = json.path("data");
@@ -510,7 +515,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.YOUTUBE, "channels", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
         JsonNode items = json.path("items");
 
@@ -536,7 +542,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.INSTAGRAM, "me", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String username = json.path("username").asText("Instagram User");
@@ -553,7 +560,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.FACEBOOK, "me", request,
+                HttpResponse.BodyHandlers.ofString());
         JsonNode json = objectMapper.readTree(response.body());
 
         String name = json.path("name").asText("Facebook User");
@@ -590,7 +598,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(10))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TIKTOK, "oauth.revoke", request,
+                HttpResponse.BodyHandlers.ofString());
         log.info("TikTok token revoked [status={}]", response.statusCode());
     }
 
@@ -608,7 +617,8 @@ public class ChannelOAuthService {
                 .timeout(Duration.ofSeconds(10))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = platformHttp.send(Platform.TWITTER, "oauth.revoke", request,
+                HttpResponse.BodyHandlers.ofString());
         log.info("Twitter token revoked [status={}]", response.statusCode());
     }
 
@@ -1,23 +1,29 @@
 package com.javanextboilerplate.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.javanextboilerplate.entity.Channel;
 import com.javanextboilerplate.entity.ChannelStats;
+import com.javanextboilerplate.entity.ChannelSyncCursor;
+import com.javanextboilerplate.entity.Platform;
 import com.javanextboilerplate.entity.Post;
-import com.javanextboilerplate.entity.PostStats;
+import com.javanextboilerplate.exception.PlatformApiException;
 import com.javanextboilerplate.repository.ChannelRepository;
 import com.javanextboilerplate.repository.ChannelStatsRepository;
+import com.javanextboilerplate.repository.ChannelSyncCursorRepository;
 import com.javanextboilerplate.repository.PostRepository;
+import com.javanextboilerplate.repository.PostStatsLatestRepository;
 import com.javanextboilerplate.repository.PostStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
@@ -26,10 +32,16 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -40,97 +52,151 @@ public class ChannelSyncService {
     private final ChannelStatsRepository channelStatsRepository;
     private final PostRepository postRepository;
     private final PostStatsRepository postStatsRepository;
+    private final PostStatsLatestRepository postStatsLatestRepository;
+    private final ChannelSyncCursorRepository syncCursorRepository;
     private final ObjectMapper objectMapper;
+    private final PlatformRateLimiter rateLimiter;
+    private final PlatformHttpClient platformHttp;
+    private final SyncMetrics syncMetrics;
+    private final SyncCadence syncCadence;
+    private final ChannelTokenRefresher tokenRefresher;
+    private final ProjectEventHub projectEvents;
+
+    @Value("${app.sync.media-fetch-parallelism:4}")
+    private int mediaFetchParallelism;
+    @Value("${app.sync.stats-heartbeat-hours:20}")
+    private int statsHeartbeatHours;
+
+    /** API maximum for both playlistItems pages and ids per videos call. */
+    private static final int YOUTUBE_PAGE_SIZE = 50;
+    /** Bounds the catch-up after a long gap, or when the cursor video was deleted: 500 uploads, 10 quota units. */
+    private static final int YOUTUBE_MAX_PLAYLIST_PAGES = 10;
+
+    private static final String FACEBOOK_ENGAGEMENT_FIELDS =
+            "likes.limit(0).summary(true),comments.limit(0).summary(true),shares";
 
-    @Value("${TWITTER_CLIENT_ID:}")
-    private String twitterClientId;
-    @Value("${TWITTER_CLIENT_SECRET:}")
-    private String twitterClientSecret;
-    @Value("${YOUTUBE_CLIENT_ID:}")
-    private String youtubeClientId;
-    @Value("${YOUTUBE_CLIENT_SECRET:}")
-    private String youtubeClientSecret;
-    @Value("${TIKTOK_CLIENT_ID:}")
-    private String tiktokClientId;
-    @Value("${TIKTOK_CLIENT_SECRET:}")
-    private String tiktokClientSecret;
-
-    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
-
-    @org.springframework.context.event.EventListener(org.springframework.boot.context.event.ApplicationReadyEvent.class)
-    @Scheduled(cron = "0 0 7 * * *")
-    public void syncAllChannels() {
-        log.info("Starting daily channel follower sync");
-        List<Channel> channels = channelRepository.findByIsActiveTrue();
-        log.info("Found {} active channels to sync", channels.size());
-
-        int success = 0;
-        int failed = 0;
-
-        for (Channel channel : channels) {
-            try {
-                syncChannel(channel);
-                success++;
-            } catch (Exception e) {
-                failed++;
-                log.warn("Failed to sync channel {} ({}): {}",
-                        channel.getId(), channel.getPlatform().getValue(), e.getMessage());
+    /**
+     * Syncs the given channels in parallel, one virtual thread per channel, and
+     * blocks until every channel has finished. Used for on-demand syncs; the
+     * daily cycle goes through SyncJobQueue so replicas share the work.
+     */
+    public void syncChannels(List<Channel> channels) {
+        long startedAt = System.nanoTime();
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        syncMetrics.queued(channels.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Channel channel : channels) {
+                executor.submit(() -> {
+                    try {
+                        syncChannelThrottled(channel);
+                        success.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.warn("Failed to sync channel {} ({}), {}: {}",
+                                channel.getId(), channel.getPlatform().getValue(), SyncMetrics.cause(e), e.getMessage());
+                    }
+                });
             }
         }
 
-        log.info("Daily sync complete: {} succeeded, {} failed out of {} total",
-                success, failed, channels.size());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        syncMetrics.run(elapsed);
+        log.info("Sync complete in {}s: {} succeeded, {} failed out of {} total",
+                elapsed.toSeconds(), success.get(), failed.get(), channels.size());
+    }
+
+    /**
+     * Syncs one channel that the caller has already counted in
+     * {@link SyncMetrics#queued}. Waits for a PlatformRateLimiter slot so no more
+     * than max-concurrency channels of a platform run at once; failures propagate.
+     */
+    public void syncChannelThrottled(Channel channel) throws Exception {
+        Platform platform = channel.getPlatform();
+        try {
+            rateLimiter.acquireSlot(platform);
+        } catch (InterruptedException e) {
+            syncMetrics.queued(-1);
+            throw e;
+        }
+        syncMetrics.started(platform);
+        boolean ok = false;
+        try {
+            syncChannel(channel);
+            ok = true;
+        } finally {
+            rateLimiter.releaseSlot(platform);
+            syncMetrics.finished(platform, ok);
+        }
     }
 
     // NOTE: No @Transactional here by design — this method makes external HTTP calls (up to 15s each).
     // Wrapping in a transaction would hold a DB connection for the entire duration, exhausting the pool.
-    // Each repository.save() call below uses its own short-lived transaction.
+    // Each repository call below uses its own short-lived transaction.
     public void syncChannel(Channel channel) throws Exception {
-        // Refresh token if expired
-        if (channel.isTokenExpired()) {
-            boolean refreshed = refreshToken(channel);
-            if (!refreshed) {
-                log.warn("Token refresh failed for channel {} ({}), marking inactive",
-                        channel.getId(), channel.getPlatform().getValue());
-                channel.setIsActive(false);
-                channelRepository.save(channel);
-                return;
-            }
+        Platform platform = channel.getPlatform();
+
+        // ChannelTokenRefresher normally renews tokens ahead of expiry; this only catches stragglers
+        if (channel.isTokenExpired()
+                && !timed(platform, "token_refresh", () -> tokenRefresher.ensureFresh(channel))) {
+            return; // Refresh permanently failed, channel already marked inactive
         }
 
         // Fetch current follower count
-        Long followers = fetchFollowerCount(channel);
+        Long followers = timed(platform, "follower_fetch", () -> fetchFollowerCount(channel));
         if (followers == null) {
             log.warn("Could not fetch followers for channel {} ({})",
                     channel.getId(), channel.getPlatform().getValue());
+            channelRepository.postponeSync(channel.getId(), syncCadence.retryAt(channel, LocalDateTime.now()));
             return;
         }
 
-        // Save snapshot
-        ChannelStats stats = ChannelStats.builder()
-                .channel(channel)
-                .recordedAt(LocalDateTime.now())
-                .followersCount(followers)
-                .build();
-        channelStatsRepository.save(stats);
-
-        // Update channel
-        channel.setFollowerCount(followers);
-        channel.setLastSyncedAt(LocalDateTime.now());
-        channelRepository.save(channel);
-
-        log.debug("Synced channel {} ({}): {} followers",
-                channel.getId(), channel.getPlatform().getValue(), followers);
+        // Save snapshot, unless the count is unchanged and the last one is recent.
+        // The daily rollup is written either way so every synced day has a point.
+        LocalDateTime now = LocalDateTime.now();
+        timed(platform, "db_write", () -> {
+            boolean unchanged = channelStatsRepository.findLatestByChannelId(channel.getId())
+                    .filter(last -> followers.equals(last.getFollowersCount())
+                            && last.getRecordedAt().isAfter(now.minusHours(statsHeartbeatHours)))
+                    .isPresent();
+            if (!unchanged) {
+                channelStatsRepository.save(ChannelStats.builder()
+                        .channel(channel)
+                        .recordedAt(now)
+                        .followersCount(followers)
+                        .build());
+            }
+            channelStatsRepository.upsertDaily(channel.getId(), followers, now);
+            return null;
+        });
 
         // Sync recent posts
+        long newPosts = 0;
         try {
-            syncPosts(channel);
+            newPosts = syncPosts(channel);
         } catch (Exception e) {
-            log.warn("Post sync failed for channel {} ({}): {}",
-                    channel.getId(), channel.getPlatform().getValue(), e.getMessage());
+            log.warn("Post sync failed for channel {} ({}), {}: {}",
+                    channel.getId(), platform.getValue(), SyncMetrics.cause(e), e.getMessage());
         }
+
+        // Update channel, scheduling the next sync from what changed since the last one
+        Long previousFollowers = channel.getFollowerCount();
+        LocalDateTime previousSyncAt = channel.getLastSyncedAt();
+        channel.setFollowerCount(followers);
+        channel.setLastSyncedAt(LocalDateTime.now());
+        syncCadence.schedule(channel, previousFollowers, previousSyncAt, newPosts, channel.getLastSyncedAt());
+        // Targeted update: saving the entity could write back tokens rotated during the sync
+        timed(platform, "db_write", () -> channelRepository.recordSync(channel.getId(), followers,
+                channel.getLastSyncedAt(), channel.getNextSyncAt(), channel.getSyncIntervalMinutes()));
+        projectEvents.channelSynced(channel.getId(), channel.getProject().getId(), followers, channel.getLastSyncedAt());
+
+        log.debug("Synced channel {} ({}): {} followers, {} new posts, next sync in {} min",
+                channel.getId(), channel.getPlatform().getValue(), followers, newPosts,
+                channel.getSyncIntervalMinutes());
     }
 
     // ─── Follower Count Fetching ───
@@ -145,8 +211,9 @@ public class ChannelSyncService {
                 case FACEBOOK -> fetchFacebookFanCount(channel.getAccessToken());
             };
         } catch (Exception e) {
-            log.warn("API call failed for {} channel {}: {}",
-                    channel.getPlatform().getValue(), channel.getId(), e.getMessage());
+            syncMetrics.failure(channel.getPlatform(), "follower_fetch", e);
+            log.warn("API call failed for {} channel {}, {}: {}",
+                    channel.getPlatform().getValue(), channel.getId(), SyncMetrics.cause(e), e.getMessage());
             return null;
         }
     }
@@ -159,12 +226,10 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
-        }
-        JsonNode json = objectMapper.readTree(response.body());
-        return json.path("data").path("public_metrics").path("followers_count").asLong(0);
+        TwitterMe me = readOk(send(Platform.TWITTER, "users.me", request), TwitterMe.class);
+        return me.data() != null && me.data().publicMetrics() != null
+                ? me.data().publicMetrics().followersCount()
+                : 0L;
     }
 
     private Long fetchYouTubeSubscribers(String accessToken) throws Exception {
@@ -175,14 +240,10 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
-        }
-        JsonNode json = objectMapper.readTree(response.body());
-        JsonNode items = json.path("items");
-        if (items.isArray() && !items.isEmpty()) {
-            return items.get(0).path("statistics").path("subscriberCount").asLong(0);
+        YouTubeChannels channels = readOk(send(Platform.YOUTUBE, "channels", request), YouTubeChannels.class);
+        if (channels.items() != null && !channels.items().isEmpty()) {
+            YouTubeChannels.Item item = channels.items().get(0);
+            return item.statistics() != null ? item.statistics().subscriberCount() : 0L;
         }
         return null;
     }
@@ -195,16 +256,11 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
+        TikTokUserInfo info = readOk(send(Platform.TIKTOK, "user.info", request), TikTokUserInfo.class);
+        if (info.error() != null && info.error().code() != null && !"ok".equals(info.error().code())) {
+            throw new RuntimeException("TikTok error " + info.error().code() + ": " + info.error().message());
         }
-        JsonNode json = objectMapper.readTree(response.body());
-        JsonNode errorCode = json.path("error").path("code");
-        if (!errorCode.isMissingNode() && !"ok".equals(errorCode.asText())) {
-            throw new RuntimeException("TikTok error " + errorCode.asText() + ": " + response.body());
-        }
-        return json.path("data").path("user").path("follower_count").asLong(0);
+        return info.data() != null && info.data().user() != null ? info.data().user().followerCount() : 0L;
     }
 
     private Long fetchInstagramFollowers(String accessToken) throws Exception {
@@ -217,12 +273,7 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
-        }
-        JsonNode json = objectMapper.readTree(response.body());
-        return json.path("followers_count").asLong(0);
+        return readOk(send(Platform.INSTAGRAM, "me", request), InstagramAccount.class).followersCount();
     }
 
     private Long fetchFacebookFanCount(String accessToken) throws Exception {
@@ -235,320 +286,335 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
-        }
-        JsonNode json = objectMapper.readTree(response.body());
-        JsonNode data = json.path("data");
-        if (data.isArray() && !data.isEmpty()) {
-            return data.get(0).path("fan_count").asLong(0);
+        FacebookPages pages = readOk(send(Platform.FACEBOOK, "me.accounts", request), FacebookPages.class);
+        if (pages.data() != null && !pages.data().isEmpty()) {
+            return pages.data().get(0).fanCount();
         }
         return null;
     }
 
-    // ─── Token Refresh ───
-
-    private boolean refreshToken(Channel channel) throws Exception {
-        // Do NOT catch exceptions here.
-        // Transient errors (network timeout, rate-limit, unexpected HTTP response) should
-        // propagate to syncAllChannels' outer try-catch, which logs a warning and moves on
-        // WITHOUT marking the channel inactive.  Only return false for known-permanent
-        // failures (no refresh token, or an OAuth error like invalid_grant), which tells
-        // syncChannel to mark the channel inactive.
-        return switch (channel.getPlatform()) {
-            case TWITTER -> refreshTwitterToken(channel);
-            case YOUTUBE -> refreshYouTubeToken(channel);
-            case TIKTOK  -> refreshTikTokToken(channel);
-            case INSTAGRAM, FACEBOOK -> false; // No refresh token flow — must reconnect
-        };
-    }
-
-    private boolean refreshTwitterToken(Channel channel) throws Exception {
-        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
-            log.warn("Twitter channel {} has no refresh token — marking inactive", channel.getId());
-            return false; // Permanent — user must reconnect
-        }
-
-        String credentials = Base64.getEncoder().encodeToString(
-                (twitterClientId + ":" + twitterClientSecret).getBytes(StandardCharsets.UTF_8));
-
-        String body = "grant_type=refresh_token&refresh_token=" + encode(channel.getRefreshToken())
-                + "&client_id=" + encode(twitterClientId);
+    // ─── Post Syncing ───
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.twitter.com/2/oauth2/token"))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .header("Authorization", "Basic " + credentials)
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    private record RawPost(
+            String platformPostId,
+            String title,
+            String description,
+            String postUrl,
+            String thumbnailUrl,
+            Integer durationSeconds,
+            LocalDateTime publishedAt,
+            Long views,
+            Long likes,
+            Long comments,
+            Long shares
+    ) {}
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        JsonNode json = objectMapper.readTree(response.body());
-
-        String newAccessToken = json.path("access_token").asText("");
-        if (newAccessToken.isEmpty()) {
-            String error = json.path("error").asText("");
-            // invalid_grant / invalid_client / invalid_request = token revoked, expired, or corrupt — permanent
-            if ("invalid_grant".equals(error) || "invalid_client".equals(error) || "invalid_request".equals(error)) {
-                log.warn("Twitter token refresh permanent failure for channel {} ({}): marking inactive",
-                        channel.getId(), error);
-                return false;
-            }
-            // Any other failure (rate-limit, server error, etc.) — throw so the caller treats it as transient
-            throw new RuntimeException("Twitter token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
+    /** Row of the posts upsert; see PostRepository.upsertPosts. */
+    private record PostRow(
+            @JsonProperty("platform_post_id") String platformPostId,
+            String title,
+            String description,
+            @JsonProperty("post_url") String postUrl,
+            @JsonProperty("thumbnail_url") String thumbnailUrl,
+            @JsonProperty("duration_seconds") Integer durationSeconds,
+            @JsonProperty("published_at") String publishedAt
+    ) {
+        static PostRow of(RawPost raw) {
+            return new PostRow(raw.platformPostId(), raw.title(), raw.description(), raw.postUrl(),
+                    raw.thumbnailUrl(), raw.durationSeconds(),
+                    raw.publishedAt() != null ? raw.publishedAt().toString() : null);
         }
+    }
 
-        channel.setAccessToken(newAccessToken);
-        // Twitter rotates refresh tokens — always save the new one if provided
-        String newRefreshToken = json.path("refresh_token").asText("");
-        if (!newRefreshToken.isEmpty()) {
-            channel.setRefreshToken(newRefreshToken);
+    /** Row of the post_stats insert and post_stats_latest upsert; see PostStatsRepository.insertChangedSnapshots. */
+    private record StatsRow(
+            @JsonProperty("platform_post_id") String platformPostId,
+            long views,
+            long likes,
+            long comments,
+            long shares
+    ) {
+        static StatsRow of(RawPost raw) {
+            return new StatsRow(raw.platformPostId(),
+                    raw.views() != null ? raw.views() : 0L,
+                    raw.likes() != null ? raw.likes() : 0L,
+                    raw.comments() != null ? raw.comments() : 0L,
+                    raw.shares() != null ? raw.shares() : 0L);
         }
-        long expiresIn = json.path("expires_in").asLong(7200);
-        channel.setTokenExpiresAt(LocalDateTime.now().plusSeconds(expiresIn));
-        channelRepository.save(channel);
-
-        log.info("Refreshed Twitter token for channel {}", channel.getId());
-        return true;
     }
 
-    private boolean refreshYouTubeToken(Channel channel) throws Exception {
-        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
-            log.warn("YouTube channel {} has no refresh token — marking inactive", channel.getId());
-            return false;
-        }
+    // ─── Response Shapes ───
+    // Only the fields sync reads; see read(). Missing numbers bind as 0, and as
+    // null where absence matters (stats that need a follow-up request).
 
-        String body = "grant_type=refresh_token"
-                + "&refresh_token=" + encode(channel.getRefreshToken())
-                + "&client_id=" + encode(youtubeClientId)
-                + "&client_secret=" + encode(youtubeClientSecret);
+    private record TwitterMe(Data data) {
+        record Data(@JsonProperty("public_metrics") Metrics publicMetrics) {}
+        record Metrics(@JsonProperty("followers_count") long followersCount) {}
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://oauth2.googleapis.com/token"))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    private record YouTubeChannels(List<Item> items) {
+        record Item(Statistics statistics, ContentDetails contentDetails) {}
+        record Statistics(long subscriberCount) {}
+        record ContentDetails(RelatedPlaylists relatedPlaylists) {}
+        record RelatedPlaylists(String uploads) {}
+    }
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        JsonNode json = objectMapper.readTree(response.body());
+    private record YouTubePlaylistItems(String nextPageToken, List<Item> items) {
+        record Item(ContentDetails contentDetails) {}
+        record ContentDetails(String videoId) {}
+    }
 
-        String newAccessToken = json.path("access_token").asText("");
-        if (newAccessToken.isEmpty()) {
-            String error = json.path("error").asText("");
-            if ("invalid_grant".equals(error) || "invalid_client".equals(error)) {
-                log.warn("YouTube token refresh permanent failure for channel {} ({}): marking inactive",
-                        channel.getId(), error);
-                return false;
-            }
-            throw new RuntimeException("YouTube token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
-        }
+    private record YouTubeVideos(String etag, List<Video> items) {
+        record Video(String id, Snippet snippet, Statistics statistics, ContentDetails contentDetails) {}
+        record Snippet(String title, String description, String publishedAt, Thumbnails thumbnails) {}
+        record Thumbnails(Thumbnail medium) {}
+        record Thumbnail(String url) {}
+        record Statistics(long viewCount, long likeCount, long commentCount) {}
+        record ContentDetails(String duration) {}
+    }
 
-        channel.setAccessToken(newAccessToken);
-        long expiresIn = json.path("expires_in").asLong(3600);
-        channel.setTokenExpiresAt(LocalDateTime.now().plusSeconds(expiresIn));
-        channelRepository.save(channel);
+    private record TikTokUserInfo(Data data, Error error) {
+        record Data(User user) {}
+        record User(@JsonProperty("follower_count") long followerCount) {}
+        record Error(String code, String message) {}
+    }
 
-        log.info("Refreshed YouTube token for channel {}", channel.getId());
-        return true;
+    private record TikTokVideoList(Data data) {
+        record Data(List<Video> videos) {}
+        record Video(
+                String id,
+                String title,
+                @JsonProperty("create_time") long createTime,
+                @JsonProperty("cover_image_url") String coverImageUrl,
+                int duration,
+                @JsonProperty("share_url") String shareUrl,
+                @JsonProperty("view_count") long viewCount,
+                @JsonProperty("like_count") long likeCount,
+                @JsonProperty("comment_count") long commentCount,
+                @JsonProperty("share_count") long shareCount
+        ) {}
     }
 
-    private boolean refreshTikTokToken(Channel channel) throws Exception {
-        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
-            log.warn("TikTok channel {} has no refresh token — marking inactive", channel.getId());
-            return false;
-        }
+    private record InstagramAccount(@JsonProperty("followers_count") long followersCount) {}
 
-        String body = "client_key=" + encode(tiktokClientId)
-                + "&client_secret=" + encode(tiktokClientSecret)
-                + "&grant_type=refresh_token"
-                + "&refresh_token=" + encode(channel.getRefreshToken());
+    private record InstagramMediaPage(List<InstagramMedia> data) {}
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://open.tiktokapis.com/v2/oauth/token/"))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    private record InstagramMedia(
+            String id,
+            String caption,
+            String timestamp,
+            @JsonProperty("media_url") String mediaUrl,
+            String permalink,
+            @JsonProperty("thumbnail_url") String thumbnailUrl,
+            @JsonProperty("like_count") Long likeCount,
+            @JsonProperty("comments_count") Long commentsCount
+    ) {}
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        JsonNode json = objectMapper.readTree(response.body());
-
-        String newAccessToken = json.path("access_token").asText("");
-        if (newAccessToken.isEmpty()) {
-            String errorCode = json.path("error_code").asText(json.path("error").asText(""));
-            // TikTok uses numeric error codes; 10010 = invalid refresh token (permanent)
-            if (!errorCode.isEmpty() && (errorCode.equals("10010") || errorCode.equals("invalid_grant"))) {
-                log.warn("TikTok token refresh permanent failure for channel {} (code={}): marking inactive",
-                        channel.getId(), errorCode);
-                return false;
-            }
-            throw new RuntimeException("TikTok token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
-        }
+    private record FacebookPages(List<Page> data) {
+        record Page(String id, @JsonProperty("access_token") String accessToken, @JsonProperty("fan_count") long fanCount) {}
+    }
 
-        channel.setAccessToken(newAccessToken);
-        String newRefreshToken = json.path("refresh_token").asText("");
-        if (!newRefreshToken.isEmpty()) {
-            channel.setRefreshToken(newRefreshToken);
+    private record FacebookPostPage(List<FacebookPost> data) {}
+
+    private record FacebookPost(
+            String id,
+            String message,
+            @JsonProperty("created_time") String createdTime,
+            @JsonProperty("permalink_url") String permalinkUrl,
+            @JsonProperty("full_picture") String fullPicture,
+            Edge likes,
+            Edge comments,
+            Shares shares
+    ) {
+        record Edge(Summary summary) {}
+        record Summary(@JsonProperty("total_count") long totalCount) {}
+        record Shares(long count) {}
+
+        static long total(Edge edge) {
+            return edge != null && edge.summary() != null ? edge.summary().totalCount() : 0;
         }
-        long expiresIn = json.path("expires_in").asLong(86400);
-        channel.setTokenExpiresAt(LocalDateTime.now().plusSeconds(expiresIn));
-        channelRepository.save(channel);
-
-        log.info("Refreshed TikTok token for channel {}", channel.getId());
-        return true;
     }
 
-    // ─── Post Syncing ───
-
-    private record RawPost(
-            String platformPostId,
-            String title,
-            String description,
-            String postUrl,
-            String thumbnailUrl,
-            Integer durationSeconds,
-            LocalDateTime publishedAt,
-            Long views,
-            Long likes,
-            Long comments,
-            Long shares
-    ) {}
-
-    private void syncPosts(Channel channel) {
-        List<RawPost> rawPosts = fetchRecentPosts(channel);
-        if (rawPosts.isEmpty()) return;
-
-        LocalDateTime now = LocalDateTime.now();
-        int created = 0;
-        int updated = 0;
+    // Two statements per channel regardless of post count: an upsert of new or
+    // changed posts, then a multi-row insert of the snapshots whose counters moved.
+    /** Returns the number of posts created by this sync. */
+    private long syncPosts(Channel channel) throws Exception {
+        ChannelSyncCursor cursor = syncCursorRepository.findById(channel.getId())
+                .orElseGet(() -> ChannelSyncCursor.builder().channelId(channel.getId()).build());
+        Platform platform = channel.getPlatform();
+        List<RawPost> rawPosts = timed(platform, "post_fetch", () -> fetchRecentPosts(channel, cursor));
+        if (rawPosts.isEmpty()) {
+            syncCursorRepository.save(cursor);
+            return 0;
+        }
 
+        // ON CONFLICT can't update the same row twice in one statement; keep the last copy of each post
+        Map<String, RawPost> byPlatformId = new LinkedHashMap<>();
         for (RawPost raw : rawPosts) {
-            // Upsert post
-            Post post = postRepository.findByChannelIdAndPlatformPostId(channel.getId(), raw.platformPostId())
-                    .orElse(null);
-
-            if (post == null) {
-                post = Post.builder()
-                        .channel(channel)
-                        .platformPostId(raw.platformPostId())
-                        .title(raw.title())
-                        .description(raw.description())
-                        .postUrl(raw.postUrl())
-                        .thumbnailUrl(raw.thumbnailUrl())
-                        .durationSeconds(raw.durationSeconds())
-                        .publishedAt(raw.publishedAt() != null ? raw.publishedAt() : now)
-                        .build();
-                post = postRepository.save(post);
-                created++;
-            } else {
-                if (raw.title() != null) post.setTitle(raw.title());
-                if (raw.description() != null) post.setDescription(raw.description());
-                if (raw.postUrl() != null) post.setPostUrl(raw.postUrl());
-                if (raw.thumbnailUrl() != null) post.setThumbnailUrl(raw.thumbnailUrl());
-                if (raw.durationSeconds() != null) post.setDurationSeconds(raw.durationSeconds());
-                post = postRepository.save(post);
-                updated++;
-            }
-
-            // Save stats snapshot
-            PostStats stats = PostStats.builder()
-                    .post(post)
-                    .recordedAt(now)
-                    .viewsCount(raw.views() != null ? raw.views() : 0L)
-                    .likesCount(raw.likes() != null ? raw.likes() : 0L)
-                    .commentsCount(raw.comments() != null ? raw.comments() : 0L)
-                    .sharesCount(raw.shares() != null ? raw.shares() : 0L)
-                    .build();
-            postStatsRepository.save(stats);
+            byPlatformId.put(raw.platformPostId(), raw);
         }
 
-        log.debug("Post sync for channel {} ({}): {} created, {} updated",
-                channel.getId(), channel.getPlatform().getValue(), created, updated);
+        LocalDateTime now = LocalDateTime.now();
+        List<PostRow> postRows = byPlatformId.values().stream().map(PostRow::of).toList();
+        List<StatsRow> statsRows = byPlatformId.values().stream().map(StatsRow::of).toList();
+        String postRowsJson = objectMapper.writeValueAsString(postRows);
+        String statsRowsJson = objectMapper.writeValueAsString(statsRows);
+        List<Object[]> changed = timed(platform, "db_write",
+                () -> postRepository.upsertPosts(channel.getId(), postRowsJson, now));
+        long created = changed.stream().filter(row -> Boolean.TRUE.equals(row[2])).count();
+        int snapshots = timed(platform, "db_write", () -> postStatsRepository.insertChangedSnapshots(
+                channel.getId(), statsRowsJson, now, now.minusHours(statsHeartbeatHours)));
+        timed(platform, "db_write",
+                () -> postStatsLatestRepository.upsertFromSync(channel.getId(), statsRowsJson, now));
+        syncMetrics.posts(platform, created, changed.size() - created, snapshots);
+
+        // Advance the cursor only once the posts are stored
+        byPlatformId.values().stream()
+                .filter(raw -> raw.publishedAt() != null)
+                .max(Comparator.comparing(RawPost::publishedAt))
+                .filter(newest -> cursor.getNewestPublishedAt() == null
+                        || newest.publishedAt().isAfter(cursor.getNewestPublishedAt()))
+                .ifPresent(newest -> {
+                    cursor.setNewestPostId(newest.platformPostId());
+                    cursor.setNewestPublishedAt(newest.publishedAt());
+                });
+        syncCursorRepository.save(cursor);
+
+        log.debug("Post sync for channel {} ({}): {} fetched, {} created, {} updated, {} stats snapshots",
+                channel.getId(), channel.getPlatform().getValue(), byPlatformId.size(),
+                created, changed.size() - created, snapshots);
+        return created;
     }
 
-    private List<RawPost> fetchRecentPosts(Channel channel) {
+    private List<RawPost> fetchRecentPosts(Channel channel, ChannelSyncCursor cursor) {
         try {
             return switch (channel.getPlatform()) {
                 case TWITTER -> Collections.emptyList(); // Free tier doesn't include tweet.read
-                case YOUTUBE -> fetchYouTubePosts(channel.getAccessToken());
+                case YOUTUBE -> fetchYouTubePosts(channel, cursor);
                 case TIKTOK -> fetchTikTokPosts(channel.getAccessToken());
                 case INSTAGRAM -> fetchInstagramPosts(channel.getAccessToken());
                 case FACEBOOK -> fetchFacebookPosts(channel.getAccessToken());
             };
         } catch (Exception e) {
-            log.warn("Failed to fetch posts for {} channel {}: {}",
-                    channel.getPlatform().getValue(), channel.getId(), e.getMessage());
+            syncMetrics.failure(channel.getPlatform(), "post_fetch", e);
+            log.warn("Failed to fetch posts for {} channel {}, {}: {}",
+                    channel.getPlatform().getValue(), channel.getId(), SyncMetrics.cause(e), e.getMessage());
             return Collections.emptyList();
         }
     }
 
-    private List<RawPost> fetchYouTubePosts(String accessToken) throws Exception {
-        // Step 1: Search for recent videos
-        HttpRequest searchRequest = HttpRequest.newBuilder()
-                .uri(URI.create("https://www.googleapis.com/youtube/v3/search?part=snippet&forMine=true&type=video&maxResults=10&order=date"))
-                .header("Authorization", "Bearer " + accessToken)
-                .GET()
-                .timeout(Duration.ofSeconds(15))
-                .build();
-
-        HttpResponse<String> searchResponse = HTTP_CLIENT.send(searchRequest, HttpResponse.BodyHandlers.ofString());
-        JsonNode searchJson = objectMapper.readTree(searchResponse.body());
-        JsonNode items = searchJson.path("items");
-
-        if (!items.isArray() || items.isEmpty()) return Collections.emptyList();
+    private List<RawPost> fetchYouTubePosts(Channel channel, ChannelSyncCursor cursor) throws Exception {
+        String accessToken = channel.getAccessToken();
+
+        // Step 1: Resolve the uploads playlist once (1 quota unit, vs 100 for every search call)
+        if (cursor.getSourceRef() == null) {
+            YouTubeChannels channels = getYouTubeJson(accessToken, "channels",
+                    "https://www.googleapis.com/youtube/v3/channels?part=contentDetails&mine=true",
+                    YouTubeChannels.class);
+            String uploads = channels.items() == null ? null : channels.items().stream()
+                    .map(YouTubeChannels.Item::contentDetails)
+                    .filter(details -> details != null && details.relatedPlaylists() != null)
+                    .map(details -> details.relatedPlaylists().uploads())
+                    .findFirst()
+                    .orElse(null);
+            if (uploads == null || uploads.isEmpty()) return Collections.emptyList();
+            cursor.setSourceRef(uploads);
+        }
 
-        // Collect video IDs
-        String videoIds = new ArrayList<String>() {{
-            for (JsonNode item : items) {
-                add(item.path("id").path("videoId").asText());
+        // Step 2: Newest uploads, paging back until the newest video seen by the
+        // previous sync; a first sync takes the newest page only
+        List<String> videoIds = new ArrayList<>();
+        String pageToken = null;
+        boolean reachedCursor = false;
+        for (int page = 0; page < YOUTUBE_MAX_PLAYLIST_PAGES && !reachedCursor; page++) {
+            YouTubePlaylistItems playlist = getYouTubeJson(accessToken, "playlistItems",
+                    "https://www.googleapis.com/youtube/v3/playlistItems?part=contentDetails&maxResults="
+                            + YOUTUBE_PAGE_SIZE + "&playlistId=" + encode(cursor.getSourceRef())
+                            + (pageToken != null ? "&pageToken=" + encode(pageToken) : ""),
+                    YouTubePlaylistItems.class);
+            for (YouTubePlaylistItems.Item item : nonNull(playlist.items())) {
+                String id = item.contentDetails() != null ? item.contentDetails().videoId() : null;
+                if (id == null || id.isEmpty()) continue;
+                if (id.equals(cursor.getNewestPostId())) {
+                    reachedCursor = true;
+                    break;
+                }
+                videoIds.add(id);
             }
-        }}.stream().filter(id -> !id.isEmpty()).collect(Collectors.joining(","));
+            pageToken = playlist.nextPageToken();
+            if (pageToken == null || cursor.getNewestPostId() == null) break;
+        }
+        if (!reachedCursor && cursor.getNewestPostId() != null && pageToken != null) {
+            log.warn("YouTube channel {}: previous newest video not found in the last {} uploads, older ones skipped",
+                    channel.getId(), videoIds.size());
+        }
+        boolean hasNewVideos = !videoIds.isEmpty();
 
+        // Step 3: Plus the recent videos we already track, whose stats keep moving
+        postRepository.findByChannelIdOrderByPublishedAtDesc(channel.getId(), PageRequest.of(0, 10))
+                .forEach(post -> {
+                    if (!videoIds.contains(post.getPlatformPostId())) videoIds.add(post.getPlatformPostId());
+                });
         if (videoIds.isEmpty()) return Collections.emptyList();
 
-        // Step 2: Get video stats and details
-        HttpRequest detailsRequest = HttpRequest.newBuilder()
-                .uri(URI.create("https://www.googleapis.com/youtube/v3/videos?part=statistics,contentDetails,snippet&id=" + encode(videoIds)))
-                .header("Authorization", "Bearer " + accessToken)
-                .GET()
-                .timeout(Duration.ofSeconds(15))
-                .build();
-
-        HttpResponse<String> detailsResponse = HTTP_CLIENT.send(detailsRequest, HttpResponse.BodyHandlers.ofString());
-        JsonNode detailsJson = objectMapper.readTree(detailsResponse.body());
-        JsonNode videoItems = detailsJson.path("items");
+        // Step 4: Get video stats and details, up to 50 ids per call. With no new
+        // videos there is a single call, the previous ETag usually still matches,
+        // and a 304 means there is nothing to write
+        List<YouTubeVideos.Video> items = new ArrayList<>();
+        String etag = null;
+        for (int from = 0; from < videoIds.size(); from += YOUTUBE_PAGE_SIZE) {
+            List<String> batch = videoIds.subList(from, Math.min(from + YOUTUBE_PAGE_SIZE, videoIds.size()));
+            HttpRequest.Builder detailsRequest = HttpRequest.newBuilder()
+                    .uri(URI.create("https://www.googleapis.com/youtube/v3/videos?part=statistics,contentDetails,snippet&id="
+                            + encode(String.join(",", batch))))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .GET()
+                    .timeout(Duration.ofSeconds(15));
+            if (!hasNewVideos && cursor.getEtag() != null) {
+                detailsRequest.header("If-None-Match", cursor.getEtag());
+            }
 
-        if (!videoItems.isArray()) return Collections.emptyList();
+            HttpResponse<InputStream> detailsResponse = send(Platform.YOUTUBE, "videos", detailsRequest.build());
+            if (detailsResponse.statusCode() == 304) {
+                detailsResponse.body().close();
+                return Collections.emptyList();
+            }
+            YouTubeVideos videos = readOk(detailsResponse, YouTubeVideos.class);
+            etag = detailsResponse.headers().firstValue("ETag").orElse(videos.etag());
+            items.addAll(nonNull(videos.items()));
+        }
+        // Only a single-call response can be revalidated next time
+        cursor.setEtag(videoIds.size() <= YOUTUBE_PAGE_SIZE ? etag : null);
 
         List<RawPost> posts = new ArrayList<>();
-        for (JsonNode video : videoItems) {
-            String videoId = video.path("id").asText();
-            JsonNode snippet = video.path("snippet");
-            JsonNode stats = video.path("statistics");
-            JsonNode contentDetails = video.path("contentDetails");
+        for (YouTubeVideos.Video video : items) {
+            String videoId = video.id();
+            YouTubeVideos.Snippet snippet = video.snippet() != null
+                    ? video.snippet() : new YouTubeVideos.Snippet(null, null, null, null);
+            YouTubeVideos.Statistics stats = video.statistics() != null
+                    ? video.statistics() : new YouTubeVideos.Statistics(0, 0, 0);
 
             LocalDateTime publishedAt = null;
-            String publishedAtStr = snippet.path("publishedAt").asText("");
-            if (!publishedAtStr.isEmpty()) {
+            String publishedAtStr = snippet.publishedAt();
+            if (publishedAtStr != null && !publishedAtStr.isEmpty()) {
                 publishedAt = LocalDateTime.parse(publishedAtStr.replace("Z", "").split("\\.")[0]);
             }
 
-            Integer durationSeconds = parseDuration(contentDetails.path("duration").asText(""));
+            Integer durationSeconds = parseDuration(
+                    video.contentDetails() != null ? video.contentDetails().duration() : null);
 
             posts.add(new RawPost(
                     videoId,
-                    snippet.path("title").asText(""),
-                    snippet.path("description").asText(""),
+                    orEmpty(snippet.title()),
+                    orEmpty(snippet.description()),
                     "https://www.youtube.com/watch?v=" + videoId,
-                    snippet.path("thumbnails").path("medium").path("url").asText(null),
+                    snippet.thumbnails() != null && snippet.thumbnails().medium() != null
+                            ? snippet.thumbnails().medium().url() : null,
                     durationSeconds,
                     publishedAt,
-                    stats.path("viewCount").asLong(0),
-                    stats.path("likeCount").asLong(0),
-                    stats.path("commentCount").asLong(0),
+                    stats.viewCount(),
+                    stats.likeCount(),
+                    stats.commentCount(),
                     0L
             ));
         }
@@ -556,94 +622,51 @@ public class ChannelSyncService {
     }
 
     private List<RawPost> fetchTikTokPosts(String accessToken) throws Exception {
-        // Step 1: Get video list
+        // The list endpoint returns engagement counts directly, so no separate video/query round
         String listBody = objectMapper.writeValueAsString(java.util.Map.of(
                 "max_count", 10
         ));
 
         HttpRequest listRequest = HttpRequest.newBuilder()
-                .uri(URI.create("https://open.tiktokapis.com/v2/video/list/?fields=id,title,create_time,cover_image_url,duration,share_url"))
+                .uri(URI.create("https://open.tiktokapis.com/v2/video/list/?fields=id,title,create_time,cover_image_url,duration,share_url,like_count,comment_count,share_count,view_count"))
                 .header("Authorization", "Bearer " + accessToken)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(listBody))
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> listResponse = HTTP_CLIENT.send(listRequest, HttpResponse.BodyHandlers.ofString());
-        JsonNode listJson = objectMapper.readTree(listResponse.body());
-        JsonNode videos = listJson.path("data").path("videos");
-
-        if (!videos.isArray() || videos.isEmpty()) return Collections.emptyList();
-
-        // Collect video IDs for stats query
-        List<String> videoIds = new ArrayList<>();
-        for (JsonNode v : videos) {
-            String id = v.path("id").asText("");
-            if (!id.isEmpty()) videoIds.add(id);
-        }
-
-        // Step 2: Get video stats
-        java.util.Map<String, Long> viewsMap = new java.util.HashMap<>();
-        java.util.Map<String, Long> likesMap = new java.util.HashMap<>();
-        java.util.Map<String, Long> commentsMap = new java.util.HashMap<>();
-        java.util.Map<String, Long> sharesMap = new java.util.HashMap<>();
-
-        if (!videoIds.isEmpty()) {
-            String queryBody = objectMapper.writeValueAsString(java.util.Map.of(
-                    "filters", java.util.Map.of("video_ids", videoIds)
-            ));
-
-            HttpRequest queryRequest = HttpRequest.newBuilder()
-                    .uri(URI.create("https://open.tiktokapis.com/v2/video/query/?fields=id,like_count,comment_count,share_count,view_count"))
-                    .header("Authorization", "Bearer " + accessToken)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(queryBody))
-                    .timeout(Duration.ofSeconds(15))
-                    .build();
-
-            HttpResponse<String> queryResponse = HTTP_CLIENT.send(queryRequest, HttpResponse.BodyHandlers.ofString());
-            JsonNode queryJson = objectMapper.readTree(queryResponse.body());
-            JsonNode statsVideos = queryJson.path("data").path("videos");
-
-            if (statsVideos.isArray()) {
-                for (JsonNode sv : statsVideos) {
-                    String id = sv.path("id").asText();
-                    viewsMap.put(id, sv.path("view_count").asLong(0));
-                    likesMap.put(id, sv.path("like_count").asLong(0));
-                    commentsMap.put(id, sv.path("comment_count").asLong(0));
-                    sharesMap.put(id, sv.path("share_count").asLong(0));
-                }
-            }
-        }
+        TikTokVideoList list = read(send(Platform.TIKTOK, "video.list", listRequest), TikTokVideoList.class);
+        if (list.data() == null || list.data().videos() == null) return Collections.emptyList();
 
         List<RawPost> posts = new ArrayList<>();
-        for (JsonNode video : videos) {
-            String id = video.path("id").asText();
-            long createTime = video.path("create_time").asLong(0);
-            LocalDateTime publishedAt = createTime > 0
-                    ? LocalDateTime.ofInstant(Instant.ofEpochSecond(createTime), ZoneOffset.UTC)
+        for (TikTokVideoList.Video video : list.data().videos()) {
+            String id = video.id();
+            if (id == null || id.isEmpty()) continue;
+            LocalDateTime publishedAt = video.createTime() > 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochSecond(video.createTime()), ZoneOffset.UTC)
                     : null;
 
             posts.add(new RawPost(
                     id,
-                    video.path("title").asText(""),
+                    orEmpty(video.title()),
                     null,
-                    video.path("share_url").asText(null),
-                    video.path("cover_image_url").asText(null),
-                    video.path("duration").asInt(0) > 0 ? video.path("duration").asInt() : null,
+                    video.shareUrl(),
+                    video.coverImageUrl(),
+                    video.duration() > 0 ? video.duration() : null,
                     publishedAt,
-                    viewsMap.getOrDefault(id, 0L),
-                    likesMap.getOrDefault(id, 0L),
-                    commentsMap.getOrDefault(id, 0L),
-                    sharesMap.getOrDefault(id, 0L)
+                    video.viewCount(),
+                    video.likeCount(),
+                    video.commentCount(),
+                    video.shareCount()
             ));
         }
         return posts;
     }
 
     private List<RawPost> fetchInstagramPosts(String accessToken) throws Exception {
-        // Step 1: Get recent media
-        String url = "https://graph.instagram.com/me/media?fields=id,caption,timestamp,media_url,permalink,thumbnail_url&limit=10&access_token="
+        // Engagement counts are requested on the media edge itself; only items that
+        // come back without them are fetched individually (see fetchEach)
+        String url = "https://graph.instagram.com/me/media?fields=id,caption,timestamp,media_url,permalink,thumbnail_url,like_count,comments_count&limit=10&access_token="
                 + encode(accessToken);
 
         HttpRequest request = HttpRequest.newBuilder()
@@ -652,55 +675,44 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-        JsonNode json = objectMapper.readTree(response.body());
-        JsonNode data = json.path("data");
+        InstagramMediaPage page = read(send(Platform.INSTAGRAM, "me.media", request), InstagramMediaPage.class);
+        if (page.data() == null || page.data().isEmpty()) return Collections.emptyList();
 
-        if (!data.isArray() || data.isEmpty()) return Collections.emptyList();
+        List<String> missingStats = new ArrayList<>();
+        for (InstagramMedia media : page.data()) {
+            if (media.commentsCount() == null) missingStats.add(media.id());
+        }
+        Map<String, InstagramMedia> fetchedStats = fetchEach(Platform.INSTAGRAM, "media stats", missingStats, mediaId -> {
+            String statsUrl = "https://graph.instagram.com/" + mediaId
+                    + "?fields=like_count,comments_count&access_token=" + encode(accessToken);
+            return getJson(Platform.INSTAGRAM, "media", statsUrl, InstagramMedia.class);
+        });
 
         List<RawPost> posts = new ArrayList<>();
-        for (JsonNode media : data) {
-            String mediaId = media.path("id").asText();
-
-            // Step 2: Get engagement stats for each media
-            long likes = 0;
-            long comments = 0;
-            try {
-                String statsUrl = "https://graph.instagram.com/" + mediaId
-                        + "?fields=like_count,comments_count&access_token=" + encode(accessToken);
-
-                HttpRequest statsRequest = HttpRequest.newBuilder()
-                        .uri(URI.create(statsUrl))
-                        .GET()
-                        .timeout(Duration.ofSeconds(15))
-                        .build();
-
-                HttpResponse<String> statsResponse = HTTP_CLIENT.send(statsRequest, HttpResponse.BodyHandlers.ofString());
-                JsonNode statsJson = objectMapper.readTree(statsResponse.body());
-                likes = statsJson.path("like_count").asLong(0);
-                comments = statsJson.path("comments_count").asLong(0);
-            } catch (Exception e) {
-                log.debug("Failed to fetch Instagram media stats for {}: {}", mediaId, e.getMessage());
-            }
+        for (InstagramMedia media : page.data()) {
+            String mediaId = media.id();
+            InstagramMedia stats = media.commentsCount() != null ? media : fetchedStats.get(mediaId);
+            long likes = stats != null && stats.likeCount() != null ? stats.likeCount() : 0;
+            long comments = stats != null && stats.commentsCount() != null ? stats.commentsCount() : 0;
 
             LocalDateTime publishedAt = null;
-            String timestamp = media.path("timestamp").asText("");
+            String timestamp = orEmpty(media.timestamp());
             if (!timestamp.isEmpty()) {
                 publishedAt = LocalDateTime.parse(timestamp.replace("Z", "").split("\\+")[0].split("\\.")[0]);
             }
 
-            String caption = media.path("caption").asText("");
+            String caption = orEmpty(media.caption());
             String title = caption.length() > 500 ? caption.substring(0, 500) : caption;
-            String thumbnail = media.path("thumbnail_url").asText(null);
+            String thumbnail = media.thumbnailUrl();
             if (thumbnail == null) {
-                thumbnail = media.path("media_url").asText(null);
+                thumbnail = media.mediaUrl();
             }
 
             posts.add(new RawPost(
                     mediaId,
                     title,
                     null,
-                    media.path("permalink").asText(null),
+                    media.permalink(),
                     thumbnail,
                     null,
                     publishedAt,
@@ -724,20 +736,19 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> accountsResponse = HTTP_CLIENT.send(accountsRequest, HttpResponse.BodyHandlers.ofString());
-        JsonNode accountsJson = objectMapper.readTree(accountsResponse.body());
-        JsonNode accountsData = accountsJson.path("data");
-
-        if (!accountsData.isArray() || accountsData.isEmpty()) return Collections.emptyList();
+        FacebookPages pages = read(send(Platform.FACEBOOK, "me.accounts", accountsRequest), FacebookPages.class);
+        if (pages.data() == null || pages.data().isEmpty()) return Collections.emptyList();
 
-        String pageId = accountsData.get(0).path("id").asText("");
-        String pageAccessToken = accountsData.get(0).path("access_token").asText(accessToken);
+        String pageId = orEmpty(pages.data().get(0).id());
+        String pageAccessToken = pages.data().get(0).accessToken() != null
+                ? pages.data().get(0).accessToken() : accessToken;
 
         if (pageId.isEmpty()) return Collections.emptyList();
 
-        // Step 2: Get page posts
+        // Step 2: Get page posts, with engagement summaries expanded inline
         String postsUrl = "https://graph.facebook.com/v21.0/" + pageId
-                + "/posts?fields=id,message,created_time,permalink_url,full_picture&limit=10&access_token="
+                + "/posts?fields=id,message,created_time,permalink_url,full_picture,"
+                + FACEBOOK_ENGAGEMENT_FIELDS + "&limit=10&access_token="
                 + encode(pageAccessToken);
 
         HttpRequest postsRequest = HttpRequest.newBuilder()
@@ -746,55 +757,48 @@ public class ChannelSyncService {
                 .timeout(Duration.ofSeconds(15))
                 .build();
 
-        HttpResponse<String> postsResponse = HTTP_CLIENT.send(postsRequest, HttpResponse.BodyHandlers.ofString());
-        JsonNode postsJson = objectMapper.readTree(postsResponse.body());
-        JsonNode postsData = postsJson.path("data");
+        FacebookPostPage postPage = read(send(Platform.FACEBOOK, "page.posts", postsRequest), FacebookPostPage.class);
+        if (postPage.data() == null || postPage.data().isEmpty()) return Collections.emptyList();
 
-        if (!postsData.isArray() || postsData.isEmpty()) return Collections.emptyList();
+        // Step 3: Fetch engagement individually only where the expansion came back empty
+        List<String> missingStats = new ArrayList<>();
+        for (FacebookPost fbPost : postPage.data()) {
+            if (fbPost.comments() == null) missingStats.add(fbPost.id());
+        }
+        Map<String, FacebookPost> fetchedStats = fetchEach(Platform.FACEBOOK, "post stats", missingStats, postId -> {
+            String statsUrl = "https://graph.facebook.com/v21.0/" + postId
+                    + "?fields=" + FACEBOOK_ENGAGEMENT_FIELDS + "&access_token=" + encode(pageAccessToken);
+            return getJson(Platform.FACEBOOK, "post", statsUrl, FacebookPost.class);
+        });
 
         List<RawPost> posts = new ArrayList<>();
-        for (JsonNode fbPost : postsData) {
-            String postId = fbPost.path("id").asText();
-
-            // Step 3: Get engagement stats
+        for (FacebookPost fbPost : postPage.data()) {
+            String postId = fbPost.id();
+            FacebookPost stats = fbPost.comments() != null ? fbPost : fetchedStats.get(postId);
             long likes = 0;
             long comments = 0;
             long shares = 0;
-            try {
-                String statsUrl = "https://graph.facebook.com/v21.0/" + postId
-                        + "?fields=likes.limit(0).summary(true),comments.limit(0).summary(true),shares&access_token="
-                        + encode(pageAccessToken);
-
-                HttpRequest statsRequest = HttpRequest.newBuilder()
-                        .uri(URI.create(statsUrl))
-                        .GET()
-                        .timeout(Duration.ofSeconds(15))
-                        .build();
-
-                HttpResponse<String> statsResponse = HTTP_CLIENT.send(statsRequest, HttpResponse.BodyHandlers.ofString());
-                JsonNode statsJson = objectMapper.readTree(statsResponse.body());
-                likes = statsJson.path("likes").path("summary").path("total_count").asLong(0);
-                comments = statsJson.path("comments").path("summary").path("total_count").asLong(0);
-                shares = statsJson.path("shares").path("count").asLong(0);
-            } catch (Exception e) {
-                log.debug("Failed to fetch Facebook post stats for {}: {}", postId, e.getMessage());
+            if (stats != null) {
+                likes = FacebookPost.total(stats.likes());
+                comments = FacebookPost.total(stats.comments());
+                shares = stats.shares() != null ? stats.shares().count() : 0;
             }
 
             LocalDateTime publishedAt = null;
-            String createdTime = fbPost.path("created_time").asText("");
+            String createdTime = orEmpty(fbPost.createdTime());
             if (!createdTime.isEmpty()) {
                 publishedAt = LocalDateTime.parse(createdTime.replace("Z", "").split("\\+")[0].split("\\.")[0]);
             }
 
-            String message = fbPost.path("message").asText("");
+            String message = orEmpty(fbPost.message());
             String title = message.length() > 500 ? message.substring(0, 500) : message;
 
             posts.add(new RawPost(
                     postId,
                     title,
                     null,
-                    fbPost.path("permalink_url").asText(null),
-                    fbPost.path("full_picture").asText(null),
+                    fbPost.permalinkUrl(),
+                    fbPost.fullPicture(),
                     null,
                     publishedAt,
                     0L, // Facebook doesn't easily expose view count for regular posts
@@ -806,6 +810,85 @@ public class ChannelSyncService {
         return posts;
     }
 
+    // ─── Stage Timing ───
+
+    @FunctionalInterface
+    private interface Stage<T> {
+        T run() throws Exception;
+    }
+
+    /** Runs one sync stage, recording its duration and, if it throws, the failure. */
+    private <T> T timed(Platform platform, String stage, Stage<T> body) throws Exception {
+        long startedAt = System.nanoTime();
+        try {
+            return body.run();
+        } catch (Exception e) {
+            syncMetrics.failure(platform, stage, e);
+            throw e;
+        } finally {
+            syncMetrics.stage(platform, stage, System.nanoTime() - startedAt);
+        }
+    }
+
+    // ─── Per-item Fan-out ───
+
+    @FunctionalInterface
+    private interface ItemFetch<T> {
+        T fetch(String id) throws Exception;
+    }
+
+    /**
+     * Runs one request per item on virtual threads, at most
+     * {@code app.sync.media-fetch-parallelism} at a time (each request still
+     * draws from the platform's rate limiter). Items that fail are left out of
+     * the result and reported together in a single warning.
+     */
+    private <T> Map<String, T> fetchEach(Platform platform, String what, List<String> ids, ItemFetch<T> fetch) {
+        Map<String, T> results = new ConcurrentHashMap<>();
+        if (ids.isEmpty()) return results;
+
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(Math.max(1, mediaFetchParallelism));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String id : ids) {
+                executor.submit(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.put(id, "interrupted");
+                        return;
+                    }
+                    try {
+                        results.put(id, fetch.fetch(id));
+                    } catch (Exception e) {
+                        syncMetrics.failure(platform, "post_fetch", e);
+                        failures.put(id, SyncMetrics.cause(e) + ": " + e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            Map.Entry<String, String> sample = failures.entrySet().iterator().next();
+            log.warn("{} of {} {} {} requests failed, e.g. {}: {}",
+                    failures.size(), ids.size(), platform.getValue(), what, sample.getKey(), sample.getValue());
+        }
+        return results;
+    }
+
+    private <T> T getJson(Platform platform, String endpoint, String url, Class<T> type) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .timeout(Duration.ofSeconds(15))
+                .build();
+
+        return readOk(send(platform, endpoint, request), type);
+    }
+
     /**
      * Parse ISO 8601 duration (e.g., "PT1H2M3S") to seconds.
      */
@@ -818,6 +901,54 @@ public class ChannelSyncService {
         }
     }
 
+    private <T> T getYouTubeJson(String accessToken, String endpoint, String url, Class<T> type) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .timeout(Duration.ofSeconds(15))
+                .build();
+
+        return readOk(send(Platform.YOUTUBE, endpoint, request), type);
+    }
+
+    /** Sends a platform API request within the platform's quota; the body is left unread. */
+    private HttpResponse<InputStream> send(Platform platform, String endpoint, HttpRequest request) throws Exception {
+        return platformHttp.sendWithQuota(platform, endpoint, request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Binds the response body onto one of the response records straight from the
+     * stream. Only the record's components are materialized; every other field is
+     * skipped by the parser without building strings or a tree.
+     */
+    private <T> T read(HttpResponse<InputStream> response, Class<T> type) throws IOException {
+        try (InputStream body = response.body()) {
+            return objectMapper.readerFor(type)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(body);
+        }
+    }
+
+    /** As {@link #read}, but a non-200 response throws with the (error-sized) body. */
+    private <T> T readOk(HttpResponse<InputStream> response, Class<T> type) throws IOException {
+        if (response.statusCode() != 200) {
+            try (InputStream body = response.body()) {
+                throw new PlatformApiException(response.statusCode(), "HTTP " + response.statusCode() + ": "
+                        + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return read(response, type);
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     private static String encode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
@@ -0,0 +1,407 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.entity.Channel;
+import com.javanextboilerplate.entity.Platform;
+import com.javanextboilerplate.exception.PlatformApiException;
+import com.javanextboilerplate.repository.ChannelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps channel OAuth tokens fresh ahead of expiry, so channel syncs don't pay
+ * for refreshes themselves.
+ *
+ * Every minute, channels whose token expires within
+ * {@code app.tokens.refresh-ahead-minutes} are refreshed in the background, on
+ * virtual threads bounded by {@code refresh-concurrency}, each after a random
+ * delay of up to {@code refresh-jitter-seconds} so they don't hit the token
+ * endpoints together. Syncs still call {@link #ensureFresh} as a fallback for
+ * tokens that are already expired.
+ *
+ * Refreshes are single-flight per channel: within one JVM, concurrent callers
+ * share one in-flight refresh; across replicas, a short lease on the channel row
+ * (token_refresh_until, V28) lets only one replica spend the refresh token. That
+ * matters for Twitter and TikTok, which rotate refresh tokens: a second refresh
+ * with the old token fails with invalid_grant. New tokens are written in a single
+ * UPDATE that also releases the lease, so a concurrent sync saving its channel
+ * never overwrites them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChannelTokenRefresher {
+
+    /** Tokens from a successful refresh; a null refreshToken keeps the current one. */
+    private record TokenGrant(String accessToken, String refreshToken, LocalDateTime expiresAt) {}
+
+    private final ChannelRepository channelRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformHttpClient platformHttp;
+    private final SyncMetrics syncMetrics;
+    private final Map<Long, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${TWITTER_CLIENT_ID:}")
+    private String twitterClientId;
+    @Value("${TWITTER_CLIENT_SECRET:}")
+    private String twitterClientSecret;
+    @Value("${YOUTUBE_CLIENT_ID:}")
+    private String youtubeClientId;
+    @Value("${YOUTUBE_CLIENT_SECRET:}")
+    private String youtubeClientSecret;
+    @Value("${TIKTOK_CLIENT_ID:}")
+    private String tiktokClientId;
+    @Value("${TIKTOK_CLIENT_SECRET:}")
+    private String tiktokClientSecret;
+    @Value("${app.tokens.refresh-ahead-minutes:10}")
+    private int refreshAheadMinutes;
+    @Value("${app.tokens.refresh-concurrency:4}")
+    private int refreshConcurrency;
+    @Value("${app.tokens.refresh-jitter-seconds:30}")
+    private int refreshJitterSeconds;
+    @Value("${app.tokens.refresh-lease-seconds:60}")
+    private int leaseSeconds;
+
+    // ── Background refresh ────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${app.tokens.refresh-poll-ms:60000}")
+    public void refreshExpiring() {
+        LocalDateTime refreshBefore = LocalDateTime.now().plusMinutes(refreshAheadMinutes);
+        List<Channel> channels = channelRepository.findChannelsWithExpiredTokens(refreshBefore).stream()
+                .filter(channel -> hasRefreshFlow(channel.getPlatform()))
+                .toList();
+        if (channels.isEmpty()) return;
+
+        Semaphore permits = new Semaphore(Math.max(1, refreshConcurrency));
+        AtomicInteger refreshed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Channel channel : channels) {
+                executor.submit(() -> {
+                    try {
+                        Thread.sleep(Duration.ofMillis(
+                                ThreadLocalRandom.current().nextLong(refreshJitterSeconds * 1000L + 1)));
+                        permits.acquire();
+                        try {
+                            if (refresh(channel, refreshBefore)) refreshed.incrementAndGet();
+                            else failed.incrementAndGet();
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        // Transient; the next poll retries while the token is still valid
+                        failed.incrementAndGet();
+                        syncMetrics.failure(channel.getPlatform(), "token_refresh", e);
+                        log.warn("Background token refresh failed for channel {} ({}), {}: {}",
+                                channel.getId(), channel.getPlatform().getValue(), SyncMetrics.cause(e), e.getMessage());
+                    }
+                });
+            }
+        }
+        log.info("Token refresh: {} refreshed, {} failed out of {} expiring",
+                refreshed.get(), failed.get(), channels.size());
+    }
+
+    // ── Refresh ───────────────────────────────────────────────────────────────
+
+    /**
+     * Makes sure {@code channel} carries an unexpired access token, refreshing it
+     * if needed. Returns false when the token can't be refreshed for good (revoked,
+     * no refresh flow); the channel has then been marked inactive. Transient
+     * failures throw.
+     */
+    public boolean ensureFresh(Channel channel) throws Exception {
+        if (!channel.isTokenExpired()) return true;
+        return refresh(channel, LocalDateTime.now());
+    }
+
+    /**
+     * Refreshes the channel's token unless it is already valid past {@code refreshBefore}.
+     * Concurrent calls for the same channel join the one in flight.
+     */
+    private boolean refresh(Channel channel, LocalDateTime refreshBefore) throws Exception {
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(channel.getId(), mine);
+        if (running != null) {
+            boolean ok = join(running);
+            reloadTokens(channel);
+            return ok;
+        }
+        try {
+            boolean ok = refreshUnderLease(channel, refreshBefore);
+            mine.complete(ok);
+            return ok;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(channel.getId(), mine);
+        }
+    }
+
+    private boolean refreshUnderLease(Channel channel, LocalDateTime refreshBefore) throws Exception {
+        // Another replica may have refreshed since this entity was loaded
+        if (!reloadTokens(channel)) return false;
+        if (isValidPast(channel, refreshBefore)) return true;
+        if (!hasRefreshFlow(channel.getPlatform())) {
+            deactivate(channel, "no refresh token flow");
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (channelRepository.claimTokenRefresh(channel.getId(), now, now.plusSeconds(leaseSeconds)) == 0) {
+            return awaitOtherReplica(channel, refreshBefore);
+        }
+
+        String usedRefreshToken = channel.getRefreshToken();
+        TokenGrant grant;
+        try {
+            grant = requestToken(channel);
+        } catch (Exception e) {
+            channelRepository.releaseTokenRefresh(channel.getId());
+            throw e;
+        }
+
+        if (grant == null) {
+            // A replica whose lease ran out may have rotated the token under us; that's not a revocation
+            if (reloadTokens(channel) && !Objects.equals(usedRefreshToken, channel.getRefreshToken())) {
+                channelRepository.releaseTokenRefresh(channel.getId());
+                return isValidPast(channel, LocalDateTime.now());
+            }
+            deactivate(channel, "refresh token rejected");
+            return false;
+        }
+
+        channelRepository.storeRefreshedToken(channel.getId(), grant.accessToken(), grant.refreshToken(),
+                grant.expiresAt(), LocalDateTime.now());
+        channel.setAccessToken(grant.accessToken());
+        if (grant.refreshToken() != null) channel.setRefreshToken(grant.refreshToken());
+        channel.setTokenExpiresAt(grant.expiresAt());
+        log.info("Refreshed {} token for channel {}", channel.getPlatform().getValue(), channel.getId());
+        return true;
+    }
+
+    /** Polls until the replica holding the lease stores a token, or its lease runs out. */
+    private boolean awaitOtherReplica(Channel channel, LocalDateTime refreshBefore) throws Exception {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(leaseSeconds);
+        while (LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(Duration.ofMillis(500));
+            if (!reloadTokens(channel)) return false;
+            if (isValidPast(channel, refreshBefore)) return true;
+        }
+        throw new RuntimeException("Token refresh for channel " + channel.getId() + " still in progress elsewhere");
+    }
+
+    private TokenGrant requestToken(Channel channel) throws Exception {
+        // Do NOT catch exceptions here.
+        // Transient errors (network timeout, rate-limit, unexpected HTTP response) should
+        // propagate so the caller retries later WITHOUT marking the channel inactive.
+        // Only return null for known-permanent failures (no refresh token, or an OAuth
+        // error like invalid_grant), which marks the channel inactive.
+        return switch (channel.getPlatform()) {
+            case TWITTER -> requestTwitterToken(channel);
+            case YOUTUBE -> requestYouTubeToken(channel);
+            case TIKTOK  -> requestTikTokToken(channel);
+            case INSTAGRAM, FACEBOOK -> null; // No refresh token flow — must reconnect
+        };
+    }
+
+    // ── Platforms ─────────────────────────────────────────────────────────────
+
+    private TokenGrant requestTwitterToken(Channel channel) throws Exception {
+        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
+            log.warn("Twitter channel {} has no refresh token — marking inactive", channel.getId());
+            return null; // Permanent — user must reconnect
+        }
+
+        String credentials = Base64.getEncoder().encodeToString(
+                (twitterClientId + ":" + twitterClientSecret).getBytes(StandardCharsets.UTF_8));
+
+        String body = "grant_type=refresh_token&refresh_token=" + encode(channel.getRefreshToken())
+                + "&client_id=" + encode(twitterClientId);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://api.twitter.com/2/oauth2/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Authorization", "Basic " + credentials)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(15))
+                .build();
+
+        HttpResponse<String> response = platformHttp.sendWithQuota(Platform.TWITTER, "oauth.refresh", request,
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode json = objectMapper.readTree(response.body());
+
+        String newAccessToken = json.path("access_token").asText("");
+        if (newAccessToken.isEmpty()) {
+            String error = json.path("error").asText("");
+            // invalid_grant / invalid_client / invalid_request = token revoked, expired, or corrupt — permanent
+            if ("invalid_grant".equals(error) || "invalid_client".equals(error) || "invalid_request".equals(error)) {
+                log.warn("Twitter token refresh permanent failure for channel {} ({}): marking inactive",
+                        channel.getId(), error);
+                return null;
+            }
+            // Any other failure (rate-limit, server error, etc.) — throw so the caller treats it as transient
+            throw new PlatformApiException(response.statusCode(),
+                    "Twitter token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
+        }
+
+        // Twitter rotates refresh tokens — always save the new one if provided
+        String newRefreshToken = json.path("refresh_token").asText("");
+        long expiresIn = json.path("expires_in").asLong(7200);
+        return new TokenGrant(newAccessToken, newRefreshToken.isEmpty() ? null : newRefreshToken,
+                LocalDateTime.now().plusSeconds(expiresIn));
+    }
+
+    private TokenGrant requestYouTubeToken(Channel channel) throws Exception {
+        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
+            log.warn("YouTube channel {} has no refresh token — marking inactive", channel.getId());
+            return null;
+        }
+
+        String body = "grant_type=refresh_token"
+                + "&refresh_token=" + encode(channel.getRefreshToken())
+                + "&client_id=" + encode(youtubeClientId)
+                + "&client_secret=" + encode(youtubeClientSecret);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://oauth2.googleapis.com/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(15))
+                .build();
+
+        HttpResponse<String> response = platformHttp.sendWithQuota(Platform.YOUTUBE, "oauth.refresh", request,
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode json = objectMapper.readTree(response.body());
+
+        String newAccessToken = json.path("access_token").asText("");
+        if (newAccessToken.isEmpty()) {
+            String error = json.path("error").asText("");
+            if ("invalid_grant".equals(error) || "invalid_client".equals(error)) {
+                log.warn("YouTube token refresh permanent failure for channel {} ({}): marking inactive",
+                        channel.getId(), error);
+                return null;
+            }
+            throw new PlatformApiException(response.statusCode(),
+                    "YouTube token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
+        }
+
+        // Google doesn't rotate refresh tokens; keep the current one
+        long expiresIn = json.path("expires_in").asLong(3600);
+        return new TokenGrant(newAccessToken, null, LocalDateTime.now().plusSeconds(expiresIn));
+    }
+
+    private TokenGrant requestTikTokToken(Channel channel) throws Exception {
+        if (channel.getRefreshToken() == null || channel.getRefreshToken().isBlank()) {
+            log.warn("TikTok channel {} has no refresh token — marking inactive", channel.getId());
+            return null;
+        }
+
+        String body = "client_key=" + encode(tiktokClientId)
+                + "&client_secret=" + encode(tiktokClientSecret)
+                + "&grant_type=refresh_token"
+                + "&refresh_token=" + encode(channel.getRefreshToken());
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://open.tiktokapis.com/v2/oauth/token/"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(15))
+                .build();
+
+        HttpResponse<String> response = platformHttp.sendWithQuota(Platform.TIKTOK, "oauth.refresh", request,
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode json = objectMapper.readTree(response.body());
+
+        String newAccessToken = json.path("access_token").asText("");
+        if (newAccessToken.isEmpty()) {
+            String errorCode = json.path("error_code").asText(json.path("error").asText(""));
+            // TikTok uses numeric error codes; 10010 = invalid refresh token (permanent)
+            if (!errorCode.isEmpty() && (errorCode.equals("10010") || errorCode.equals("invalid_grant"))) {
+                log.warn("TikTok token refresh permanent failure for channel {} (code={}): marking inactive",
+                        channel.getId(), errorCode);
+                return null;
+            }
+            throw new PlatformApiException(response.statusCode(),
+                    "TikTok token refresh failed [HTTP " + response.statusCode() + "]: " + response.body());
+        }
+
+        String newRefreshToken = json.path("refresh_token").asText("");
+        long expiresIn = json.path("expires_in").asLong(86400);
+        return new TokenGrant(newAccessToken, newRefreshToken.isEmpty() ? null : newRefreshToken,
+                LocalDateTime.now().plusSeconds(expiresIn));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static boolean hasRefreshFlow(Platform platform) {
+        return platform == Platform.TWITTER || platform == Platform.YOUTUBE || platform == Platform.TIKTOK;
+    }
+
+    private static boolean isValidPast(Channel channel, LocalDateTime time) {
+        return channel.getTokenExpiresAt() == null || channel.getTokenExpiresAt().isAfter(time);
+    }
+
+    /** Copies the stored token columns onto {@code channel}; false if it is gone or inactive. */
+    private boolean reloadTokens(Channel channel) {
+        return channelRepository.findById(channel.getId())
+                .filter(current -> Boolean.TRUE.equals(current.getIsActive()))
+                .map(current -> {
+                    channel.setAccessToken(current.getAccessToken());
+                    channel.setRefreshToken(current.getRefreshToken());
+                    channel.setTokenExpiresAt(current.getTokenExpiresAt());
+                    return true;
+                })
+                .orElseGet(() -> {
+                    channel.setIsActive(false);
+                    return false;
+                });
+    }
+
+    private void deactivate(Channel channel, String reason) {
+        log.warn("Token refresh permanently failed for channel {} ({}): {} — marking inactive",
+                channel.getId(), channel.getPlatform().getValue(), reason);
+        channelRepository.deactivate(channel.getId(), LocalDateTime.now());
+        channel.setIsActive(false);
+        syncMetrics.deactivated(channel.getPlatform(), reason.replace(' ', '_'));
+    }
+
+    private static boolean join(CompletableFuture<Boolean> refresh) throws Exception {
+        try {
+            return refresh.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
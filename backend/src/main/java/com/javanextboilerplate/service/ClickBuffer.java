@@ -0,0 +1,264 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.repository.AffiliateClickDailyRepository;
+import com.javanextboilerplate.repository.UtmClickDailyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for tracked clicks.
+ *
+ * Clicks are aggregated in memory per (target, record, day, referer, device) and
+ * flushed every {@code app.tracking.click-flush-ms} as one multi-row UPSERT per
+ * table, so a burst on a single link costs one row lock per flush instead of
+ * one per click. The UPSERT locks the parent records in id order before the
+ * daily rows, which go out sorted by (record, day), so replicas flushing the
+ * same rows concurrently lock them in the same order.
+ *
+ * The buffer holds at most {@code app.tracking.click-buffer-max-keys} distinct
+ * keys (and as many day sketches). Once full, clicks on new keys are shed and
+ * counted as {@code tracking.clicks.dropped} until the next flush drains it;
+ * the redirect itself is never held up. A failed flush is requeued within the
+ * same bound and whatever doesn't fit is dropped the same way. Pending clicks
+ * are flushed on shutdown.
+ *
+ * Alongside the counters, each (target, record, day) collects a HyperLogLog
+ * sketch of visitor fingerprints. On flush the stored sketches of the batch are
+ * read first and max-merged here, so the UPSERT just swaps in the result while
+ * it holds the row lock (see AffiliateClickDailyRepository#upsertClicks).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClickBuffer {
+
+    public enum Target { AFFILIATE, UTM }
+
+    private record Key(Target target, Long recordId, LocalDate date, String referer, String device) {
+        DayKey day() {
+            return new DayKey(target, recordId, date);
+        }
+    }
+
+    private record DayKey(Target target, Long recordId, LocalDate date) {}
+
+    private static final class Counts {
+        int total;
+        int unique;
+    }
+
+    private final AffiliateClickDailyRepository affiliateClickDailyRepository;
+    private final UtmClickDailyRepository utmClickDailyRepository;
+    private final ObjectMapper objectMapper;
+    private final TrackingMetrics metrics;
+
+    @Value("${app.tracking.click-buffer-max-keys:10000}")
+    private int maxKeys;
+
+    private final ConcurrentHashMap<Key, Counts> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<DayKey, HyperLogLog> sketches = new ConcurrentHashMap<>();
+
+    public void record(Target target, Long recordId, String referer, String device, boolean isUnique, long visitorHash) {
+        Key key = new Key(target, recordId, LocalDate.now(), referer, device);
+        if (isFull(pending, key) || isFull(sketches, key.day())) {
+            // Shed rather than write through: a per-click round trip is what the buffer exists to avoid
+            metrics.droppedBufferFull();
+            return;
+        }
+        // compute() runs under the bin lock, so flush()'s remove() sees either all or none of this click
+        pending.compute(key, (k, counts) -> add(counts != null ? counts : new Counts(), 1, isUnique ? 1 : 0));
+        sketches.compute(key.day(), (k, sketch) -> {
+            HyperLogLog s = sketch != null ? sketch : new HyperLogLog();
+            s.add(visitorHash);
+            return s;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.tracking.click-flush-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        Map<Key, Counts> drained = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Counts counts = pending.remove(key);
+            if (counts != null) drained.put(key, counts);
+        }
+        Map<DayKey, HyperLogLog> drainedSketches = new HashMap<>();
+        for (DayKey key : sketches.keySet()) {
+            HyperLogLog sketch = sketches.remove(key);
+            if (sketch != null) drainedSketches.put(key, sketch);
+        }
+        if (!drained.isEmpty() || !drainedSketches.isEmpty()) write(drained, drainedSketches);
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void write(Map<Key, Counts> clicks, Map<DayKey, HyperLogLog> daySketches) {
+        for (Target target : Target.values()) {
+            Map<Key, Counts> batch = new HashMap<>();
+            clicks.forEach((k, v) -> {
+                if (k.target() == target) batch.put(k, v);
+            });
+            Map<DayKey, HyperLogLog> batchSketches = new HashMap<>();
+            daySketches.forEach((k, v) -> {
+                if (k.target() == target) batchSketches.put(k, v);
+            });
+            if (batch.isEmpty() && batchSketches.isEmpty()) continue;
+            try {
+                Map<DayKey, String> stored = mergeStored(target, batchSketches);
+                String rowsJson = toRowsJson(batch, batchSketches, stored);
+                if (target == Target.UTM) {
+                    utmClickDailyRepository.upsertClicks(rowsJson);
+                } else {
+                    affiliateClickDailyRepository.upsertClicks(rowsJson);
+                }
+            } catch (Exception e) {
+                requeue(batch, batchSketches, e);
+            }
+        }
+    }
+
+    /**
+     * Folds each day's stored sketch into the drained one and returns the md5
+     * of what was read per day; the UPSERT only swaps in the merged sketch if
+     * the row still holds exactly that. A failed read leaves no base, so every
+     * row takes the (correct, slower) hll_merge path.
+     */
+    private Map<DayKey, String> mergeStored(Target target, Map<DayKey, HyperLogLog> daySketches) {
+        if (daySketches.isEmpty()) return Map.of();
+        Map<DayKey, String> base = new HashMap<>();
+        try {
+            List<SketchKey> keys = daySketches.keySet().stream()
+                    .map(day -> new SketchKey(day.recordId(), day.date().toString()))
+                    .toList();
+            String keysJson = objectMapper.writeValueAsString(keys);
+            List<Object[]> stored = target == Target.UTM
+                    ? utmClickDailyRepository.findSketches(keysJson)
+                    : affiliateClickDailyRepository.findSketches(keysJson);
+            for (Object[] row : stored) {
+                DayKey day = new DayKey(target, ((Number) row[0]).longValue(), LocalDate.parse((String) row[1]));
+                HyperLogLog sketch = daySketches.get(day);
+                if (sketch == null) continue;
+                sketch.merge((byte[]) row[2]);
+                base.put(day, (String) row[3]);
+            }
+        } catch (Exception e) {
+            log.debug("Reading stored visitor sketches failed, merging in SQL: {}", e.getMessage());
+            return Map.of();
+        }
+        return base;
+    }
+
+    private record SketchKey(Long id, String date) {}
+
+    /** Puts a failed batch back so the next flush retries it; bounded by the same key limit as record(). */
+    private void requeue(Map<Key, Counts> failed, Map<DayKey, HyperLogLog> daySketches, Exception e) {
+        long droppedClicks = 0;
+        int droppedKeys = 0;
+        for (Map.Entry<Key, Counts> entry : failed.entrySet()) {
+            Counts counts = entry.getValue();
+            if (isFull(pending, entry.getKey())) {
+                droppedClicks += counts.total;
+                droppedKeys++;
+                continue;
+            }
+            pending.compute(entry.getKey(), (k, existing) -> add(existing != null ? existing : new Counts(), counts.total, counts.unique));
+        }
+        int droppedSketches = 0;
+        for (Map.Entry<DayKey, HyperLogLog> entry : daySketches.entrySet()) {
+            if (isFull(sketches, entry.getKey())) {
+                droppedSketches++;
+                continue;
+            }
+            HyperLogLog sketch = entry.getValue();
+            sketches.compute(entry.getKey(), (k, existing) -> existing != null ? existing.merge(sketch) : sketch);
+        }
+
+        if (droppedKeys == 0 && droppedSketches == 0) {
+            log.warn("Click flush failed for {} keys, requeued: {}", failed.size(), e.getMessage());
+        } else {
+            metrics.droppedFlushFailed(droppedClicks);
+            log.warn("Click flush failed for {} keys, requeued {}; buffer full, dropped {} keys ({} clicks) and {} visitor sketches: {}",
+                    failed.size(), failed.size() - droppedKeys, droppedKeys, droppedClicks, droppedSketches, e.getMessage());
+        }
+    }
+
+    private <K> boolean isFull(Map<K, ?> buffer, K key) {
+        return buffer.size() >= maxKeys && !buffer.containsKey(key);
+    }
+
+    /**
+     * Collapses (record, day, referer, device) keys into one row per (record, day)
+     * with referer/device maps, serialised for jsonb_to_recordset.
+     */
+    private String toRowsJson(Map<Key, Counts> clicks, Map<DayKey, HyperLogLog> daySketches,
+                              Map<DayKey, String> baseMd5) throws Exception {
+        Map<DayKey, Row> rows = new LinkedHashMap<>();
+        // A sketch can outrun its counters by one flush (record() updates them separately)
+        daySketches.forEach((day, sketch) ->
+                rows.put(day, new Row(day.recordId(), day.date().toString(), sketch.toBytes(), baseMd5.get(day))));
+        clicks.forEach((key, counts) -> {
+            Row row = rows.computeIfAbsent(key.day(), day -> new Row(day.recordId(), day.date().toString(), null, null));
+            row.total += counts.total;
+            row.uniq  += counts.unique;
+            row.byReferer.merge(key.referer(), counts.total, Integer::sum);
+            row.byDevice.merge(key.device(), counts.total, Integer::sum);
+        });
+        List<Row> sorted = new ArrayList<>(rows.values());
+        sorted.sort(ROW_ORDER);
+        return objectMapper.writeValueAsString(sorted);
+    }
+
+    /** Lock order for the UPSERT; ISO dates sort chronologically as strings. */
+    private static final Comparator<Row> ROW_ORDER = Comparator.<Row, Long>comparing(r -> r.id).thenComparing(r -> r.date);
+
+    /** One (record, day) row of the flush payload; field names match the jsonb_to_recordset column list. */
+    private static final class Row {
+        public final Long id;
+        public final String date;
+        public int total;
+        public int uniq;
+        @JsonProperty("by_referer")
+        public final Map<String, Integer> byReferer = new HashMap<>();
+        @JsonProperty("by_device")
+        public final Map<String, Integer> byDevice = new HashMap<>();
+        /** Serialised by Jackson as base64, decoded in SQL. */
+        public final byte[] sketch;
+        /** md5 of the stored sketch merged into {@code sketch}, null if there was none. */
+        @JsonProperty("base_md5")
+        public final String baseMd5;
+
+        Row(Long id, String date, byte[] sketch, String baseMd5) {
+            this.id = id;
+            this.date = date;
+            this.sketch = sketch;
+            this.baseMd5 = baseMd5;
+        }
+    }
+
+    private static Counts add(Counts counts, int total, int unique) {
+        counts.total  += total;
+        counts.unique += unique;
+        return counts;
+    }
+}
@@ -7,10 +7,8 @@ import com.javanextboilerplate.dto.response.ColdOutreachResponse;
 import com.javanextboilerplate.dto.response.OutreachTemplateResponse;
 import com.javanextboilerplate.entity.ColdOutreach;
 import com.javanextboilerplate.entity.OutreachTemplate;
-import com.javanextboilerplate.entity.User;
 import com.javanextboilerplate.repository.ColdOutreachRepository;
 import com.javanextboilerplate.repository.OutreachTemplateRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,14 +25,13 @@ public class ColdOutreachService {
 
     private final ColdOutreachRepository outreachRepository;
     private final OutreachTemplateRepository templateRepository;
-    private final SaasProjectRepository projectRepository;
-    private final UserService userService;
+    private final ProjectAccess projectAccess;
 
     // ── Outreach entries ─────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
     public List<ColdOutreachResponse> getOutreaches(Long projectId, String supabaseUserId) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         return outreachRepository.findByProjectIdOrderByContactedAtDesc(projectId, PageRequest.of(0, 1_000)).stream()
                 .map(ColdOutreachResponse::from)
                 .toList();
@@ -43,7 +40,7 @@ public class ColdOutreachService {
     @Transactional
     public ColdOutreachResponse createOutreach(Long projectId, String supabaseUserId,
                                                CreateColdOutreachRequest request) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
 
         String platform = request.getPlatform().toUpperCase();
         String handle   = request.getHandle().trim();
@@ -78,7 +75,7 @@ public class ColdOutreachService {
     @Transactional
     public ColdOutreachResponse updateStatus(Long projectId, Long outreachId,
                                              String supabaseUserId, UpdateOutreachStatusRequest request) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
 
         ColdOutreach outreach = outreachRepository.findByIdAndProjectId(outreachId, projectId)
                 .orElseThrow(() -> new RuntimeException("Outreach not found"));
@@ -95,7 +92,7 @@ public class ColdOutreachService {
 
     @Transactional
     public void deleteOutreach(Long projectId, Long outreachId, String supabaseUserId) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         ColdOutreach outreach = outreachRepository.findByIdAndProjectId(outreachId, projectId)
                 .orElseThrow(() -> new RuntimeException("Outreach not found"));
         outreachRepository.delete(outreach);
@@ -106,7 +103,7 @@ public class ColdOutreachService {
 
     @Transactional(readOnly = true)
     public List<OutreachTemplateResponse> getTemplates(Long projectId, String supabaseUserId) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         return templateRepository.findByProjectIdOrderByCreatedAtDesc(projectId).stream()
                 .map(OutreachTemplateResponse::from)
                 .toList();
@@ -115,7 +112,7 @@ public class ColdOutreachService {
     @Transactional
     public OutreachTemplateResponse createTemplate(Long projectId, String supabaseUserId,
                                                    CreateOutreachTemplateRequest request) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
 
         OutreachTemplate template = OutreachTemplate.builder()
                 .projectId(projectId)
@@ -131,7 +128,7 @@ public class ColdOutreachService {
     @Transactional
     public OutreachTemplateResponse updateTemplate(Long projectId, Long templateId,
                                                    String supabaseUserId, CreateOutreachTemplateRequest request) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         OutreachTemplate template = templateRepository.findByIdAndProjectId(templateId, projectId)
                 .orElseThrow(() -> new RuntimeException("Template not found"));
         template.setName(request.getName());
@@ -143,18 +140,10 @@ public class ColdOutreachService {
 
     @Transactional
     public void deleteTemplate(Long projectId, Long templateId, String supabaseUserId) {
-        verifyOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         OutreachTemplate template = templateRepository.findByIdAndProjectId(templateId, projectId)
                 .orElseThrow(() -> new RuntimeException("Template not found"));
         templateRepository.delete(template);
         log.info("Deleted outreach template {} from project {}", templateId, projectId);
     }
-
-    // ── Helpers ───────────────────────────────────────────────────────────────
-
-    private void verifyOwnership(Long projectId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-    }
 }
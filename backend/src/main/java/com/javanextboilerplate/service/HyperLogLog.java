@@ -0,0 +1,103 @@
+package com.javanextboilerplate.service;
+
+/**
+ * Minimal HyperLogLog distinct counter used for per-day unique visitors.
+ *
+ * Precision 10: 1024 one-byte registers, ~3.25% standard error. The byte layout
+ * is exactly what is stored in {@code *_click_daily.visitor_sketch}; ClickBuffer
+ * merges stored sketches here before writing, and the {@code hll_merge} SQL
+ * function (V22) does the same register-wise max as a fallback, so the two must
+ * stay in step.
+ * Not thread-safe; callers synchronise (the click buffer updates it inside
+ * {@code ConcurrentHashMap.compute}).
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 10;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /** Wraps a stored sketch; null or malformed input yields an empty sketch. */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTERS) return new HyperLogLog();
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Rank of the first set bit in the remaining bits; the sentinel bit caps it at 64 - p + 1
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) registers[index] = (byte) rank;
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+        return this;
+    }
+
+    public HyperLogLog merge(byte[] stored) {
+        if (stored != null && stored.length == REGISTERS) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (stored[i] > registers[i]) registers[i] = stored[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double raw = ALPHA * REGISTERS * REGISTERS / sum;
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            // Small-range correction: linear counting
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * 64-bit hash of a visitor fingerprint (FNV-1a over both parts, then the
+     * MurmurHash3 finaliser for avalanche). Only the hash reaches the sketch.
+     */
+    public static long hash(String a, String b) {
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, a);
+        h = (h ^ '|') * 0x100000001b3L;
+        h = fnv(h, b);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long fnv(long h, String s) {
+        if (s == null) return h;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
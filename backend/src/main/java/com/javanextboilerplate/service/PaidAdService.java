@@ -9,7 +9,6 @@ import com.javanextboilerplate.entity.PaidAdCampaign;
 import com.javanextboilerplate.entity.PaidAdEntry;
 import com.javanextboilerplate.repository.PaidAdCampaignRepository;
 import com.javanextboilerplate.repository.PaidAdEntryRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
 import com.javanextboilerplate.repository.UtmClickDailyRepository;
 import com.javanextboilerplate.repository.UtmLinkRepository;
 import lombok.RequiredArgsConstructor;
@@ -27,16 +26,15 @@ public class PaidAdService {
 
     private final PaidAdCampaignRepository campaignRepository;
     private final PaidAdEntryRepository entryRepository;
-    private final SaasProjectRepository projectRepository;
     private final UtmLinkRepository utmLinkRepository;
     private final UtmClickDailyRepository utmClickDailyRepository;
-    private final UserService userService;
+    private final ProjectAccess projectAccess;
 
     // ── Campaigns ─────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
     public List<PaidAdCampaignResponse> getCampaigns(Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         return campaignRepository.findByProjectIdOrderByCreatedAtDesc(projectId).stream()
                 .map(c -> PaidAdCampaignResponse.from(c, entryRepository.findByCampaignIdOrderByDateAsc(c.getId())))
                 .toList();
@@ -44,7 +42,7 @@ public class PaidAdService {
 
     @Transactional
     public PaidAdCampaignResponse createCampaign(Long projectId, CreatePaidAdCampaignRequest req, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         PaidAdCampaign campaign = PaidAdCampaign.builder()
                 .projectId(projectId)
                 .name(req.getName().strip())
@@ -56,20 +54,21 @@ public class PaidAdService {
 
     @Transactional
     public void deleteCampaign(Long campaignId, Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         PaidAdCampaign campaign = campaignRepository.findById(campaignId)
                 .orElseThrow(() -> new RuntimeException("Campaign not found"));
         if (!campaign.getProjectId().equals(projectId)) {
             throw new RuntimeException("Campaign not found");
         }
         campaignRepository.delete(campaign);
+        projectAccess.evictResource(projectId, ProjectAccess.Resource.PAID_AD_CAMPAIGN, campaignId);
     }
 
     // ── Entries ───────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
     public List<PaidAdEntryResponse> getEntries(Long campaignId, Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         assertCampaignOwnership(campaignId, projectId);
         return entryRepository.findByCampaignIdOrderByDateAsc(campaignId).stream()
                 .map(PaidAdEntryResponse::from)
@@ -78,7 +77,7 @@ public class PaidAdService {
 
     @Transactional
     public PaidAdEntryResponse upsertEntry(Long campaignId, Long projectId, CreatePaidAdEntryRequest req, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         assertCampaignOwnership(campaignId, projectId);
 
         PaidAdEntry entry = entryRepository.findByCampaignIdAndDate(campaignId, req.getDate())
@@ -95,7 +94,7 @@ public class PaidAdService {
 
     @Transactional
     public void deleteEntry(Long entryId, Long campaignId, Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         assertCampaignOwnership(campaignId, projectId);
         PaidAdEntry entry = entryRepository.findById(entryId)
                 .orElseThrow(() -> new RuntimeException("Entry not found"));
@@ -109,7 +108,7 @@ public class PaidAdService {
 
     @Transactional(readOnly = true)
     public PaidAdStatsResponse getStats(Long campaignId, Long projectId, String supabaseUserId, int days) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         assertCampaignOwnership(campaignId, projectId);
 
         LocalDate to   = LocalDate.now();
@@ -141,10 +140,12 @@ public class PaidAdService {
                 .stream().map(l -> l.getId()).toList();
         long utmTotalClicks  = 0;
         long utmUniqueClicks = 0;
+        HyperLogLog utmVisitors = new HyperLogLog();
         if (!utmLinkIds.isEmpty()) {
             var utmRows = utmClickDailyRepository.findByUtmLinkIdInAndDateBetweenOrderByDateAsc(utmLinkIds, from, to);
             utmTotalClicks  = utmRows.stream().mapToLong(r -> r.getTotalClicks()).sum();
             utmUniqueClicks = utmRows.stream().mapToLong(r -> r.getUniqueClicks()).sum();
+            utmRows.forEach(r -> utmVisitors.merge(r.getVisitorSketch()));
         }
 
         return PaidAdStatsResponse.builder()
@@ -158,6 +159,7 @@ public class PaidAdService {
                 .ctr(ctr)
                 .utmTotalClicks(utmTotalClicks)
                 .utmUniqueClicks(utmUniqueClicks)
+                .utmUniqueVisitors(utmVisitors.estimate())
                 .build();
     }
 
@@ -165,23 +167,14 @@ public class PaidAdService {
 
     @Transactional(readOnly = true)
     public long getTotalSpend(Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         return entryRepository.sumSpendCentsByProjectId(projectId);
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
-    private void assertOwnership(Long projectId, String supabaseUserId) {
-        var user = userService.getUserBySupabaseId(supabaseUserId);
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-    }
-
     private void assertCampaignOwnership(Long campaignId, Long projectId) {
-        PaidAdCampaign campaign = campaignRepository.findById(campaignId)
-                .orElseThrow(() -> new RuntimeException("Campaign not found"));
-        if (!campaign.getProjectId().equals(projectId)) {
-            throw new RuntimeException("Campaign not found");
-        }
+        projectAccess.assertBelongsTo(projectId, ProjectAccess.Resource.PAID_AD_CAMPAIGN, campaignId,
+                "Campaign not found");
     }
 }
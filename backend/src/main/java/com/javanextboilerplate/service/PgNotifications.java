@@ -0,0 +1,141 @@
+package com.javanextboilerplate.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cross-replica messages over PostgreSQL LISTEN/NOTIFY.
+ *
+ * {@link #publish} runs {@code pg_notify} on the caller's connection, so inside
+ * a transaction the message goes out on commit and is dropped on rollback.
+ * Listening needs a session that stays open, which a Hikari connection does
+ * not, so one dedicated connection is held by a virtual thread that polls for
+ * notifications every {@code app.notify.poll-ms} and reconnects with backoff.
+ * Handlers run on that thread and must be quick.
+ *
+ * NOTIFY is fire-and-forget: anything sent while a replica is disconnected is
+ * lost, so listeners keep a periodic catch-up and can ask {@link #listeningSince()}
+ * whether the current session covers a given moment.
+ */
+@Service
+@Slf4j
+public class PgNotifications {
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMs;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private volatile Instant listeningSince;
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public PgNotifications(JdbcTemplate jdbcTemplate,
+                           @Value("${app.notify.url:${spring.datasource.url}}") String url,
+                           @Value("${spring.datasource.username:}") String username,
+                           @Value("${spring.datasource.password:}") String password,
+                           @Value("${app.notify.poll-ms:500}") int pollMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMs = pollMs;
+    }
+
+    /** Registers a handler; channels registered after startup take effect on the next reconnect. */
+    public void listen(String channel, Consumer<String> handler) {
+        handlers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /** Sends to every replica, this one included. Payloads must stay under 8000 bytes. */
+    public void publish(String channel, String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> {}, channel, payload);
+    }
+
+    /** When the current LISTEN session started, or null while disconnected. */
+    public Instant listeningSince() {
+        return listeningSince;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (listener != null || handlers.isEmpty()) return;
+        listener = Thread.ofVirtual().name("pg-notifications").start(this::run);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+    }
+
+    // ── Listener ──────────────────────────────────────────────────────────────
+
+    private void run() {
+        long backoffMs = 1_000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : handlers.keySet()) {
+                        statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+                    }
+                }
+                listeningSince = Instant.now();
+                backoffMs = 1_000;
+                log.info("Listening for notifications on {}", handlers.keySet());
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollMs);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getName(), notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                listeningSince = null;
+                if (!running) return;
+                log.warn("Notification listener disconnected, retrying in {}ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        listeningSince = null;
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                log.warn("Notification handler for {} failed: {}", channel, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Platform;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP layer for calls to the social platform APIs (sync, token
+ * refresh, OAuth).
+ *
+ * One HttpClient for all of them, so connections are pooled and reused across
+ * services. It prefers HTTP/2, which ALPN negotiates per host: platforms that
+ * support it multiplex requests over one connection, the rest fall back to
+ * HTTP/1.1. On top of the client:
+ *  - per-host concurrency cap ({@code app.http.max-concurrent-per-host})
+ *  - retry with full-jitter exponential backoff on 429 (any method) and on
+ *    5xx / I/O errors (GET only, so token exchanges are never replayed),
+ *    honoring Retry-After up to {@code app.http.retry-max-ms}
+ *  - {@code platform.http.requests} timer per platform/endpoint with status
+ *    class and negotiated protocol, {@code platform.http.retries} counter and
+ *    {@code platform.http.in_flight} gauge per host
+ *
+ * {@link #sendWithQuota} also draws each attempt from PlatformRateLimiter; use it
+ * for background traffic. {@link #send} skips the quota so user-facing OAuth
+ * calls never queue behind a sync run.
+ */
+@Component
+@Slf4j
+public class PlatformHttpClient {
+
+    private final HttpClient client;
+    private final PlatformRateLimiter rateLimiter;
+    private final MeterRegistry registry;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final int maxConcurrentPerHost;
+    private final int maxRetries;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    public PlatformHttpClient(PlatformRateLimiter rateLimiter,
+                              MeterRegistry registry,
+                              @Value("${app.http.connect-timeout-ms:10000}") long connectTimeoutMs,
+                              @Value("${app.http.http2:true}") boolean http2,
+                              @Value("${app.http.max-concurrent-per-host:16}") int maxConcurrentPerHost,
+                              @Value("${app.http.max-retries:3}") int maxRetries,
+                              @Value("${app.http.retry-base-ms:500}") long retryBaseMs,
+                              @Value("${app.http.retry-max-ms:30000}") long retryMaxMs) {
+        this.rateLimiter = rateLimiter;
+        this.registry = registry;
+        this.maxConcurrentPerHost = Math.max(1, maxConcurrentPerHost);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        client.close();
+    }
+
+    /** Sends without drawing from the platform's rate limiter (interactive calls). */
+    public <T> HttpResponse<T> send(Platform platform, String endpoint, HttpRequest request,
+                                    HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        return execute(platform, endpoint, request, handler, false);
+    }
+
+    /** Sends once the platform's rate limiter allows it; retries draw again. */
+    public <T> HttpResponse<T> sendWithQuota(Platform platform, String endpoint, HttpRequest request,
+                                             HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        return execute(platform, endpoint, request, handler, true);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private <T> HttpResponse<T> execute(Platform platform, String endpoint, HttpRequest request,
+                                        HttpResponse.BodyHandler<T> handler, boolean withQuota)
+            throws IOException, InterruptedException {
+        boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+        Semaphore permits = hostPermits(request.uri().getHost());
+
+        for (int attempt = 1; ; attempt++) {
+            if (withQuota) rateLimiter.acquireRequest(platform);
+
+            // Decided from the status line and headers, before the body is read: a
+            // response that will be retried has its body discarded instead of buffered
+            long[] retryDelayMs = {-1};
+            boolean mayRetry = attempt <= maxRetries;
+            int currentAttempt = attempt;
+            HttpResponse.BodyHandler<T> guarded = info -> {
+                retryDelayMs[0] = mayRetry ? retryDelayMs(info, idempotent, currentAttempt) : -1;
+                return retryDelayMs[0] >= 0 ? HttpResponse.BodySubscribers.replacing(null) : handler.apply(info);
+            };
+
+            HttpResponse<T> response;
+            long startedAt = System.nanoTime();
+            permits.acquire();
+            try {
+                response = client.send(request, guarded);
+            } catch (IOException e) {
+                record(platform, endpoint, "IO_ERROR", "none", startedAt);
+                if (!idempotent || !mayRetry) throw e;
+                retried(platform, endpoint, "io_error");
+                Thread.sleep(backoffMs(attempt));
+                continue;
+            } finally {
+                permits.release();
+            }
+
+            record(platform, endpoint, (response.statusCode() / 100) + "xx", response.version().name(), startedAt);
+            if (retryDelayMs[0] < 0) return response;
+
+            retried(platform, endpoint, String.valueOf(response.statusCode()));
+            log.debug("{} {} returned {}, retrying in {} ms (attempt {}/{})", platform.getValue(), endpoint,
+                    response.statusCode(), retryDelayMs[0], attempt, maxRetries);
+            Thread.sleep(retryDelayMs[0]);
+        }
+    }
+
+    /** Delay before retrying this response, or -1 to hand it to the caller. */
+    private long retryDelayMs(HttpResponse.ResponseInfo info, boolean idempotent, int attempt) {
+        int status = info.statusCode();
+        boolean retryable = status == 429 || (idempotent && (status == 500 || status == 502 || status == 503 || status == 504));
+        if (!retryable) return -1;
+
+        Long retryAfter = info.headers().firstValue("Retry-After").map(PlatformHttpClient::parseRetryAfter).orElse(null);
+        if (retryAfter == null) return backoffMs(attempt);
+        // Waiting longer than that would just stall the caller; let it fail and be retried later
+        return retryAfter <= retryMaxMs ? retryAfter : -1;
+    }
+
+    /** Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]. */
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(retryMaxMs, retryBaseMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /** Retry-After is either delta-seconds or an HTTP date. */
+    private static Long parseRetryAfter(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+
+    private Semaphore hostPermits(String host) {
+        return hostPermits.computeIfAbsent(host, h -> {
+            Semaphore permits = new Semaphore(maxConcurrentPerHost);
+            Gauge.builder("platform.http.in_flight", permits, p -> maxConcurrentPerHost - p.availablePermits())
+                    .description("Platform API requests currently in flight")
+                    .tag("host", h)
+                    .register(registry);
+            return permits;
+        });
+    }
+
+    private void record(Platform platform, String endpoint, String status, String protocol, long startedAt) {
+        Timer.builder("platform.http.requests")
+                .description("Platform API request latency, one sample per attempt")
+                .tag("platform", platform.getValue())
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .tag("protocol", protocol)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void retried(Platform platform, String endpoint, String reason) {
+        Counter.builder("platform.http.retries")
+                .description("Platform API requests retried, by reason")
+                .tag("platform", platform.getValue())
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
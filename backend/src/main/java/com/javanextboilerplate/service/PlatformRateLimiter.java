@@ -0,0 +1,102 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Platform;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Per-platform throttling for channel sync.
+ *
+ * Two independent limits per platform, configured under
+ * {@code app.sync.platforms.<platform>}:
+ *  - max-concurrency: channels of that platform being synced at once (a slot)
+ *  - requests-per-second / burst: token bucket every outbound API request
+ *    draws from, so fanning out across channels can't trip the platform quota
+ *
+ * Both block the calling thread, which is cheap on the virtual threads the
+ * sync runs on.
+ */
+@Component
+public class PlatformRateLimiter {
+
+    private record Limits(int maxConcurrency, double requestsPerSecond, int burst) {}
+
+    private final Map<Platform, Semaphore> slots = new EnumMap<>(Platform.class);
+    private final Map<Platform, TokenBucket> buckets = new EnumMap<>(Platform.class);
+    private final SyncMetrics metrics;
+
+    public PlatformRateLimiter(Environment env, SyncMetrics metrics) {
+        this.metrics = metrics;
+        for (Platform platform : Platform.values()) {
+            Limits defaults = defaultsFor(platform);
+            String prefix = "app.sync.platforms." + platform.getValue() + ".";
+            int maxConcurrency = env.getProperty(prefix + "max-concurrency", Integer.class, defaults.maxConcurrency());
+            double rps = env.getProperty(prefix + "requests-per-second", Double.class, defaults.requestsPerSecond());
+            int burst = env.getProperty(prefix + "burst", Integer.class, defaults.burst());
+            slots.put(platform, new Semaphore(Math.max(1, maxConcurrency), true));
+            buckets.put(platform, new TokenBucket(rps, Math.max(1, burst)));
+        }
+    }
+
+    public void acquireSlot(Platform platform) throws InterruptedException {
+        slots.get(platform).acquire();
+    }
+
+    public void releaseSlot(Platform platform) {
+        slots.get(platform).release();
+    }
+
+    /** Blocks until the platform's bucket grants one request. */
+    public void acquireRequest(Platform platform) throws InterruptedException {
+        long waitNanos = buckets.get(platform).reserve();
+        if (waitNanos > 0) {
+            metrics.rateLimitWait(platform, waitNanos);
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Conservative defaults, well inside each platform's published per-app limits. */
+    private static Limits defaultsFor(Platform platform) {
+        return switch (platform) {
+            case TWITTER -> new Limits(4, 2, 5);
+            case YOUTUBE -> new Limits(8, 10, 20);
+            case TIKTOK -> new Limits(4, 5, 10);
+            case INSTAGRAM, FACEBOOK -> new Limits(4, 5, 10);
+        };
+    }
+
+    /**
+     * Reservation-style token bucket: a caller always takes a token, possibly
+     * driving the balance negative, and sleeps for the time it takes to refill
+     * back to zero. Callers are therefore served in arrival order.
+     */
+    private static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double requestsPerSecond, int burst) {
+            this.tokensPerNano = requestsPerSecond / 1_000_000_000d;
+            this.capacity = burst;
+            this.tokens = burst;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        }
+    }
+}
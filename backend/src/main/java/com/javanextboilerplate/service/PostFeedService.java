@@ -0,0 +1,160 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.dto.response.ChannelPostSummaryResponse;
+import com.javanextboilerplate.dto.response.PostResponse;
+import com.javanextboilerplate.entity.Post;
+import com.javanextboilerplate.entity.PostStatsLatest;
+import com.javanextboilerplate.repository.PostRepository;
+import com.javanextboilerplate.repository.PostStatsLatestRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent-posts listing for a set of channels, shared by PostController and the
+ * project overview. Callers check ownership.
+ *
+ * Each post comes with its latest stats from post_stats_latest, never its
+ * snapshot history. Callers that page get keyset pages on (published_at, id),
+ * so memory and payload per call are bounded by the page size. Unpaged calls
+ * return the whole window (at most {@link #MAX_DAYS} days) up to
+ * {@link #MAX_LIMIT} posts; past that they get the first page and a cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostFeedService {
+
+    public static final int MAX_LIMIT = 500;
+    public static final int DEFAULT_LIMIT = 200;
+    /** {@code limit} value for the whole window in one response. */
+    public static final int UNPAGED = 0;
+    public static final int MAX_SPARKLINE_POINTS = 30;
+    /** Longest window, the dashboard's widest range. */
+    public static final int MAX_DAYS = 90;
+    public static final int MAX_TOP_POSTS = 50;
+    // First-page keyset bound, above any real post
+    private static final LocalDateTime NO_CURSOR = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    /** One page of posts; {@code nextCursor} is null on the last page. */
+    public record Page(List<PostResponse> posts, String nextCursor) {}
+
+    private final PostRepository postRepository;
+    private final PostStatsLatestRepository postStatsLatestRepository;
+    private final StatsTimeSeries statsTimeSeries;
+
+    /** Total views, mean engagement rate and the {@code top} most viewed posts of one channel. */
+    @Transactional(readOnly = true)
+    public ChannelPostSummaryResponse channelSummary(Long channelId, int top) {
+        List<Object[]> best = postStatsLatestRepository.getTopPostsByViews(
+                channelId, PageRequest.of(0, Math.max(1, Math.min(top, MAX_TOP_POSTS))));
+        Map<Long, Post> posts = new HashMap<>();
+        postRepository.findAllById(best.stream().map(row -> (Long) row[0]).toList())
+                .forEach(post -> posts.put(post.getId(), post));
+
+        List<ChannelPostSummaryResponse.TopPost> topPosts = new ArrayList<>(best.size());
+        for (Object[] row : best) {
+            Post post = posts.get((Long) row[0]);
+            if (post == null) continue;
+            topPosts.add(ChannelPostSummaryResponse.TopPost.builder()
+                    .postId(post.getId())
+                    .title(post.getTitle())
+                    .postUrl(post.getPostUrl())
+                    .viewsCount((Long) row[1])
+                    .build());
+        }
+        Long totalViews = postStatsLatestRepository.getTotalViewsForChannel(channelId);
+        return ChannelPostSummaryResponse.builder()
+                .totalViews(totalViews != null ? totalViews : 0)
+                .averageEngagementRate(postStatsLatestRepository.getAverageEngagementRateForChannel(channelId))
+                .topPosts(topPosts)
+                .build();
+    }
+
+    /**
+     * Posts published in the last {@code days} days (clamped to {@link #MAX_DAYS}),
+     * newest first. {@code limit} is the page size, or {@link #UNPAGED} for all
+     * of them up to {@link #MAX_LIMIT}, with a nextCursor when there are more;
+     * {@code cursor} is a previous page's nextCursor, or null for the first page;
+     * {@code sparkline} &gt; 0 adds up to that many view counts per post, spread
+     * over the window, and is only allowed on paged calls.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or an unpaged call asks for sparklines
+     */
+    @Transactional(readOnly = true)
+    public Page recentPosts(List<Long> channelIds, int days, int limit, String cursor, int sparkline) {
+        boolean paged = limit != UNPAGED;
+        if (!paged && sparkline > 0) {
+            throw new IllegalArgumentException("Sparklines need a paged request (limit or cursor)");
+        }
+        if (channelIds.isEmpty()) {
+            return new Page(List.of(), null);
+        }
+
+        int pageSize = paged ? Math.max(1, Math.min(limit, MAX_LIMIT)) : MAX_LIMIT;
+        LocalDateTime beforePublishedAt = NO_CURSOR;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                beforePublishedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + cursor);
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(Math.max(1, Math.min(days, MAX_DAYS)));
+        List<Object[]> rows = postRepository.findPageByChannelIdsAndPublishedAfter(
+                channelIds, since, beforePublishedAt, beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) rows = rows.subList(0, pageSize);
+
+        Map<Long, List<Long>> sparklines = sparkline > 0
+                ? viewsSparklines(rows, since, now, Math.min(sparkline, MAX_SPARKLINE_POINTS))
+                : Map.of();
+        List<PostResponse> posts = rows.stream()
+                .map(row -> {
+                    Post post = (Post) row[0];
+                    return PostResponse.from(post, (PostStatsLatest) row[1],
+                            sparkline > 0 ? sparklines.getOrDefault(post.getId(), List.of()) : null);
+                })
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            Post last = (Post) rows.get(rows.size() - 1)[0];
+            nextCursor = last.getPublishedAt() + "_" + last.getId();
+        }
+        return new Page(posts, nextCursor);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Up to {@code points} view counts per post, evenly sampled from its snapshots in the window. */
+    private Map<Long, List<Long>> viewsSparklines(List<Object[]> rows, LocalDateTime from, LocalDateTime to, int points) {
+        List<Long> postIds = rows.stream().map(row -> ((Post) row[0]).getId()).toList();
+        Map<Long, List<Long>> result = new HashMap<>();
+        statsTimeSeries.postRanges(postIds, from, to).forEach((postId, snapshots) -> {
+            int n = snapshots.size();
+            int take = Math.min(points, n);
+            List<Long> views = new ArrayList<>(take);
+            for (int i = 0; i < take; i++) {
+                // Always include the first and last snapshot
+                int index = take == 1 ? n - 1 : (int) ((long) i * (n - 1) / (take - 1));
+                Long value = snapshots.get(index).getViewsCount();
+                views.add(value != null ? value : 0L);
+            }
+            result.put(postId, views);
+        });
+        return result;
+    }
+}
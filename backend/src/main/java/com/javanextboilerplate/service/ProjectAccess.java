@@ -0,0 +1,136 @@
+package com.javanextboilerplate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.javanextboilerplate.repository.AffiliateCampaignRepository;
+import com.javanextboilerplate.repository.ChannelRepository;
+import com.javanextboilerplate.repository.LinkedChannelRepository;
+import com.javanextboilerplate.repository.PaidAdCampaignRepository;
+import com.javanextboilerplate.repository.SaasProjectRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ownership checks for project-scoped endpoints: "does this user own the
+ * project" and "does this resource belong to the project".
+ *
+ * A dashboard page fires many requests against the same project, each of which
+ * used to look the project up again. Positive decisions are kept in the
+ * "projectAccess" cache (size and TTL in {@code app.cache.specs}); denials are
+ * never cached, so a new project or resource is usable immediately. Deleting a
+ * project or detaching a resource evicts its entries once the transaction
+ * commits. The cache is per replica, so on other replicas a revoked decision
+ * lives at most one TTL.
+ */
+@Component
+public class ProjectAccess {
+
+    public enum Resource { CHANNEL, PAID_AD_CAMPAIGN, AFFILIATE_CAMPAIGN }
+
+    /** (user, project) when resource is null, otherwise (project, resource). */
+    private record Key(long scopeId, Resource resource, long id) {}
+
+    private final UserService userService;
+    private final SaasProjectRepository projectRepository;
+    private final ChannelRepository channelRepository;
+    private final LinkedChannelRepository linkedChannelRepository;
+    private final PaidAdCampaignRepository paidAdCampaignRepository;
+    private final AffiliateCampaignRepository affiliateCampaignRepository;
+    private final Cache<Object, Object> granted;
+
+    public ProjectAccess(UserService userService,
+                         SaasProjectRepository projectRepository,
+                         ChannelRepository channelRepository,
+                         LinkedChannelRepository linkedChannelRepository,
+                         PaidAdCampaignRepository paidAdCampaignRepository,
+                         AffiliateCampaignRepository affiliateCampaignRepository,
+                         CacheManager cacheManager) {
+        this.userService = userService;
+        this.projectRepository = projectRepository;
+        this.channelRepository = channelRepository;
+        this.linkedChannelRepository = linkedChannelRepository;
+        this.paidAdCampaignRepository = paidAdCampaignRepository;
+        this.affiliateCampaignRepository = affiliateCampaignRepository;
+        // Native cache: eviction by project needs to scan the keys
+        this.granted = ((CaffeineCache) cacheManager.getCache("projectAccess")).getNativeCache();
+    }
+
+    // ── Checks ────────────────────────────────────────────────────────────────
+
+    public void assertOwner(Long projectId, String supabaseUserId) {
+        assertOwner(projectId, userService.getUserBySupabaseId(supabaseUserId).id());
+    }
+
+    public void assertOwner(Long projectId, Long userId) {
+        if (!check(new Key(userId, null, projectId), () -> projectRepository.existsByIdAndUserId(projectId, userId))) {
+            throw new RuntimeException("Project not found");
+        }
+    }
+
+    /** Channels count when owned by the project or linked to it. */
+    public boolean belongsTo(Long projectId, Resource resource, Long resourceId) {
+        return check(new Key(projectId, resource, resourceId), () -> switch (resource) {
+            case CHANNEL -> channelRepository.existsByIdAndProjectId(resourceId, projectId)
+                    || linkedChannelRepository.existsByProjectIdAndChannelId(projectId, resourceId);
+            case PAID_AD_CAMPAIGN -> paidAdCampaignRepository.existsByIdAndProjectId(resourceId, projectId);
+            case AFFILIATE_CAMPAIGN -> affiliateCampaignRepository.existsByIdAndProjectId(resourceId, projectId);
+        });
+    }
+
+    public void assertBelongsTo(Long projectId, Resource resource, Long resourceId, String notFoundMessage) {
+        if (!belongsTo(projectId, resource, resourceId)) {
+            throw new RuntimeException(notFoundMessage);
+        }
+    }
+
+    // ── Eviction ──────────────────────────────────────────────────────────────
+
+    /** Forgets every decision about the project: its owner and all its resources. */
+    public void evictProject(Long projectId) {
+        afterCommit(() -> granted.asMap().keySet().removeIf(k -> k instanceof Key key && (key.resource() == null
+                ? key.id() == projectId
+                : key.scopeId() == projectId)));
+    }
+
+    /**
+     * Forgets that the resource belongs to any project; a deleted channel may
+     * still be linked into other projects.
+     */
+    public void evictResource(Resource resource, Long resourceId) {
+        afterCommit(() -> granted.asMap().keySet()
+                .removeIf(k -> k instanceof Key key && key.resource() == resource && key.id() == resourceId));
+    }
+
+    public void evictResource(Long projectId, Resource resource, Long resourceId) {
+        afterCommit(() -> granted.invalidate(new Key(projectId, resource, resourceId)));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private interface Lookup {
+        boolean allowed();
+    }
+
+    private boolean check(Key key, Lookup lookup) {
+        if (granted.getIfPresent(key) != null) return true;
+        if (!lookup.allowed()) return false;
+        granted.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    /** Evict only once the change is visible, so a concurrent check can't re-cache the old state. */
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
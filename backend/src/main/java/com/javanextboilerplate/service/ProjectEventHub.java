@@ -0,0 +1,426 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.dto.response.SeoAuditResponse;
+import com.javanextboilerplate.repository.LinkedChannelRepository;
+import com.javanextboilerplate.repository.SeoAuditRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Live dashboard updates, pushed to GET /api/projects/{id}/events as
+ * Server-Sent Events.
+ *
+ * Producers (the /t/{slug} redirect, channel sync, SEO audits) only touch
+ * projects somebody is watching, and then only add to that project's pending
+ * window: a map update under the bin lock, no I/O. Every
+ * {@code app.live.flush-ms} each window is drained and turned into at most
+ * three events:
+ *  - {@code clicks}: click deltas per UTM link / affiliate campaign since the
+ *    previous window
+ *  - {@code channel_synced}: latest follower count per channel synced in the window
+ *  - {@code seo_audit}: the newest completed audit
+ * Idle streams get a comment line every {@code app.live.heartbeat-ms} so
+ * proxies keep them open. A stream ends after {@code app.live.emitter-timeout-ms};
+ * EventSource reconnects on its own, which re-checks ownership.
+ *
+ * A client's stream lives on one replica, but the clicks, syncs and audits it
+ * should see happen on any of them. Windows are therefore published to every
+ * replica over the {@code project_events} notification channel (PgNotifications),
+ * split so each message stays under the 8000-byte NOTIFY limit; an audit
+ * travels as its id and is loaded by the receiver. Each receiving replica
+ * writes the events to its own subscribers on virtual threads, so a slow
+ * client never holds up the others. Replicas announce the projects they have
+ * streams for on {@code project_watch} at subscribe time and with every
+ * heartbeat, so producers elsewhere know which windows to keep. When the
+ * notification channel is down, windows are delivered to local subscribers
+ * only. The REST endpoints stay the source of truth.
+ */
+@Service
+@Slf4j
+public class ProjectEventHub {
+
+    public record ClickDelta(Long id, int clicks, int unique) {}
+
+    public record Clicks(List<ClickDelta> utm, List<ClickDelta> affiliate) {}
+
+    public record ChannelSynced(Long channelId, long followersCount, LocalDateTime syncedAt) {}
+
+    private record Event(String name, String json) {}
+
+    /** One window, or part of one, as sent to every replica on {@code project_events}. */
+    record Message(Long projectId, List<ClickDelta> utm, List<ClickDelta> affiliate,
+                   List<ChannelSynced> channels, Long seoAuditId, boolean closed) {}
+
+    static final String EVENTS_CHANNEL = "project_events";
+    static final String WATCH_CHANNEL = "project_watch";
+    /** Keeps a message well under the 8000-byte NOTIFY payload limit. */
+    static final int MAX_ENTRIES_PER_MESSAGE = 50;
+    static final int MAX_WATCH_IDS_PER_MESSAGE = 400;
+
+    /** What happened to one project since the last flush; only mutated inside windows.compute(). */
+    static final class Window {
+        final Map<Long, int[]> utmClicks = new HashMap<>();
+        final Map<Long, int[]> affiliateClicks = new HashMap<>();
+        final Map<Long, ChannelSynced> channels = new LinkedHashMap<>();
+        SeoAuditResponse seoAudit;
+    }
+
+    private final LinkedChannelRepository linkedChannelRepository;
+    private final SeoAuditRepository seoAuditRepository;
+    private final PgNotifications notifications;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final long watchTtlMs;
+
+    private final ConcurrentHashMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    /** Projects other replicas have streams for, with when their last announcement expires. */
+    private final ConcurrentHashMap<Long, Long> remoteWatches = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProjectEventHub(LinkedChannelRepository linkedChannelRepository,
+                           SeoAuditRepository seoAuditRepository,
+                           PgNotifications notifications,
+                           ObjectMapper objectMapper,
+                           MeterRegistry registry,
+                           @Value("${app.live.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                           @Value("${app.live.heartbeat-ms:20000}") long heartbeatMs) {
+        this.linkedChannelRepository = linkedChannelRepository;
+        this.seoAuditRepository = seoAuditRepository;
+        this.notifications = notifications;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        // Survives two missed heartbeats
+        this.watchTtlMs = heartbeatMs * 3;
+        Gauge.builder("live.subscribers", subscribers, s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open live dashboard streams")
+                .register(registry);
+    }
+
+    /** Registered before startup; messages are handled off the listener thread except the tiny watch updates. */
+    @PostConstruct
+    void listen() {
+        notifications.listen(EVENTS_CHANNEL, payload -> senders.execute(() -> receive(payload)));
+        notifications.listen(WATCH_CHANNEL, this::receiveWatch);
+    }
+
+    @PreDestroy
+    void close() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        senders.close();
+    }
+
+    // ── Subscribers ───────────────────────────────────────────────────────────
+
+    /** Opens a stream for the project; the caller has already checked ownership. */
+    public SseEmitter subscribe(Long projectId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> unsubscribe(projectId, emitter));
+        emitter.onTimeout(() -> unsubscribe(projectId, emitter));
+        emitter.onError(e -> unsubscribe(projectId, emitter));
+        // Added under the bin lock so a concurrent unsubscribe can't drop the set we add to
+        boolean[] first = new boolean[1];
+        subscribers.compute(projectId, (k, emitters) -> {
+            first[0] = emitters == null;
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        if (first[0]) announce(List.of(projectId));
+        return emitter;
+    }
+
+    /**
+     * Ends every stream of a deleted project once the deletion has committed,
+     * on this replica directly and on the others through a notification sent
+     * with the same commit. A failed NOTIFY aborts the transaction, so it is
+     * not swallowed here.
+     */
+    public void closeProject(Long projectId) {
+        try {
+            notifications.publish(EVENTS_CHANNEL, objectMapper.writeValueAsString(
+                    new Message(projectId, List.of(), List.of(), List.of(), null, true)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        afterCommit(() -> closeLocal(projectId));
+    }
+
+    // ── Producers ─────────────────────────────────────────────────────────────
+
+    /** Redirect hot path: a map lookup when nobody watches the project. */
+    public void click(Long projectId, SlugRoutingTable.Kind kind, Long recordId, boolean unique) {
+        if (!watched(projectId)) return;
+        windows.compute(projectId, (k, window) -> {
+            Window w = window != null ? window : new Window();
+            int[] counts = (kind == SlugRoutingTable.Kind.UTM ? w.utmClicks : w.affiliateClicks)
+                    .computeIfAbsent(recordId, id -> new int[2]);
+            counts[0]++;
+            if (unique) counts[1]++;
+            return w;
+        });
+    }
+
+    /** Published to the owning project and every project the channel is linked to. */
+    public void channelSynced(Long channelId, Long ownerProjectId, long followers, LocalDateTime syncedAt) {
+        if (subscribers.isEmpty() && remoteWatches.isEmpty()) return;
+        List<Long> projectIds = new ArrayList<>();
+        projectIds.add(ownerProjectId);
+        try {
+            projectIds.addAll(linkedChannelRepository.findProjectIdsByChannelId(channelId));
+        } catch (Exception e) {
+            log.debug("Could not resolve linked projects for channel {}: {}", channelId, e.getMessage());
+        }
+        ChannelSynced event = new ChannelSynced(channelId, followers, syncedAt);
+        for (Long projectId : projectIds) {
+            if (!watched(projectId)) continue;
+            windows.compute(projectId, (k, window) -> {
+                Window w = window != null ? window : new Window();
+                w.channels.put(channelId, event);
+                return w;
+            });
+        }
+    }
+
+    /** Published once the audit has committed, so a client refetching on the event sees it. */
+    public void seoAuditCompleted(Long projectId, SeoAuditResponse audit) {
+        if (!watched(projectId)) return;
+        afterCommit(() -> windows.compute(projectId, (k, window) -> {
+            Window w = window != null ? window : new Window();
+            w.seoAudit = audit;
+            return w;
+        }));
+    }
+
+    // ── Fan-out ───────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${app.live.flush-ms:1000}")
+    public void flush() {
+        for (Long projectId : windows.keySet()) {
+            Window window = windows.remove(projectId);
+            if (window == null) continue;
+            if (!publish(projectId, window)) {
+                deliver(projectId, window);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-ms:20000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        remoteWatches.values().removeIf(expiresAt -> expiresAt < now);
+        if (!subscribers.isEmpty()) announce(List.copyOf(subscribers.keySet()));
+
+        subscribers.forEach((projectId, emitters) -> emitters.forEach(emitter -> senders.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (Exception e) {
+                drop(projectId, emitter);
+            }
+        })));
+    }
+
+    // ── Cross-replica ─────────────────────────────────────────────────────────
+
+    /**
+     * Sends the window to every replica, this one included. False when it
+     * can't, or when this replica isn't listening and would miss its own copy.
+     */
+    private boolean publish(Long projectId, Window window) {
+        if (notifications.listeningSince() == null) return false;
+        try {
+            for (Message message : split(projectId, window)) {
+                notifications.publish(EVENTS_CHANNEL, objectMapper.writeValueAsString(message));
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("Could not publish live events for project {}, delivering locally: {}", projectId, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Cuts a window into messages of at most MAX_ENTRIES_PER_MESSAGE entries; the audit rides on the first. */
+    static List<Message> split(Long projectId, Window window) {
+        List<Message> messages = new ArrayList<>();
+        List<ClickDelta> utm = deltas(window.utmClicks);
+        List<ClickDelta> affiliate = deltas(window.affiliateClicks);
+        List<ChannelSynced> channels = new ArrayList<>(window.channels.values());
+        Long auditId = window.seoAudit != null ? window.seoAudit.getId() : null;
+        int u = 0, a = 0, c = 0;
+        do {
+            int room = MAX_ENTRIES_PER_MESSAGE;
+            List<ClickDelta> utmPart = utm.subList(u, u += Math.min(room, utm.size() - u));
+            room -= utmPart.size();
+            List<ClickDelta> affiliatePart = affiliate.subList(a, a += Math.min(room, affiliate.size() - a));
+            room -= affiliatePart.size();
+            List<ChannelSynced> channelPart = channels.subList(c, c += Math.min(room, channels.size() - c));
+            messages.add(new Message(projectId, utmPart, affiliatePart, channelPart,
+                    messages.isEmpty() ? auditId : null, false));
+        } while (u < utm.size() || a < affiliate.size() || c < channels.size());
+        return messages;
+    }
+
+    private void receive(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed live event message: {}", e.getMessage());
+            return;
+        }
+        if (message.closed()) {
+            closeLocal(message.projectId());
+            return;
+        }
+        Set<SseEmitter> emitters = subscribers.get(message.projectId());
+        if (emitters == null || emitters.isEmpty()) return;
+
+        Window window = new Window();
+        message.utm().forEach(d -> window.utmClicks.put(d.id(), new int[] {d.clicks(), d.unique()}));
+        message.affiliate().forEach(d -> window.affiliateClicks.put(d.id(), new int[] {d.clicks(), d.unique()}));
+        message.channels().forEach(ch -> window.channels.put(ch.channelId(), ch));
+        if (message.seoAuditId() != null) {
+            try {
+                window.seoAudit = seoAuditRepository.findById(message.seoAuditId()).map(SeoAuditResponse::from).orElse(null);
+            } catch (Exception e) {
+                log.debug("Could not load SEO audit {} for live event: {}", message.seoAuditId(), e.getMessage());
+            }
+        }
+        deliver(message.projectId(), window);
+    }
+
+    private void announce(List<Long> projectIds) {
+        try {
+            for (int from = 0; from < projectIds.size(); from += MAX_WATCH_IDS_PER_MESSAGE) {
+                notifications.publish(WATCH_CHANNEL, objectMapper.writeValueAsString(
+                        projectIds.subList(from, Math.min(from + MAX_WATCH_IDS_PER_MESSAGE, projectIds.size()))));
+            }
+        } catch (Exception e) {
+            log.debug("Could not announce watched projects: {}", e.getMessage());
+        }
+    }
+
+    private void receiveWatch(String payload) {
+        try {
+            long expiresAt = System.currentTimeMillis() + watchTtlMs;
+            for (long projectId : objectMapper.readValue(payload, long[].class)) {
+                remoteWatches.put(projectId, expiresAt);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed project watch message: {}", e.getMessage());
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private boolean watched(Long projectId) {
+        if (subscribers.containsKey(projectId)) return true;
+        Long expiresAt = remoteWatches.get(projectId);
+        return expiresAt != null && expiresAt >= System.currentTimeMillis();
+    }
+
+    /** Serialises the window once and writes it to every local subscriber of the project. */
+    private void deliver(Long projectId, Window window) {
+        Set<SseEmitter> emitters = subscribers.get(projectId);
+        if (emitters == null || emitters.isEmpty()) return;
+        List<Event> events;
+        try {
+            events = events(window);
+        } catch (Exception e) {
+            log.warn("Could not serialise live events for project {}: {}", projectId, e.getMessage());
+            return;
+        }
+        if (events.isEmpty()) return;
+        for (SseEmitter emitter : emitters) {
+            senders.execute(() -> send(projectId, emitter, events));
+        }
+    }
+
+    private void closeLocal(Long projectId) {
+        windows.remove(projectId);
+        remoteWatches.remove(projectId);
+        Set<SseEmitter> emitters = subscribers.remove(projectId);
+        if (emitters != null) emitters.forEach(SseEmitter::complete);
+    }
+
+    private List<Event> events(Window window) throws Exception {
+        List<Event> events = new ArrayList<>(3);
+        if (!window.utmClicks.isEmpty() || !window.affiliateClicks.isEmpty()) {
+            events.add(new Event("clicks", objectMapper.writeValueAsString(
+                    new Clicks(deltas(window.utmClicks), deltas(window.affiliateClicks)))));
+        }
+        if (!window.channels.isEmpty()) {
+            events.add(new Event("channel_synced",
+                    objectMapper.writeValueAsString(new ArrayList<>(window.channels.values()))));
+        }
+        if (window.seoAudit != null) {
+            events.add(new Event("seo_audit", objectMapper.writeValueAsString(window.seoAudit)));
+        }
+        return events;
+    }
+
+    private static List<ClickDelta> deltas(Map<Long, int[]> counts) {
+        List<ClickDelta> deltas = new ArrayList<>(counts.size());
+        counts.forEach((id, c) -> deltas.add(new ClickDelta(id, c[0], c[1])));
+        return deltas;
+    }
+
+    private void send(Long projectId, SseEmitter emitter, List<Event> events) {
+        try {
+            for (Event event : events) {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.json(), MediaType.APPLICATION_JSON));
+            }
+        } catch (Exception e) {
+            drop(projectId, emitter);
+        }
+    }
+
+    /** The client went away mid-write; forget it without routing the failure through MVC error handling. */
+    private void drop(Long projectId, SseEmitter emitter) {
+        unsubscribe(projectId, emitter);
+        emitter.complete();
+    }
+
+    private void unsubscribe(Long projectId, SseEmitter emitter) {
+        subscribers.computeIfPresent(projectId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.dto.response.CampaignResponse;
+import com.javanextboilerplate.dto.response.ProjectOverviewResponse;
+import com.javanextboilerplate.dto.response.ProjectStatsResponse;
+import com.javanextboilerplate.dto.response.SeoAuditResponse;
+import com.javanextboilerplate.dto.response.UtmLinkResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Backs GET /api/projects/{id}/overview: every dashboard widget in one round
+ * trip instead of one request (and one auth + ownership check) per widget.
+ *
+ * Ownership is checked and the owned + linked channel list resolved once; the
+ * widget reads then run concurrently on virtual threads, each in its own
+ * read-only transaction. At most {@code app.overview.max-parallel} of them
+ * hold a pooled connection at a time, so one dashboard load can't drain the
+ * pool. A failing widget doesn't fail the page: it is left out and reported in
+ * {@code unavailable}.
+ */
+@Service
+@Slf4j
+public class ProjectOverviewService {
+
+    // Same window and page size the dashboard requests from GET /posts
+    private static final int POSTS_DAYS = 30;
+    private static final int POSTS_LIMIT = 200;
+
+    private final ProjectAccess projectAccess;
+    private final ProjectService projectService;
+    private final PostFeedService postFeedService;
+    private final PaidAdService paidAdService;
+    private final AffiliateCampaignService affiliateCampaignService;
+    private final UtmLinkService utmLinkService;
+    private final SeoAuditService seoAuditService;
+    private final int maxParallel;
+
+    public ProjectOverviewService(ProjectAccess projectAccess,
+                                  ProjectService projectService,
+                                  PostFeedService postFeedService,
+                                  PaidAdService paidAdService,
+                                  AffiliateCampaignService affiliateCampaignService,
+                                  UtmLinkService utmLinkService,
+                                  SeoAuditService seoAuditService,
+                                  @Value("${app.overview.max-parallel:4}") int maxParallel) {
+        this.projectAccess = projectAccess;
+        this.projectService = projectService;
+        this.postFeedService = postFeedService;
+        this.paidAdService = paidAdService;
+        this.affiliateCampaignService = affiliateCampaignService;
+        this.utmLinkService = utmLinkService;
+        this.seoAuditService = seoAuditService;
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    public ProjectOverviewResponse getOverview(Long projectId, String supabaseUserId) {
+        // The per-service checks below hit the ownership cache this populates
+        projectAccess.assertOwner(projectId, supabaseUserId);
+        List<Long> channelIds = projectService.getChannelIds(projectId);
+
+        Semaphore permits = new Semaphore(maxParallel);
+        List<String> unavailable = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ProjectStatsResponse> stats = submit(executor, permits,
+                    () -> projectService.getStats(channelIds));
+            Future<PostFeedService.Page> posts = submit(executor, permits,
+                    () -> postFeedService.recentPosts(channelIds, POSTS_DAYS, POSTS_LIMIT, null, 0));
+            Future<Long> spend = submit(executor, permits,
+                    () -> paidAdService.getTotalSpend(projectId, supabaseUserId));
+            Future<List<CampaignResponse>> campaigns = submit(executor, permits,
+                    () -> affiliateCampaignService.getCampaigns(projectId, supabaseUserId));
+            Future<List<UtmLinkResponse>> links = submit(executor, permits,
+                    () -> utmLinkService.getLinks(projectId, supabaseUserId));
+            Future<SeoAuditResponse> audit = submit(executor, permits,
+                    () -> seoAuditService.getLatest(projectId).orElse(null));
+
+            PostFeedService.Page postsPage = await(projectId, "posts", posts, unavailable);
+            return ProjectOverviewResponse.builder()
+                    .stats(await(projectId, "stats", stats, unavailable))
+                    .posts(postsPage != null ? postsPage.posts() : null)
+                    .postsNextCursor(postsPage != null ? postsPage.nextCursor() : null)
+                    .paidAdTotalSpendCents(await(projectId, "paidAdTotalSpend", spend, unavailable))
+                    .affiliateCampaigns(await(projectId, "affiliateCampaigns", campaigns, unavailable))
+                    .utmLinks(await(projectId, "utmLinks", links, unavailable))
+                    .seoAudit(await(projectId, "seoAudit", audit, unavailable))
+                    .unavailable(unavailable)
+                    .build();
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static <T> Future<T> submit(ExecutorService executor, Semaphore permits, Callable<T> read) {
+        return executor.submit(() -> {
+            permits.acquire();
+            try {
+                return read.call();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private static <T> T await(Long projectId, String section, Future<T> future, List<String> unavailable) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Overview section {} failed for project {}: {}", section, projectId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(section);
+        return null;
+    }
+}
@@ -3,7 +3,9 @@ package com.javanextboilerplate.service;
 import com.javanextboilerplate.dto.request.CreateProjectRequest;
 import com.javanextboilerplate.dto.request.UpdateProjectRequest;
 import com.javanextboilerplate.dto.response.ProjectResponse;
+import com.javanextboilerplate.dto.response.ProjectStatsResponse;
 import com.javanextboilerplate.entity.Channel;
+import com.javanextboilerplate.entity.Platform;
 import com.javanextboilerplate.entity.ProjectType;
 import com.javanextboilerplate.entity.SaasProject;
 import com.javanextboilerplate.entity.User;
@@ -17,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -29,6 +32,10 @@ public class ProjectService {
     private final LinkedChannelRepository linkedChannelRepository;
     private final UserService userService;
     private final ChannelOAuthService channelOAuthService;
+    private final SlugRoutingTable routingTable;
+    private final ProjectAccess projectAccess;
+    private final ProjectEventHub projectEvents;
+    private final StatsTimeSeries statsTimeSeries;
 
     @Transactional
     public ProjectResponse createProject(String supabaseUserId, String email, CreateProjectRequest request) {
@@ -66,8 +73,8 @@ public class ProjectService {
 
     @Transactional(readOnly = true)
     public ProjectResponse getProject(Long projectId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        SaasProject project = projectRepository.findByIdAndUserIdWithChannels(projectId, user.getId())
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
+        SaasProject project = projectRepository.findByIdAndUserIdWithChannels(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         List<Channel> linked = linkedChannelRepository.findLinkedChannelsByProjectId(projectId);
         return ProjectResponse.from(project, linked);
@@ -75,8 +82,8 @@ public class ProjectService {
 
     @Transactional
     public ProjectResponse updateProject(Long projectId, String supabaseUserId, UpdateProjectRequest request) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.getId())
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
+        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
         if (request.getName() != null) {
@@ -108,8 +115,8 @@ public class ProjectService {
 
     @Transactional
     public void disconnectChannel(Long projectId, Long channelId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.getId())
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
+        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
         Channel channel = channelRepository.findById(channelId)
@@ -124,24 +131,28 @@ public class ProjectService {
 
         project.removeChannel(channel);
         channelRepository.delete(channel);
+        projectAccess.evictResource(ProjectAccess.Resource.CHANNEL, channelId);
         log.info("Disconnected channel {} from project '{}' (id={})", channelId, project.getName(), project.getId());
     }
 
     @Transactional
     public void deleteProject(Long projectId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
-        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.getId())
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
+        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         projectRepository.delete(project);
+        routingTable.removeProject(projectId);
+        projectAccess.evictProject(projectId);
+        projectEvents.closeProject(projectId);
         log.info("Deleted project '{}' (id={})", project.getName(), project.getId());
     }
 
     @Transactional
     public void linkChannel(Long projectId, Long channelId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
 
         // Verify project ownership
-        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.getId())
+        SaasProject project = projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
         // Verify channel exists and belongs to the same user
@@ -149,7 +160,7 @@ public class ProjectService {
                 .orElseThrow(() -> new RuntimeException("Channel not found"));
         SaasProject sourceProject = projectRepository.findById(channel.getProject().getId())
                 .orElseThrow(() -> new RuntimeException("Source project not found"));
-        if (!sourceProject.getUserId().equals(user.getId())) {
+        if (!sourceProject.getUserId().equals(user.id())) {
             throw new RuntimeException("Channel does not belong to this user");
         }
 
@@ -173,25 +184,79 @@ public class ProjectService {
 
     @Transactional
     public void unlinkChannel(Long projectId, Long channelId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
 
         // Verify project ownership
-        projectRepository.findByIdAndUserId(projectId, user.getId())
+        projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
         linkedChannelRepository.deleteByProjectIdAndChannelId(projectId, channelId);
+        projectAccess.evictResource(projectId, ProjectAccess.Resource.CHANNEL, channelId);
         log.info("Unlinked channel {} from project {}", channelId, projectId);
     }
 
+    // ── Stats (callers check ownership, e.g. through ProjectAccess) ────────────
+
+    /** Channels shown in a project: owned plus linked. */
+    @Transactional(readOnly = true)
+    public List<Long> getChannelIds(Long projectId) {
+        return channelRepository.findChannelIdsForProject(projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectStatsResponse getStats(Long projectId) {
+        return getStats(getChannelIds(projectId));
+    }
+
+    /** Stats over an already resolved channel list (see {@link #getChannelIds}). */
+    @Transactional(readOnly = true)
+    public ProjectStatsResponse getStats(List<Long> channelIds) {
+        if (channelIds.isEmpty()) {
+            return new ProjectStatsResponse(0L, null, List.of(), List.of());
+        }
+
+        // Get timeline data (aggregated by day across all channels, compacted history included)
+        List<ProjectStatsResponse.TimelinePoint> timeline = statsTimeSeries
+                .dailyFollowers(channelIds, StatsTimeSeries.BEGINNING, LocalDateTime.now()).stream()
+                .map(point -> new ProjectStatsResponse.TimelinePoint(point.day(), point.value()))
+                .toList();
+
+        // Get per-platform breakdown (JPQL query, returns Platform enum + Long directly)
+        List<Object[]> platformRaw = channelRepository.getFollowersByChannelIds(channelIds);
+        List<ProjectStatsResponse.PlatformBreakdown> platforms = platformRaw.stream()
+                .map(row -> new ProjectStatsResponse.PlatformBreakdown(
+                        ((Platform) row[0]).name().toLowerCase(),
+                        ((Number) row[1]).longValue()
+                ))
+                .toList();
+
+        // Compute total followers from platform breakdown
+        long totalFollowers = platforms.stream()
+                .mapToLong(ProjectStatsResponse.PlatformBreakdown::getFollowers)
+                .sum();
+
+        // Compute growth % from timeline
+        Double growthPercent = null;
+        if (timeline.size() >= 2) {
+            long earliest = timeline.getFirst().getTotalFollowers();
+            long latest = timeline.getLast().getTotalFollowers();
+            if (earliest > 0) {
+                growthPercent = ((double) (latest - earliest) / earliest) * 100.0;
+            }
+        }
+
+        return new ProjectStatsResponse(totalFollowers, growthPercent, timeline, platforms);
+    }
+
     @Transactional(readOnly = true)
     public List<ChannelResponse> getLinkableChannels(Long projectId, String supabaseUserId) {
-        User user = userService.getUserBySupabaseId(supabaseUserId);
+        UserSnapshot user = userService.getUserBySupabaseId(supabaseUserId);
 
         // Verify project ownership
-        projectRepository.findByIdAndUserId(projectId, user.getId())
+        projectRepository.findByIdAndUserId(projectId, user.id())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
-        return linkedChannelRepository.findLinkableChannels(projectId, user.getId()).stream()
+        return linkedChannelRepository.findLinkableChannels(projectId, user.id()).stream()
                 .map(ChannelResponse::fromLinked)
                 .toList();
     }
@@ -32,6 +32,7 @@ public class SeoAuditService {
 
     private final SeoAuditRepository   auditRepository;
     private final SaasProjectRepository projectRepository;
+    private final ProjectEventHub projectEvents;
 
     // ── Public API ────────────────────────────────────────────────────────────
 
@@ -119,7 +120,9 @@ public class SeoAuditService {
                 .build());
 
         log.info("SEO audit for project {} completed: score={}", projectId, score);
-        return SeoAuditResponse.from(saved);
+        SeoAuditResponse response = SeoAuditResponse.from(saved);
+        projectEvents.seoAuditCompleted(projectId, response);
+        return response;
     }
 
     // ── Rate-limit exception ──────────────────────────────────────────────────
@@ -0,0 +1,61 @@
+package com.javanextboilerplate.service;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over tracking slugs, safe for concurrent add/lookup.
+ *
+ * Sized for 1% false positives at {@code expectedInsertions}; past that the
+ * rate degrades gracefully until SlugRoutingTable rebuilds it on the next
+ * full reload. Bits are never cleared, so deleted slugs linger until then.
+ */
+final class SlugBloomFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    SlugBloomFilter(int expectedInsertions) {
+        int n = Math.max(expectedInsertions, 1);
+        long bits = (long) Math.ceil(-n * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    static SlugBloomFilter of(Collection<String> slugs, int headroom) {
+        SlugBloomFilter filter = new SlugBloomFilter(slugs.size() + headroom);
+        slugs.forEach(filter::add);
+        return filter;
+    }
+
+    void add(String slug) {
+        long hash = HyperLogLog.hash(slug, null);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) break;
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String slug) {
+        long hash = HyperLogLog.hash(slug, null);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.AffiliateCampaign;
+import com.javanextboilerplate.entity.UtmLink;
+import com.javanextboilerplate.repository.AffiliateCampaignRepository;
+import com.javanextboilerplate.repository.UtmLinkRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory slug → destination table for the public /t/{slug} redirect.
+ *
+ * Holds every active affiliate campaign and UTM link, with UTM destinations
+ * already expanded, so a redirect is a single map lookup. The services keep it
+ * in step on create/delete once the change commits, and deletes reach every
+ * other replica through {@code slug_deleted} / {@code slug_project_deleted}
+ * notifications sent with the same commit; a periodic reload picks up
+ * whatever those miss, such as rows deactivated directly in the database. A
+ * miss still falls back to the database once so a slug created on another
+ * replica resolves immediately. Removals are numbered, and a route read from
+ * the database (by a miss or a reload) is only cached if no removal of its
+ * slug happened since the read began, so a read racing a delete can't bring
+ * the route back.
+ *
+ * That fallback is guarded by a Bloom filter over every known slug (active or
+ * not), so scanners and mistyped links are rejected without touching the
+ * database. The filter is rebuilt on each full reload; every replica adds a
+ * new slug as soon as the creating transaction commits, via a
+ * {@code slug_created} notification. Notifications sent while a replica is
+ * not listening are lost, so the filter is only trusted once a sync of
+ * recently created slugs ({@code app.tracking.slug-filter-sync-ms}) has run
+ * within the current LISTEN session; until then every miss goes to the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlugRoutingTable {
+
+    public enum Kind { AFFILIATE, UTM }
+
+    public record Route(Kind kind, Long recordId, Long projectId, String destination) {}
+
+    /** Minimum spare capacity when sizing the Bloom filter, so slugs created between reloads keep ~1% false positives. */
+    private static final int BLOOM_HEADROOM = 10_000;
+    private static final Duration SLUG_SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final String SLUG_CREATED = "slug_created";
+    private static final String SLUG_DELETED = "slug_deleted";
+    private static final String PROJECT_DELETED = "slug_project_deleted";
+
+    private final AffiliateCampaignRepository campaignRepository;
+    private final UtmLinkRepository linkRepository;
+    private final PgNotifications notifications;
+
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    /** Counts removals; a slug's entry in removedAt is the count at its latest removal. */
+    private final AtomicLong removals = new AtomicLong();
+    /**
+     * Pruned by reload() for removals its snapshot already reflects; a miss
+     * whose lookup outlasts a whole reload is the one case left to the next reload.
+     */
+    private final ConcurrentHashMap<String, Long> removedAt = new ConcurrentHashMap<>();
+
+    /** Null until the first load completes; until then every miss goes to the database. */
+    private volatile SlugBloomFilter knownSlugs;
+    private volatile LocalDateTime slugsSyncedAt;
+    /** Start of the last reload or sync: every slug created before then is in the filter. */
+    private volatile Instant filterCoversUntil;
+
+    /** Guards the filter swap in reload() against slugs added while it was being built. */
+    private final Object filterLock = new Object();
+    /** Slugs added since the running reload() started; null when no reload is running. */
+    private List<String> addedDuringReload;
+
+    @PostConstruct
+    void listen() {
+        notifications.listen(SLUG_CREATED, this::addKnownSlug);
+        notifications.listen(SLUG_DELETED, this::forget);
+        notifications.listen(PROJECT_DELETED, projectId -> forgetProject(Long.valueOf(projectId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.tracking.route-refresh-ms:300000}",
+               initialDelayString = "${app.tracking.route-refresh-ms:300000}")
+    public void reload() {
+        Instant startedAt = Instant.now();
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        long removalsBefore = removals.get();
+        synchronized (filterLock) {
+            addedDuringReload = new ArrayList<>();
+        }
+        List<String> slugs;
+        try {
+            slugs = new ArrayList<>(campaignRepository.findAllSlugs());
+            slugs.addAll(linkRepository.findAllSlugs());
+            SlugBloomFilter filter = SlugBloomFilter.of(slugs, Math.max(slugs.size(), BLOOM_HEADROOM));
+            synchronized (filterLock) {
+                // Slugs added while the queries ran may be missing from their results
+                addedDuringReload.forEach(filter::add);
+                knownSlugs = filter;
+            }
+        } finally {
+            synchronized (filterLock) {
+                addedDuringReload = null;
+            }
+        }
+        slugsSyncedAt = syncStartedAt;
+        filterCoversUntil = startedAt;
+
+        Map<String, Route> fresh = new HashMap<>();
+        // Campaigns are loaded last so they win a (theoretical) slug collision,
+        // matching the lookup order the controller has always used.
+        for (UtmLink link : linkRepository.findByIsActiveTrue()) {
+            fresh.put(link.getSlug(), routeFor(link));
+        }
+        for (AffiliateCampaign campaign : campaignRepository.findByIsActiveTrue()) {
+            fresh.put(campaign.getSlug(), routeFor(campaign));
+        }
+        // The snapshot may predate a delete that committed while it was read
+        fresh.forEach((slug, route) -> cacheUnlessRemovedSince(slug, route, removalsBefore));
+        routes.keySet().retainAll(fresh.keySet());
+        removedAt.values().removeIf(removal -> removal <= removalsBefore);
+        log.info("Slug routing table loaded: {} routes, {} known slugs", fresh.size(), slugs.size());
+    }
+
+    /**
+     * Adds slugs created since the last sync to the Bloom filter: the catch-up
+     * for notifications missed while this replica was not listening.
+     */
+    @Scheduled(fixedDelayString = "${app.tracking.slug-filter-sync-ms:10000}")
+    public void syncNewSlugs() {
+        if (knownSlugs == null) return;
+        Instant startedAt = Instant.now();
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        // Overlap the window to absorb clock skew between replicas writing created_at
+        LocalDateTime since = slugsSyncedAt.minus(SLUG_SYNC_OVERLAP);
+        campaignRepository.findSlugsCreatedSince(since).forEach(this::addKnownSlug);
+        linkRepository.findSlugsCreatedSince(since).forEach(this::addKnownSlug);
+        slugsSyncedAt = syncStartedAt;
+        filterCoversUntil = startedAt;
+    }
+
+    /**
+     * Resolves a slug to its redirect target, hitting the database only when the
+     * slug is not in the table yet but the Bloom filter says it may exist.
+     */
+    public Optional<Route> resolve(String slug) {
+        Route route = routes.get(slug);
+        if (route != null) return Optional.of(route);
+
+        SlugBloomFilter filter = knownSlugs;
+        if (filter != null && filterIsComplete() && !filter.mightContain(slug)) return Optional.empty();
+
+        long removalsBefore = removals.get();
+        Optional<Route> loaded = campaignRepository.findBySlug(slug)
+                .filter(c -> Boolean.TRUE.equals(c.getIsActive()))
+                .map(SlugRoutingTable::routeFor)
+                .or(() -> linkRepository.findBySlug(slug)
+                        .filter(l -> Boolean.TRUE.equals(l.getIsActive()))
+                        .map(SlugRoutingTable::routeFor));
+        loaded.ifPresent(r -> cacheUnlessRemovedSince(slug, r, removalsBefore));
+        return loaded;
+    }
+
+    /**
+     * Called inside the creating transaction; the route is added when it
+     * commits, and other replicas learn the slug at the same time.
+     */
+    public void put(AffiliateCampaign campaign) {
+        addKnownSlug(campaign.getSlug());
+        notifications.publish(SLUG_CREATED, campaign.getSlug());
+        Route route = Boolean.TRUE.equals(campaign.getIsActive()) ? routeFor(campaign) : null;
+        afterCommit(() -> putOrRemove(campaign.getSlug(), route));
+    }
+
+    public void put(UtmLink link) {
+        addKnownSlug(link.getSlug());
+        notifications.publish(SLUG_CREATED, link.getSlug());
+        Route route = Boolean.TRUE.equals(link.getIsActive()) ? routeFor(link) : null;
+        afterCommit(() -> putOrRemove(link.getSlug(), route));
+    }
+
+    /** Called inside the deleting transaction; every replica drops the route when it commits. */
+    public void remove(String slug) {
+        notifications.publish(SLUG_DELETED, slug);
+        // Also applied locally in case this replica isn't listening; forgetting twice is harmless
+        afterCommit(() -> forget(slug));
+    }
+
+    /** Drops every route of a project — its campaigns and links go with it via ON DELETE CASCADE. */
+    public void removeProject(Long projectId) {
+        notifications.publish(PROJECT_DELETED, projectId.toString());
+        afterCommit(() -> forgetProject(projectId));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void putOrRemove(String slug, Route route) {
+        if (route != null) {
+            routes.put(slug, route);
+        } else {
+            forget(slug);
+        }
+    }
+
+    private void forget(String slug) {
+        long removal = removals.incrementAndGet();
+        // Recorded under the bin lock, so cacheUnlessRemovedSince() sees it or runs first and is undone here
+        routes.compute(slug, (k, route) -> {
+            removedAt.put(k, removal);
+            return null;
+        });
+    }
+
+    private void forgetProject(Long projectId) {
+        routes.forEach((slug, route) -> {
+            if (route.projectId().equals(projectId)) forget(slug);
+        });
+    }
+
+    private void cacheUnlessRemovedSince(String slug, Route route, long removalsBefore) {
+        routes.compute(slug, (k, current) ->
+                removedAt.getOrDefault(k, 0L) > removalsBefore ? current : route);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void addKnownSlug(String slug) {
+        synchronized (filterLock) {
+            if (knownSlugs != null) knownSlugs.add(slug);
+            if (addedDuringReload != null) addedDuringReload.add(slug);
+        }
+    }
+
+    /** True when no slug can have been created without reaching the filter by sync or notification. */
+    private boolean filterIsComplete() {
+        Instant listeningSince = notifications.listeningSince();
+        Instant coversUntil = filterCoversUntil;
+        return listeningSince != null && coversUntil != null && !coversUntil.isBefore(listeningSince);
+    }
+
+    private static Route routeFor(AffiliateCampaign campaign) {
+        return new Route(Kind.AFFILIATE, campaign.getId(), campaign.getProjectId(), campaign.getDestinationUrl());
+    }
+
+    private static Route routeFor(UtmLink link) {
+        return new Route(Kind.UTM, link.getId(), link.getProjectId(), buildUtmUrl(link));
+    }
+
+    static String buildUtmUrl(UtmLink link) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(link.getDestinationUrl())
+                .queryParam("utm_source",   link.getUtmSource())
+                .queryParam("utm_medium",   link.getUtmMedium())
+                .queryParam("utm_campaign", link.getUtmCampaign());
+        if (link.getUtmContent() != null && !link.getUtmContent().isBlank()) {
+            builder.queryParam("utm_content", link.getUtmContent());
+        }
+        if (link.getUtmTerm() != null && !link.getUtmTerm().isBlank()) {
+            builder.queryParam("utm_term", link.getUtmTerm());
+        }
+        return builder.build().toUriString();
+    }
+}
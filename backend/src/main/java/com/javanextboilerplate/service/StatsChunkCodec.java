@@ -0,0 +1,166 @@
+package com.javanextboilerplate.service;
+
+import java.util.Arrays;
+
+/**
+ * Columnar encoding for compacted stats snapshots (channel_stats_chunks /
+ * post_stats_chunks payloads, V24).
+ *
+ * Layout: version byte, point count, column count, then the timestamp column
+ * followed by each value column. Every column is stored as zigzag varint deltas
+ * from the previous point (the first point from zero), so a daily snapshot of
+ * slowly moving counters costs a few bytes per column. Timestamps are epoch
+ * seconds (UTC); sub-second precision is dropped. {@link #NULL} marks a missing
+ * value and survives the round trip (deltas wrap, but decode exactly).
+ */
+final class StatsChunkCodec {
+
+    static final long NULL = Long.MIN_VALUE;
+
+    private static final int VERSION = 1;
+
+    /** Points sorted by time; {@code columns[c][i]} is column c of point i. */
+    record Series(long[] times, long[][] columns) {
+
+        static Series empty(int columnCount) {
+            return new Series(new long[0], new long[columnCount][0]);
+        }
+
+        int size() {
+            return times.length;
+        }
+    }
+
+    private StatsChunkCodec() {
+    }
+
+    static byte[] encode(Series series) {
+        int n = series.size();
+        int columnCount = series.columns().length;
+        Writer out = new Writer(16 + n * (columnCount + 1) * 2);
+        out.write(VERSION);
+        out.varint(n);
+        out.varint(columnCount);
+        writeColumn(out, series.times());
+        for (long[] column : series.columns()) {
+            writeColumn(out, column);
+        }
+        return out.toByteArray();
+    }
+
+    static Series decode(byte[] payload) {
+        Reader in = new Reader(payload);
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported stats chunk version " + version);
+        }
+        int n = (int) in.varint();
+        int columnCount = (int) in.varint();
+        long[] times = readColumn(in, n);
+        long[][] columns = new long[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            columns[c] = readColumn(in, n);
+        }
+        return new Series(times, columns);
+    }
+
+    /** Merges two time-sorted series; on equal timestamps the point from {@code b} wins. */
+    static Series merge(Series a, Series b) {
+        int columnCount = a.columns().length;
+        long[] times = new long[a.size() + b.size()];
+        long[][] columns = new long[columnCount][times.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.size() || j < b.size()) {
+            boolean takeB = i == a.size() || (j < b.size() && b.times()[j] <= a.times()[i]);
+            if (takeB && i < a.size() && a.times()[i] == b.times()[j]) i++;
+            Series from = takeB ? b : a;
+            int index = takeB ? j++ : i++;
+            times[k] = from.times()[index];
+            for (int c = 0; c < columnCount; c++) {
+                columns[c][k] = from.columns()[c][index];
+            }
+            k++;
+        }
+        if (k < times.length) {
+            times = Arrays.copyOf(times, k);
+            for (int c = 0; c < columnCount; c++) {
+                columns[c] = Arrays.copyOf(columns[c], k);
+            }
+        }
+        return new Series(times, columns);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static void writeColumn(Writer out, long[] values) {
+        long previous = 0;
+        for (long value : values) {
+            long delta = value - previous;
+            out.varint((delta << 1) ^ (delta >> 63));
+            previous = value;
+        }
+    }
+
+    private static long[] readColumn(Reader in, int n) {
+        long[] values = new long[n];
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            long zigzag = in.varint();
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static final class Writer {
+
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (size == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[size++] = (byte) b;
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int read() {
+            if (pos >= buf.length) throw new IllegalStateException("Truncated stats chunk");
+            return buf[pos++] & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint in stats chunk");
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.entity.ChannelStats;
+import com.javanextboilerplate.entity.ChannelStatsChunk;
+import com.javanextboilerplate.entity.PostStats;
+import com.javanextboilerplate.entity.PostStatsChunk;
+import com.javanextboilerplate.repository.ChannelStatsChunkRepository;
+import com.javanextboilerplate.repository.ChannelStatsRepository;
+import com.javanextboilerplate.repository.PostStatsChunkRepository;
+import com.javanextboilerplate.repository.PostStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves stats snapshots older than {@code app.stats.hot-days} out of
+ * channel_stats / post_stats into monthly delta-encoded chunks (V24).
+ *
+ * Runs nightly on whichever replica takes the session-level advisory lock
+ * first; the others skip the run. One short transaction per channel/post: the aged rows are
+ * merged into the chunk for their month (created on first use) and deleted.
+ * The newest snapshot of every entity is never compacted, so "latest stats"
+ * queries against the row tables keep working. Range reads go through
+ * StatsTimeSeries, which stitches chunks and hot rows back together.
+ *
+ * Compaction leaves the channel_stats_daily rollup (V29) alone; on startup the
+ * rollup is backfilled from chunks that predate it, tracked per chunk (V31).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsCompactor {
+
+    private final ChannelStatsRepository channelStatsRepository;
+    private final ChannelStatsChunkRepository channelChunkRepository;
+    private final PostStatsRepository postStatsRepository;
+    private final PostStatsChunkRepository postChunkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /** pg_try_advisory_lock key held for the duration of a compaction run. */
+    static final long COMPACTION_LOCK = 0x5354_4154_535f_434dL;
+
+    @Value("${app.stats.hot-days:7}")
+    private int hotDays;
+
+    @Value("${app.stats.daily-backfill-batch:500}")
+    private int dailyBackfillBatch;
+
+    @Scheduled(cron = "${app.stats.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        // Session lock on a connection held for the run; the per-entity transactions use their own
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) return false;
+            try {
+                compactAll();
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(ran)) {
+            log.info("Stats compaction skipped: another replica holds the lock");
+        }
+    }
+
+    private void compactAll() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(hotDays);
+        int channelRows = 0;
+        int postRows = 0;
+        int failed = 0;
+
+        for (Long channelId : channelStatsRepository.findChannelIdsWithStatsBefore(cutoff)) {
+            try {
+                channelRows += transactionTemplate.execute(s -> compactChannel(channelId, cutoff));
+            } catch (Exception e) {
+                failed++;
+                log.warn("Stats compaction failed for channel {}: {}", channelId, e.getMessage());
+            }
+        }
+        for (Long postId : postStatsRepository.findPostIdsWithStatsBefore(cutoff)) {
+            try {
+                postRows += transactionTemplate.execute(s -> compactPost(postId, cutoff));
+            } catch (Exception e) {
+                failed++;
+                log.warn("Stats compaction failed for post {}: {}", postId, e.getMessage());
+            }
+        }
+
+        log.info("Stats compaction complete: {} channel and {} post snapshots moved to chunks, {} failures",
+                channelRows, postRows, failed);
+    }
+
+    /**
+     * Fills channel_stats_daily from compacted channel history. V29 seeds the
+     * rollup from the hot rows only; chunks not yet rolled up (V31) are decoded
+     * here, one batch per transaction, and flagged. Days the rollup already has
+     * keep whichever reading is later. A no-op once every chunk is flagged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDailyRollup() {
+        int chunks = 0;
+        int days = 0;
+        try {
+            while (true) {
+                int[] batch = transactionTemplate.execute(s -> backfillBatch());
+                if (batch[0] == 0) break;
+                chunks += batch[0];
+                days += batch[1];
+            }
+        } catch (Exception e) {
+            log.warn("Daily follower rollup backfill stopped after {} chunks: {}", chunks, e.getMessage());
+            return;
+        }
+        if (chunks > 0) {
+            log.info("Daily follower rollup backfilled: {} days from {} chunks", days, chunks);
+        }
+    }
+
+    /** Returns {@code [chunks, days written]}. */
+    private int[] backfillBatch() {
+        List<ChannelStatsChunk> batch = channelChunkRepository.findNotRolledUp(dailyBackfillBatch);
+        if (batch.isEmpty()) return new int[] {0, 0};
+        List<DailyRow> rows = new ArrayList<>();
+        batch.forEach(chunk -> rows.addAll(dailyRows(chunk)));
+        int written;
+        try {
+            written = channelStatsRepository.upsertDailyIfLater(objectMapper.writeValueAsString(rows));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        channelChunkRepository.markRolledUp(batch.stream().map(ChannelStatsChunk::getId).toList());
+        return new int[] {batch.size(), written};
+    }
+
+    // ── Channels ──────────────────────────────────────────────────────────────
+
+    private int compactChannel(Long channelId, LocalDateTime cutoff) {
+        List<ChannelStats> rows = channelStatsRepository.findCompactable(channelId, cutoff);
+        if (rows.isEmpty()) return 0;
+
+        for (Map.Entry<LocalDateTime, List<ChannelStats>> month : byMonth(rows, ChannelStats::getRecordedAt).entrySet()) {
+            ChannelStatsChunk chunk = channelChunkRepository
+                    .findByChannelIdAndPeriodStart(channelId, month.getKey())
+                    .orElseGet(() -> ChannelStatsChunk.builder()
+                            .channelId(channelId)
+                            .periodStart(month.getKey())
+                            .build());
+            StatsChunkCodec.Series series = StatsChunkCodec.merge(
+                    chunk.getPayload() != null
+                            ? StatsChunkCodec.decode(chunk.getPayload())
+                            : StatsChunkCodec.Series.empty(StatsTimeSeries.CHANNEL_COLUMNS),
+                    StatsTimeSeries.channelSeries(month.getValue()));
+            chunk.setFirstAt(StatsTimeSeries.fromEpoch(series.times()[0]));
+            chunk.setLastAt(StatsTimeSeries.fromEpoch(series.times()[series.size() - 1]));
+            chunk.setPointCount(series.size());
+            chunk.setPayload(StatsChunkCodec.encode(series));
+            channelChunkRepository.save(chunk);
+        }
+        channelStatsRepository.deleteAllInBatch(rows);
+        return rows.size();
+    }
+
+    // ── Posts ─────────────────────────────────────────────────────────────────
+
+    private int compactPost(Long postId, LocalDateTime cutoff) {
+        List<PostStats> rows = postStatsRepository.findCompactable(postId, cutoff);
+        if (rows.isEmpty()) return 0;
+
+        for (Map.Entry<LocalDateTime, List<PostStats>> month : byMonth(rows, PostStats::getRecordedAt).entrySet()) {
+            PostStatsChunk chunk = postChunkRepository
+                    .findByPostIdAndPeriodStart(postId, month.getKey())
+                    .orElseGet(() -> PostStatsChunk.builder()
+                            .postId(postId)
+                            .periodStart(month.getKey())
+                            .build());
+            StatsChunkCodec.Series series = StatsChunkCodec.merge(
+                    chunk.getPayload() != null
+                            ? StatsChunkCodec.decode(chunk.getPayload())
+                            : StatsChunkCodec.Series.empty(StatsTimeSeries.POST_COLUMNS),
+                    StatsTimeSeries.postSeries(month.getValue()));
+            chunk.setFirstAt(StatsTimeSeries.fromEpoch(series.times()[0]));
+            chunk.setLastAt(StatsTimeSeries.fromEpoch(series.times()[series.size() - 1]));
+            chunk.setPointCount(series.size());
+            chunk.setPayload(StatsChunkCodec.encode(series));
+            postChunkRepository.save(chunk);
+        }
+        postStatsRepository.deleteAllInBatch(rows);
+        return rows.size();
+    }
+
+    /** Last follower count per calendar day in a chunk. */
+    private static List<DailyRow> dailyRows(ChannelStatsChunk chunk) {
+        StatsChunkCodec.Series series = StatsChunkCodec.decode(chunk.getPayload());
+        Map<LocalDate, DailyRow> latest = new TreeMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            LocalDateTime at = StatsTimeSeries.fromEpoch(series.times()[i]);
+            long followers = series.columns()[0][i];
+            latest.put(at.toLocalDate(), new DailyRow(chunk.getChannelId(), at.toLocalDate().toString(),
+                    followers == StatsChunkCodec.NULL ? null : followers, at.toString()));
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /** One element of the JSON array handed to upsertDailyIfLater. */
+    private record DailyRow(
+            @JsonProperty("channel_id") Long channelId,
+            String day,
+            @JsonProperty("followers_count") Long followersCount,
+            @JsonProperty("recorded_at") String recordedAt
+    ) {}
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, COMPACTION_LOCK);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /** Groups time-sorted rows by the first instant of their calendar month, preserving order. */
+    private static <T> TreeMap<LocalDateTime, List<T>> byMonth(List<T> rows, Function<T, LocalDateTime> time) {
+        return rows.stream().collect(Collectors.groupingBy(
+                row -> time.apply(row).toLocalDate().withDayOfMonth(1).atStartOfDay(),
+                TreeMap::new,
+                Collectors.toList()));
+    }
+}
@@ -0,0 +1,239 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.ChannelStats;
+import com.javanextboilerplate.entity.ChannelStatsChunk;
+import com.javanextboilerplate.entity.PostStats;
+import com.javanextboilerplate.entity.PostStatsChunk;
+import com.javanextboilerplate.repository.ChannelStatsChunkRepository;
+import com.javanextboilerplate.repository.ChannelStatsRepository;
+import com.javanextboilerplate.repository.PostStatsChunkRepository;
+import com.javanextboilerplate.repository.PostStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Range-scan reader over channel and post stats history.
+ *
+ * History lives in two places: recent snapshots as rows in channel_stats /
+ * post_stats, older ones compacted by StatsCompactor into monthly
+ * delta-encoded chunks. Readers should come here instead of range-querying the
+ * row tables, which only hold the hot window. Returned ChannelStats/PostStats
+ * are detached value objects (no id, no channel/post association), sorted by
+ * recordedAt ascending; compacted points carry second precision.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsTimeSeries {
+
+    /** Lower bound for "all history" scans. */
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    // Column order inside the chunk payloads; append only, never reorder
+    static final int CHANNEL_COLUMNS = 7;
+    static final int POST_COLUMNS = 7;
+
+    public record DailyTotal(LocalDateTime day, long value) {}
+
+    private final ChannelStatsRepository channelStatsRepository;
+    private final ChannelStatsChunkRepository channelChunkRepository;
+    private final PostStatsRepository postStatsRepository;
+    private final PostStatsChunkRepository postChunkRepository;
+
+    // ── Channels ──────────────────────────────────────────────────────────────
+
+    public List<ChannelStats> channelRange(Long channelId, LocalDateTime from, LocalDateTime to) {
+        return channelRanges(List.of(channelId), from, to).getOrDefault(channelId, List.of());
+    }
+
+    /** Snapshots in [from, to] per channel; channels without any are absent from the map. */
+    public Map<Long, List<ChannelStats>> channelRanges(List<Long> channelIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<ChannelStats>> result = new HashMap<>();
+        if (channelIds.isEmpty()) return result;
+
+        for (ChannelStatsChunk chunk : channelChunkRepository.findOverlapping(channelIds, from, to)) {
+            StatsChunkCodec.Series series = StatsChunkCodec.decode(chunk.getPayload());
+            List<ChannelStats> points = result.computeIfAbsent(chunk.getChannelId(), k -> new ArrayList<>());
+            for (int i = 0; i < series.size(); i++) {
+                LocalDateTime at = fromEpoch(series.times()[i]);
+                if (!at.isBefore(from) && !at.isAfter(to)) points.add(toChannelStats(series, i));
+            }
+        }
+        for (ChannelStats row : channelStatsRepository.findByChannelIdsBetween(channelIds, from, to)) {
+            result.computeIfAbsent(row.getChannel().getId(), k -> new ArrayList<>()).add(row);
+        }
+        result.values().forEach(points -> points.sort(Comparator.comparing(ChannelStats::getRecordedAt)));
+        return result;
+    }
+
+    /**
+     * Follower totals per day across the given channels, read from the
+     * channel_stats_daily rollup (last value of each day per channel, so
+     * repeated syncs on one day don't inflate the total). Channels synced less
+     * often than daily (see SyncCadence) carry their last value forward until
+     * the next one, including from before the range; a channel contributes
+     * nothing before its first recorded day.
+     */
+    public List<DailyTotal> dailyFollowers(List<Long> channelIds, LocalDateTime from, LocalDateTime to) {
+        if (channelIds.isEmpty()) return List.of();
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.toLocalDate().isAfter(LocalDate.now()) ? LocalDate.now() : to.toLocalDate();
+        if (lastDay.isBefore(firstDay)) return List.of();
+
+        Map<Long, TreeMap<LocalDate, Long>> perChannel = new HashMap<>();
+        for (Object[] row : channelStatsRepository.findDailyBefore(channelIds, firstDay)) {
+            // Seed the range with the value in force on its first day
+            perChannel.computeIfAbsent(((Number) row[0]).longValue(), k -> new TreeMap<>())
+                    .put(firstDay, row[2] != null ? ((Number) row[2]).longValue() : 0L);
+        }
+        for (Object[] row : channelStatsRepository.findDailyBetween(channelIds, firstDay, lastDay)) {
+            perChannel.computeIfAbsent(((Number) row[0]).longValue(), k -> new TreeMap<>())
+                    .put(toLocalDate(row[1]), row[2] != null ? ((Number) row[2]).longValue() : 0L);
+        }
+
+        TreeMap<LocalDate, Long> totals = new TreeMap<>();
+        perChannel.values().forEach(days -> {
+            long carried = 0;
+            for (LocalDate day = days.firstKey(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                carried = days.getOrDefault(day, carried);
+                totals.merge(day, carried, Long::sum);
+            }
+        });
+        List<DailyTotal> result = new ArrayList<>(totals.size());
+        totals.forEach((day, total) -> result.add(new DailyTotal(day.atStartOfDay(), total)));
+        return result;
+    }
+
+    // ── Posts ─────────────────────────────────────────────────────────────────
+
+    public List<PostStats> postRange(Long postId, LocalDateTime from, LocalDateTime to) {
+        return postRanges(List.of(postId), from, to).getOrDefault(postId, List.of());
+    }
+
+    /** Snapshots in [from, to] per post; posts without any are absent from the map. */
+    public Map<Long, List<PostStats>> postRanges(List<Long> postIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<PostStats>> result = new HashMap<>();
+        if (postIds.isEmpty()) return result;
+
+        for (PostStatsChunk chunk : postChunkRepository.findOverlapping(postIds, from, to)) {
+            StatsChunkCodec.Series series = StatsChunkCodec.decode(chunk.getPayload());
+            List<PostStats> points = result.computeIfAbsent(chunk.getPostId(), k -> new ArrayList<>());
+            for (int i = 0; i < series.size(); i++) {
+                LocalDateTime at = fromEpoch(series.times()[i]);
+                if (!at.isBefore(from) && !at.isAfter(to)) points.add(toPostStats(series, i));
+            }
+        }
+        for (PostStats row : postStatsRepository.findByPostIdsBetween(postIds, from, to)) {
+            result.computeIfAbsent(row.getPost().getId(), k -> new ArrayList<>()).add(row);
+        }
+        result.values().forEach(points -> points.sort(Comparator.comparing(PostStats::getRecordedAt)));
+        return result;
+    }
+
+    // ── Row ↔ column mapping (shared with StatsCompactor) ─────────────────────
+
+    static StatsChunkCodec.Series channelSeries(List<ChannelStats> rows) {
+        int n = rows.size();
+        long[] times = new long[n];
+        long[][] c = new long[CHANNEL_COLUMNS][n];
+        for (int i = 0; i < n; i++) {
+            ChannelStats s = rows.get(i);
+            times[i] = toEpoch(s.getRecordedAt());
+            c[0][i] = nullable(s.getFollowersCount());
+            c[1][i] = nullable(s.getFollowingCount());
+            c[2][i] = s.getTotalPosts() != null ? s.getTotalPosts() : StatsChunkCodec.NULL;
+            c[3][i] = nullable(s.getTotalViews());
+            c[4][i] = nullable(s.getTotalLikes());
+            c[5][i] = nullable(s.getAvgViewsPerPost());
+            c[6][i] = hundredths(s.getEngagementRate());
+        }
+        return new StatsChunkCodec.Series(times, c);
+    }
+
+    static StatsChunkCodec.Series postSeries(List<PostStats> rows) {
+        int n = rows.size();
+        long[] times = new long[n];
+        long[][] c = new long[POST_COLUMNS][n];
+        for (int i = 0; i < n; i++) {
+            PostStats s = rows.get(i);
+            times[i] = toEpoch(s.getRecordedAt());
+            c[0][i] = nullable(s.getViewsCount());
+            c[1][i] = nullable(s.getLikesCount());
+            c[2][i] = nullable(s.getCommentsCount());
+            c[3][i] = nullable(s.getSharesCount());
+            c[4][i] = nullable(s.getSavesCount());
+            c[5][i] = nullable(s.getWatchTimeSeconds());
+            c[6][i] = hundredths(s.getEngagementRate());
+        }
+        return new StatsChunkCodec.Series(times, c);
+    }
+
+    private static ChannelStats toChannelStats(StatsChunkCodec.Series series, int i) {
+        long[][] c = series.columns();
+        return ChannelStats.builder()
+                .recordedAt(fromEpoch(series.times()[i]))
+                .followersCount(toLong(c[0][i]))
+                .followingCount(toLong(c[1][i]))
+                .totalPosts(c[2][i] == StatsChunkCodec.NULL ? null : (int) c[2][i])
+                .totalViews(toLong(c[3][i]))
+                .totalLikes(toLong(c[4][i]))
+                .avgViewsPerPost(toLong(c[5][i]))
+                .engagementRate(toRate(c[6][i]))
+                .build();
+    }
+
+    private static PostStats toPostStats(StatsChunkCodec.Series series, int i) {
+        long[][] c = series.columns();
+        return PostStats.builder()
+                .recordedAt(fromEpoch(series.times()[i]))
+                .viewsCount(toLong(c[0][i]))
+                .likesCount(toLong(c[1][i]))
+                .commentsCount(toLong(c[2][i]))
+                .sharesCount(toLong(c[3][i]))
+                .savesCount(toLong(c[4][i]))
+                .watchTimeSeconds(toLong(c[5][i]))
+                .engagementRate(toRate(c[6][i]))
+                .build();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime fromEpoch(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static long nullable(Long value) {
+        return value != null ? value : StatsChunkCodec.NULL;
+    }
+
+    private static Long toLong(long value) {
+        return value == StatsChunkCodec.NULL ? null : value;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    /** Engagement rates are NUMERIC(5,2), so they round-trip exactly as hundredths. */
+    private static long hundredths(BigDecimal rate) {
+        return rate != null ? rate.movePointRight(2).longValue() : StatsChunkCodec.NULL;
+    }
+
+    private static BigDecimal toRate(long hundredths) {
+        return hundredths == StatsChunkCodec.NULL ? null : BigDecimal.valueOf(hundredths, 2);
+    }
+}
@@ -0,0 +1,78 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Channel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when each channel is synced next, from what the last sync saw.
+ *
+ * Every channel keeps its own interval (channels.sync_interval_minutes). A sync
+ * that finds new posts, or followers moving faster than
+ * {@code app.sync.cadence.active-follower-change} per day, halves it; a quiet
+ * sync doubles it. Intervals stay within {@code min-minutes} (hot channels,
+ * hourly) and {@code max-minutes} (dormant channels, weekly), so the API budget
+ * goes where data actually changes. Each next sync time gets random jitter, so
+ * channels drift apart over the day instead of lining up.
+ */
+@Component
+public class SyncCadence {
+
+    @Value("${app.sync.cadence.min-minutes:60}")
+    private int minMinutes;
+    @Value("${app.sync.cadence.max-minutes:10080}")
+    private int maxMinutes;
+    @Value("${app.sync.cadence.initial-minutes:1440}")
+    private int initialMinutes;
+    @Value("${app.sync.cadence.active-follower-change:0.002}")
+    private double activeFollowerChange;
+    @Value("${app.sync.cadence.jitter:0.1}")
+    private double jitter;
+
+    /**
+     * Sets the channel's next interval and sync time after a successful sync.
+     * {@code previousFollowers} and {@code previousSyncAt} are the values from
+     * before this sync (null on the first one); {@code newPosts} counts posts the
+     * sync created.
+     */
+    public void schedule(Channel channel, Long previousFollowers, LocalDateTime previousSyncAt,
+                         long newPosts, LocalDateTime now) {
+        int current = channel.getSyncIntervalMinutes() != null ? channel.getSyncIntervalMinutes() : initialMinutes;
+        int next;
+        if (previousSyncAt == null) {
+            next = initialMinutes;
+        } else if (newPosts > 0 || followerChangePerDay(previousFollowers, channel.getFollowerCount(), previousSyncAt, now)
+                >= activeFollowerChange) {
+            next = current / 2;
+        } else {
+            next = current * 2;
+        }
+        next = Math.max(minMinutes, Math.min(maxMinutes, next));
+        channel.setSyncIntervalMinutes(next);
+        channel.setNextSyncAt(now.plus(jittered(next)));
+    }
+
+    /** Next sync time when a sync could not complete: retry after the current interval. */
+    public LocalDateTime retryAt(Channel channel, LocalDateTime now) {
+        int current = channel.getSyncIntervalMinutes() != null ? channel.getSyncIntervalMinutes() : initialMinutes;
+        return now.plus(jittered(Math.max(minMinutes, Math.min(maxMinutes, current))));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Relative follower change, normalised to a per-day rate so it doesn't depend on the interval. */
+    private static double followerChangePerDay(Long before, Long after, LocalDateTime since, LocalDateTime now) {
+        if (before == null || after == null) return 0;
+        double days = Math.max(Duration.between(since, now).toMinutes(), 1) / 1440d;
+        return Math.abs(after - before) / (double) Math.max(before, 1) / days;
+    }
+
+    private Duration jittered(int minutes) {
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter;
+        return Duration.ofSeconds(Math.round(minutes * 60 * factor));
+    }
+}
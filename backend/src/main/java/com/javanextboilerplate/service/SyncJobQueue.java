@@ -0,0 +1,211 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Channel;
+import com.javanextboilerplate.repository.ChannelRepository;
+import com.javanextboilerplate.repository.SyncJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Database-backed channel sync queue (sync_jobs, V26), shared by every backend
+ * replica.
+ *
+ * Every few minutes each replica enqueues the channels whose adaptive next sync
+ * time (SyncCadence) has passed, deduplicated by a partial unique index so each
+ * channel has at most one open job no matter how many replicas enqueue.
+ * Every replica polls the queue and claims small batches with
+ * {@code FOR UPDATE SKIP LOCKED}, so the channel set is split between them.
+ *
+ * A claimed job carries a lease, renewed every third of
+ * {@code lease-seconds} while the sync runs, so a job held up by the
+ * platform rate limiters is not re-claimed and run twice. If its replica
+ * dies, the lease expires and another replica picks the job up. Failed jobs are retried with exponential
+ * backoff until {@code max-attempts}, after which the channel waits for its
+ * next regular sync. A restart doesn't re-sync anything that isn't due.
+ */
+@Service
+@Slf4j
+public class SyncJobQueue {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SyncJobRepository syncJobRepository;
+    private final ChannelRepository channelRepository;
+    private final ChannelSyncService channelSyncService;
+    private final SyncMetrics syncMetrics;
+    private final SyncCadence syncCadence;
+    private final String owner;
+
+    /** Jobs this replica is running, whose leases renewLeases() keeps alive. */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.sync.queue.batch-size:20}")
+    private int batchSize;
+    @Value("${app.sync.queue.lease-seconds:600}")
+    private int leaseSeconds;
+    @Value("${app.sync.queue.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${app.sync.queue.retention-days:7}")
+    private int retentionDays;
+
+    public SyncJobQueue(SyncJobRepository syncJobRepository,
+                        ChannelRepository channelRepository,
+                        ChannelSyncService channelSyncService,
+                        SyncMetrics syncMetrics,
+                        SyncCadence syncCadence) {
+        this.syncJobRepository = syncJobRepository;
+        this.channelRepository = channelRepository;
+        this.channelSyncService = channelSyncService;
+        this.syncMetrics = syncMetrics;
+        this.syncCadence = syncCadence;
+        this.owner = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ── Enqueue ───────────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.sync.queue.enqueue-ms:300000}", initialDelayString = "${app.sync.queue.enqueue-ms:300000}")
+    public void enqueueDue() {
+        enqueue(channelRepository.findChannelsNeedingSync(LocalDateTime.now()));
+    }
+
+    /** Queues every active channel regardless of its next sync time. */
+    public void enqueueAll() {
+        enqueue(channelRepository.findByIsActiveTrue());
+    }
+
+    @Scheduled(cron = "${app.sync.queue.housekeeping-cron:0 15 4 * * *}")
+    public void housekeeping() {
+        int abandoned = syncJobRepository.failAbandoned(maxAttempts);
+        int purged = syncJobRepository.purgeFinished(LocalDateTime.now().minusDays(retentionDays));
+        if (abandoned > 0 || purged > 0) {
+            log.info("Sync queue housekeeping: {} abandoned jobs failed, {} finished jobs purged", abandoned, purged);
+        }
+    }
+
+    private void enqueue(List<Channel> channels) {
+        if (channels.isEmpty()) return;
+        int queued = syncJobRepository.enqueue(channels.stream().map(Channel::getId).toList());
+        if (queued > 0) log.info("Queued {} channels for sync", queued);
+    }
+
+    // ── Work ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Claims and runs batches until the queue has nothing due. Batches run in
+     * parallel on virtual threads; ChannelSyncService applies the per-platform
+     * limits, so the batch size only bounds how much one replica holds at once.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.queue.poll-ms:10000}")
+    public void work() {
+        List<Object[]> claimed;
+        while (!(claimed = syncJobRepository.claim(owner, batchSize, leaseSeconds, maxAttempts)).isEmpty()) {
+            runBatch(claimed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{${app.sync.queue.lease-seconds:600} * 1000 / 3}")
+    public void renewLeases() {
+        if (running.isEmpty()) return;
+        List<Long> ids = List.copyOf(running);
+        List<Long> renewed = syncJobRepository.renewLeases(ids, owner, leaseSeconds);
+        if (renewed.size() < ids.size()) {
+            List<Long> lost = ids.stream().filter(id -> !renewed.contains(id)).toList();
+            log.warn("Sync jobs {} lost their lease while running; another replica may run them too", lost);
+        }
+    }
+
+    private void runBatch(List<Object[]> claimed) {
+        List<Long> channelIds = claimed.stream().map(row -> ((Number) row[1]).longValue()).toList();
+        Map<Long, Channel> channels = channelRepository.findAllById(channelIds).stream()
+                .collect(Collectors.toMap(Channel::getId, Function.identity()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Object[] row : claimed) {
+                Long jobId = ((Number) row[0]).longValue();
+                int attempts = ((Number) row[2]).intValue();
+                Channel channel = channels.get(((Number) row[1]).longValue());
+                if (channel == null || !Boolean.TRUE.equals(channel.getIsActive())) {
+                    // Disconnected since it was queued; nothing to do
+                    complete(jobId, ((Number) row[1]).longValue());
+                    continue;
+                }
+                syncMetrics.queued(1);
+                running.add(jobId);
+                executor.submit(() -> {
+                    try {
+                        runJob(jobId, attempts, channel);
+                    } finally {
+                        running.remove(jobId);
+                    }
+                });
+            }
+        }
+    }
+
+    private void runJob(Long jobId, int attempts, Channel channel) {
+        try {
+            channelSyncService.syncChannelThrottled(channel);
+            complete(jobId, channel.getId());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            String error = String.valueOf(e.getMessage());
+            int backoff = backoffSeconds(attempts);
+            log.warn("Sync job {} for channel {} ({}) failed on attempt {}/{}, {}, {}: {}",
+                    jobId, channel.getId(), channel.getPlatform().getValue(), attempts, maxAttempts,
+                    attempts >= maxAttempts ? "giving up" : "retrying in " + backoff + "s",
+                    SyncMetrics.cause(e), error);
+            int updated = syncJobRepository.fail(jobId, owner,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    backoff, maxAttempts);
+            if (updated == 0) {
+                log.warn("Sync job {} for channel {} failed after its lease was lost; the failure was not recorded",
+                        jobId, channel.getId());
+            }
+            if (attempts >= maxAttempts) {
+                // Otherwise the channel is still due and would be queued again right away
+                channelRepository.postponeSync(channel.getId(), syncCadence.retryAt(channel, LocalDateTime.now()));
+            }
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void complete(Long jobId, Long channelId) {
+        if (syncJobRepository.complete(jobId, owner) == 0) {
+            log.warn("Sync job {} for channel {} finished after its lease was lost; another replica may have run it too",
+                    jobId, channelId);
+        }
+    }
+
+    /** 1 min, 2 min, 4 min … capped at 1 h, plus up to 20% jitter so retries don't line up. */
+    static int backoffSeconds(int attempts) {
+        int base = (int) Math.min(3600, 60L << Math.min(Math.max(attempts - 1, 0), 6));
+        return base + ThreadLocalRandom.current().nextInt(base / 5 + 1);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
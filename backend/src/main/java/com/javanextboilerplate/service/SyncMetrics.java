@@ -0,0 +1,167 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.javanextboilerplate.entity.Platform;
+import com.javanextboilerplate.exception.PlatformApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress, throttling and per-stage meters for channel sync, exposed through
+ * /actuator/metrics.
+ *
+ * {@code channel.sync.pending} and {@code channel.sync.active} show how far a
+ * running sync has got; {@code channel.sync.channels} counts finished channels
+ * by outcome, and {@code channel.sync.rate_limit.wait} shows how long requests
+ * were held back by PlatformRateLimiter.
+ *
+ * Where the time goes: {@code channel.sync.stage} is a histogram per platform
+ * and stage (token_refresh, follower_fetch, post_fetch, db_write), one sample
+ * per stage execution. What goes wrong: {@code channel.sync.failures} counts
+ * failures per platform, stage and cause (see {@link #cause}), and
+ * {@code channel.sync.deactivated} counts channels switched off by sync. What
+ * changed: {@code channel.sync.posts} counts posts created/updated and
+ * {@code channel.sync.post_snapshots} the stats snapshots written.
+ */
+@Component
+public class SyncMetrics {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<Platform, AtomicInteger> active = new EnumMap<>(Platform.class);
+    private final Map<Platform, Timer> rateLimitWaits = new EnumMap<>(Platform.class);
+    private final Timer runs;
+
+    public SyncMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("channel.sync.pending", pending, AtomicInteger::get)
+                .description("Channels queued in the current sync run and not yet started")
+                .register(registry);
+        for (Platform platform : Platform.values()) {
+            AtomicInteger inFlight = new AtomicInteger();
+            active.put(platform, inFlight);
+            Gauge.builder("channel.sync.active", inFlight, AtomicInteger::get)
+                    .description("Channels currently being synced")
+                    .tag("platform", platform.getValue())
+                    .register(registry);
+            rateLimitWaits.put(platform, Timer.builder("channel.sync.rate_limit.wait")
+                    .description("Time platform API requests spent waiting for a rate-limit token")
+                    .tag("platform", platform.getValue())
+                    .register(registry));
+        }
+        this.runs = Timer.builder("channel.sync.run")
+                .description("Wall-clock duration of a multi-channel sync run")
+                .register(registry);
+    }
+
+    public void queued(int channels) {
+        pending.addAndGet(channels);
+    }
+
+    public void started(Platform platform) {
+        pending.decrementAndGet();
+        active.get(platform).incrementAndGet();
+    }
+
+    public void finished(Platform platform, boolean success) {
+        active.get(platform).decrementAndGet();
+        Counter.builder("channel.sync.channels")
+                .description("Channels whose sync finished, by outcome")
+                .tag("platform", platform.getValue())
+                .tag("outcome", success ? "success" : "failed")
+                .register(registry)
+                .increment();
+    }
+
+    public void rateLimitWait(Platform platform, long nanos) {
+        rateLimitWaits.get(platform).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void run(Duration duration) {
+        runs.record(duration);
+    }
+
+    public void stage(Platform platform, String stage, long nanos) {
+        Timer.builder("channel.sync.stage")
+                .description("Time spent per channel sync stage")
+                .tag("platform", platform.getValue())
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void failure(Platform platform, String stage, Throwable error) {
+        Counter.builder("channel.sync.failures")
+                .description("Channel sync failures by stage and cause")
+                .tag("platform", platform.getValue())
+                .tag("stage", stage)
+                .tag("cause", cause(error))
+                .register(registry)
+                .increment();
+    }
+
+    public void deactivated(Platform platform, String reason) {
+        Counter.builder("channel.sync.deactivated")
+                .description("Channels marked inactive by sync, by reason")
+                .tag("platform", platform.getValue())
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void posts(Platform platform, long created, long updated, int snapshots) {
+        Counter.builder("channel.sync.posts")
+                .description("Posts written by sync")
+                .tag("platform", platform.getValue())
+                .tag("change", "created")
+                .register(registry)
+                .increment(created);
+        Counter.builder("channel.sync.posts")
+                .description("Posts written by sync")
+                .tag("platform", platform.getValue())
+                .tag("change", "updated")
+                .register(registry)
+                .increment(updated);
+        Counter.builder("channel.sync.post_snapshots")
+                .description("Post stats snapshots written by sync")
+                .tag("platform", platform.getValue())
+                .register(registry)
+                .increment(snapshots);
+    }
+
+    /**
+     * Failure taxonomy: unauthorized (401/403), rate_limited (429), server_error
+     * (5xx), client_error (other statuses), timeout, parse (malformed response),
+     * io, database, interrupted, other.
+     */
+    public static String cause(Throwable error) {
+        if (error instanceof PlatformApiException api) {
+            int status = api.getStatusCode();
+            if (status == 401 || status == 403) return "unauthorized";
+            if (status == 429) return "rate_limited";
+            if (status >= 500) return "server_error";
+            return "client_error";
+        }
+        if (error instanceof HttpTimeoutException || error instanceof SocketTimeoutException) return "timeout";
+        if (error instanceof JsonProcessingException) return "parse";
+        if (error instanceof IOException) return "io";
+        if (error instanceof DataAccessException) return "database";
+        if (error instanceof InterruptedException) return "interrupted";
+        return "other";
+    }
+}
@@ -0,0 +1,78 @@
+package com.javanextboilerplate.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counters for the /t/{slug} redirect path, exposed through /actuator/metrics.
+ *
+ * Replaces per-click log lines. Per-slug click counters are capped by
+ * MetricsConfig at {@code app.tracking.per-slug-metrics-max} distinct slugs;
+ * beyond that the registry hands out no-op counters and the daily click
+ * tables remain the source of truth.
+ */
+@Component
+public class TrackingMetrics {
+
+    public static final String CLICKS = "tracking.clicks";
+
+    private final MeterRegistry registry;
+    private final Counter botSkipsAffiliate;
+    private final Counter botSkipsUtm;
+    private final Counter notFound;
+    private final Counter droppedBufferFull;
+    private final Counter droppedFlushFailed;
+    private final ConcurrentHashMap<String, Counter> clicksBySlug = new ConcurrentHashMap<>();
+
+    public TrackingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.botSkipsAffiliate = Counter.builder("tracking.clicks.bot")
+                .description("Redirects served without recording because the User-Agent looks like a bot")
+                .tag("kind", "affiliate")
+                .register(registry);
+        this.botSkipsUtm = Counter.builder("tracking.clicks.bot")
+                .description("Redirects served without recording because the User-Agent looks like a bot")
+                .tag("kind", "utm")
+                .register(registry);
+        this.notFound = Counter.builder("tracking.slug.not_found")
+                .description("Requests for unknown or inactive slugs")
+                .register(registry);
+        this.droppedBufferFull = Counter.builder("tracking.clicks.dropped")
+                .description("Clicks redirected but never written, by reason")
+                .tag("reason", "buffer_full")
+                .register(registry);
+        this.droppedFlushFailed = Counter.builder("tracking.clicks.dropped")
+                .description("Clicks redirected but never written, by reason")
+                .tag("reason", "flush_failed")
+                .register(registry);
+    }
+
+    public void click(String slug, SlugRoutingTable.Kind kind) {
+        clicksBySlug.computeIfAbsent(slug, s -> Counter.builder(CLICKS)
+                .description("Recorded human clicks per tracking slug")
+                .tag("slug", s)
+                .tag("kind", kind.name().toLowerCase())
+                .register(registry)).increment();
+    }
+
+    public void botSkip(SlugRoutingTable.Kind kind) {
+        (kind == SlugRoutingTable.Kind.UTM ? botSkipsUtm : botSkipsAffiliate).increment();
+    }
+
+    public void notFound() {
+        notFound.increment();
+    }
+
+    /** A click shed by ClickBuffer because the buffer was full. */
+    public void droppedBufferFull() {
+        droppedBufferFull.increment();
+    }
+
+    /** Clicks from a failed flush that did not fit back into the buffer. */
+    public void droppedFlushFailed(long clicks) {
+        droppedFlushFailed.increment(clicks);
+    }
+}
@@ -59,11 +59,17 @@ public class UserService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "users", key = "#supabaseUserId")
-    public User getUserBySupabaseId(String supabaseUserId) {
+    public UserSnapshot getUserBySupabaseId(String supabaseUserId) {
         return userRepository.findBySupabaseUserId(supabaseUserId)
+                .map(UserSnapshot::of)
                 .orElseThrow(() -> new RuntimeException("User not found with Supabase ID: " + supabaseUserId));
     }
 
+    /** Drops the cached snapshot after the user row was changed elsewhere (e.g. admin flag). */
+    @CacheEvict(value = "users", key = "#supabaseUserId")
+    public void evictCachedUser(String supabaseUserId) {
+    }
+
     @Transactional(readOnly = true)
     public User getUserByStripeCustomerId(String stripeCustomerId) {
         return userRepository.findByStripeCustomerId(stripeCustomerId)
@@ -0,0 +1,14 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.User;
+
+/**
+ * Immutable view of a user, as cached by UserService.getUserBySupabaseId.
+ * Holds only what request handling needs; load the User entity to change it.
+ */
+public record UserSnapshot(Long id, String supabaseUserId, String email, boolean admin) {
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getSupabaseUserId(), user.getEmail(), user.isAdmin());
+    }
+}
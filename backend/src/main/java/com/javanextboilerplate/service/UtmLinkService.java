@@ -3,20 +3,13 @@ package com.javanextboilerplate.service;
 import com.javanextboilerplate.dto.request.CreateUtmLinkRequest;
 import com.javanextboilerplate.dto.response.UtmLinkResponse;
 import com.javanextboilerplate.entity.UtmLink;
-import com.javanextboilerplate.repository.PaidAdCampaignRepository;
-import com.javanextboilerplate.repository.SaasProjectRepository;
-import com.javanextboilerplate.repository.UtmClickDailyRepository;
 import com.javanextboilerplate.repository.UtmLinkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -24,38 +17,31 @@ import java.util.UUID;
 @Slf4j
 public class UtmLinkService {
 
-    private static final Set<String> BOT_UA_FRAGMENTS = Set.of(
-            "bot", "crawler", "spider", "curl", "wget", "python", "go-http"
-    );
-
     private final UtmLinkRepository linkRepository;
-    private final UtmClickDailyRepository clickDailyRepository;
-    private final SaasProjectRepository projectRepository;
-    private final PaidAdCampaignRepository campaignRepository;
-    private final UserService userService;
+    private final ProjectAccess projectAccess;
+    private final SlugRoutingTable routingTable;
+    private final ClickBuffer clickBuffer;
+    private final ClickClassifier clickClassifier;
 
     // ── CRUD ──────────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
     public List<UtmLinkResponse> getLinks(Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         return linkRepository.findByProjectIdOrderByCreatedAtDesc(projectId).stream()
-                .map(l -> UtmLinkResponse.from(l, sumClicks(l.getId())))
+                .map(l -> UtmLinkResponse.from(l, l.getTotalClicks()))
                 .toList();
     }
 
     @Transactional
     public UtmLinkResponse createLink(Long projectId, CreateUtmLinkRequest req, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         String slug = generateSlug();
         // Validate campaign belongs to same project if provided
         Long campaignId = req.getCampaignId();
         if (campaignId != null) {
-            var campaign = campaignRepository.findById(campaignId)
-                    .orElseThrow(() -> new RuntimeException("Campaign not found"));
-            if (!campaign.getProjectId().equals(projectId)) {
-                throw new RuntimeException("Campaign not found");
-            }
+            projectAccess.assertBelongsTo(projectId, ProjectAccess.Resource.PAID_AD_CAMPAIGN, campaignId,
+                    "Campaign not found");
         }
 
         UtmLink link = UtmLink.builder()
@@ -71,93 +57,55 @@ public class UtmLinkService {
                 .slug(slug)
                 .build();
         UtmLink saved = linkRepository.save(link);
+        routingTable.put(saved);
         return UtmLinkResponse.from(saved, 0L);
     }
 
     @Transactional
     public UtmLinkResponse assignCampaign(Long linkId, Long projectId, Long campaignId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         UtmLink link = linkRepository.findById(linkId)
                 .orElseThrow(() -> new RuntimeException("UTM link not found"));
         if (!link.getProjectId().equals(projectId)) {
             throw new RuntimeException("UTM link not found");
         }
         if (campaignId != null) {
-            var campaign = campaignRepository.findById(campaignId)
-                    .orElseThrow(() -> new RuntimeException("Campaign not found"));
-            if (!campaign.getProjectId().equals(projectId)) {
-                throw new RuntimeException("Campaign not found");
-            }
+            projectAccess.assertBelongsTo(projectId, ProjectAccess.Resource.PAID_AD_CAMPAIGN, campaignId,
+                    "Campaign not found");
         }
         link.setCampaignId(campaignId);
         UtmLink saved = linkRepository.save(link);
-        return UtmLinkResponse.from(saved, sumClicks(saved.getId()));
+        return UtmLinkResponse.from(saved, saved.getTotalClicks());
     }
 
     @Transactional
     public void deleteLink(Long linkId, Long projectId, String supabaseUserId) {
-        assertOwnership(projectId, supabaseUserId);
+        projectAccess.assertOwner(projectId, supabaseUserId);
         UtmLink link = linkRepository.findById(linkId)
                 .orElseThrow(() -> new RuntimeException("UTM link not found"));
         if (!link.getProjectId().equals(projectId)) {
             throw new RuntimeException("UTM link not found");
         }
         linkRepository.delete(link);
+        routingTable.remove(link.getSlug());
     }
 
     // ── Tracking ──────────────────────────────────────────────────────────────
 
-    @Transactional(readOnly = true)
-    public Optional<UtmLink> findActiveLink(String slug) {
-        return linkRepository.findBySlug(slug)
-                .filter(l -> Boolean.TRUE.equals(l.getIsActive()));
-    }
+    /** Same contract as AffiliateCampaignService.recordClick — hot path, no logging. */
+    public boolean recordClick(Long utmLinkId, String userAgent, String referer, boolean isUnique, long visitorHash) {
+        ClickClassifier.Agent agent = clickClassifier.classifyAgent(userAgent);
+        if (agent.bot()) return false;
 
-    @Transactional
-    public void recordClick(Long utmLinkId, String userAgent, String referer, boolean isUnique) {
-        if (isBot(userAgent)) {
-            log.debug("Bot click skipped for utmLinkId={}", utmLinkId);
-            return;
-        }
-        String platform = parseReferer(referer);
-        String device   = parseDevice(userAgent);
-        LocalDate today = LocalDate.now();
-
-        clickDailyRepository.upsertClick(
-                utmLinkId, today,
-                1, isUnique ? 1 : 0,
-                platform, device
-        );
-        log.info("UTM click recorded: utmLinkId={} referer={} device={} unique={}", utmLinkId, platform, device, isUnique);
-    }
+        String platform = clickClassifier.classifyReferer(referer);
+        String device   = agent.device().label();
 
-    public String buildUtmUrl(UtmLink link) {
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(link.getDestinationUrl())
-                .queryParam("utm_source",   link.getUtmSource())
-                .queryParam("utm_medium",   link.getUtmMedium())
-                .queryParam("utm_campaign", link.getUtmCampaign());
-        if (link.getUtmContent() != null && !link.getUtmContent().isBlank()) {
-            builder.queryParam("utm_content", link.getUtmContent());
-        }
-        if (link.getUtmTerm() != null && !link.getUtmTerm().isBlank()) {
-            builder.queryParam("utm_term", link.getUtmTerm());
-        }
-        return builder.build().toUriString();
+        clickBuffer.record(ClickBuffer.Target.UTM, utmLinkId, platform, device, isUnique, visitorHash);
+        return true;
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
-    private void assertOwnership(Long projectId, String supabaseUserId) {
-        var user = userService.getUserBySupabaseId(supabaseUserId);
-        projectRepository.findByIdAndUserId(projectId, user.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-    }
-
-    private long sumClicks(Long utmLinkId) {
-        return clickDailyRepository.findByUtmLinkIdOrderByDateAsc(utmLinkId)
-                .stream().mapToLong(d -> d.getTotalClicks()).sum();
-    }
-
     private String normalizeUrl(String url) {
         if (!url.startsWith("http://") && !url.startsWith("https://")) {
             return "https://" + url;
@@ -168,30 +116,4 @@ public class UtmLinkService {
     private String generateSlug() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 8);
     }
-
-    private boolean isBot(String ua) {
-        if (ua == null || ua.isBlank()) return true;
-        String lower = ua.toLowerCase();
-        return BOT_UA_FRAGMENTS.stream().anyMatch(lower::contains);
-    }
-
-    private String parseReferer(String referer) {
-        if (referer == null || referer.isBlank()) return "Direct";
-        String r = referer.toLowerCase();
-        if (r.contains("youtube.com") || r.contains("youtu.be")) return "YouTube";
-        if (r.contains("t.co") || r.contains("twitter.com") || r.contains("x.com")) return "Twitter/X";
-        if (r.contains("instagram.com")) return "Instagram";
-        if (r.contains("reddit.com")) return "Reddit";
-        if (r.contains("linkedin.com")) return "LinkedIn";
-        if (r.contains("tiktok.com")) return "TikTok";
-        if (r.contains("google.com")) return "Google";
-        return "Other";
-    }
-
-    private String parseDevice(String ua) {
-        if (ua == null) return "Desktop";
-        if (ua.contains("iPad") || (ua.contains("Android") && ua.contains("Tablet"))) return "Tablet";
-        if (ua.contains("Mobile") || (ua.contains("Android") && !ua.contains("Tablet"))) return "Mobile";
-        return "Desktop";
-    }
 }
@@ -0,0 +1,25 @@
+-- HyperLogLog sketches of distinct visitors per link per day.
+-- 1024 one-byte registers (precision 10, ~3% standard error); NULL until the
+-- first click that carries a visitor fingerprint. Sketches are merged
+-- register-wise (max), so any range of days can be combined into one estimate.
+
+ALTER TABLE affiliate_click_daily ADD COLUMN visitor_sketch BYTEA;
+ALTER TABLE utm_click_daily       ADD COLUMN visitor_sketch BYTEA;
+
+CREATE OR REPLACE FUNCTION hll_merge(a BYTEA, b BYTEA)
+RETURNS BYTEA AS $$
+DECLARE
+    merged BYTEA;
+    i      INT;
+BEGIN
+    IF a IS NULL THEN RETURN b; END IF;
+    IF b IS NULL OR length(a) <> length(b) THEN RETURN a; END IF;
+    merged := a;
+    FOR i IN 0 .. length(a) - 1 LOOP
+        IF get_byte(b, i) > get_byte(merged, i) THEN
+            merged := set_byte(merged, i, get_byte(b, i));
+        END IF;
+    END LOOP;
+    RETURN merged;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
@@ -0,0 +1,16 @@
+-- Lifetime click totals kept on the campaign/link row itself, incremented by the
+-- click buffer flush in the same statement as the daily upsert, so list
+-- endpoints no longer sum the full *_click_daily history per row.
+
+ALTER TABLE affiliate_campaigns ADD COLUMN total_clicks BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE utm_links           ADD COLUMN total_clicks BIGINT NOT NULL DEFAULT 0;
+
+UPDATE affiliate_campaigns c
+SET total_clicks = d.total
+FROM (SELECT campaign_id, SUM(total_clicks) AS total FROM affiliate_click_daily GROUP BY campaign_id) d
+WHERE c.id = d.campaign_id;
+
+UPDATE utm_links l
+SET total_clicks = d.total
+FROM (SELECT utm_link_id, SUM(total_clicks) AS total FROM utm_click_daily GROUP BY utm_link_id) d
+WHERE l.id = d.utm_link_id;
@@ -0,0 +1,42 @@
+-- Compacted history for channel_stats and post_stats.
+-- StatsCompactor moves snapshots older than app.stats.hot-days out of the row
+-- tables into one chunk per entity per calendar month: timestamps and every
+-- counter are delta + zigzag varint encoded (see StatsChunkCodec), typically
+-- 10-15 bytes per snapshot instead of a ~120-byte heap tuple plus its index entry.
+-- The newest snapshot of each channel/post always stays in the row table so
+-- "latest stats" lookups are unaffected. Read both through StatsTimeSeries.
+
+CREATE TABLE channel_stats_chunks (
+    id           BIGSERIAL PRIMARY KEY,
+    channel_id   BIGINT    NOT NULL REFERENCES channels(id) ON DELETE CASCADE,
+    period_start TIMESTAMP NOT NULL,
+    first_at     TIMESTAMP NOT NULL,
+    last_at      TIMESTAMP NOT NULL,
+    point_count  INT       NOT NULL,
+    payload      BYTEA     NOT NULL,
+    UNIQUE (channel_id, period_start)
+);
+
+CREATE TABLE post_stats_chunks (
+    id           BIGSERIAL PRIMARY KEY,
+    post_id      BIGINT    NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
+    period_start TIMESTAMP NOT NULL,
+    first_at     TIMESTAMP NOT NULL,
+    last_at      TIMESTAMP NOT NULL,
+    point_count  INT       NOT NULL,
+    payload      BYTEA     NOT NULL,
+    UNIQUE (post_id, period_start)
+);
+
+ALTER TABLE channel_stats_chunks ENABLE ROW LEVEL SECURITY;
+ALTER TABLE post_stats_chunks    ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY "backend_full_access" ON channel_stats_chunks
+    TO service_role USING (true) WITH CHECK (true);
+
+CREATE POLICY "backend_full_access" ON post_stats_chunks
+    TO service_role USING (true) WITH CHECK (true);
+
+-- The compactor looks for entities with rows older than the hot window
+CREATE INDEX idx_channel_stats_recorded ON channel_stats(recorded_at);
+CREATE INDEX idx_post_stats_recorded    ON post_stats(recorded_at);
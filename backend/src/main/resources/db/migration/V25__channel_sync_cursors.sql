@@ -0,0 +1,15 @@
+-- Per-channel state for incremental post sync.
+--   newest_post_id / newest_published_at: newest post seen so far; YouTube stops
+--     paging its uploads playlist there instead of running a 100-unit search
+--   source_ref: platform handle the listing is read from (YouTube uploads playlist id)
+--   etag:       validator of the last stats fetch, sent back as If-None-Match so an
+--               unchanged set of videos costs a 304 and no writes
+
+CREATE TABLE channel_sync_cursors (
+    channel_id          BIGINT       PRIMARY KEY REFERENCES channels(id) ON DELETE CASCADE,
+    newest_post_id      VARCHAR(255),
+    newest_published_at TIMESTAMP,
+    source_ref          VARCHAR(255),
+    etag                VARCHAR(255),
+    updated_at          TIMESTAMP    NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,25 @@
+-- Work queue for channel sync, shared by all backend replicas.
+-- Workers claim due jobs with FOR UPDATE SKIP LOCKED and hold them under a lease;
+-- a job whose lease expires (worker died) becomes claimable again. Failures are
+-- retried with exponential backoff up to app.sync.queue.max-attempts.
+-- The partial unique index keeps at most one open job per channel, so repeated
+-- or concurrent enqueues (restarts, several replicas) are no-ops.
+
+CREATE TABLE sync_jobs (
+    id               BIGSERIAL    PRIMARY KEY,
+    channel_id       BIGINT       NOT NULL REFERENCES channels(id) ON DELETE CASCADE,
+    status           VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    run_after        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    attempts         INT          NOT NULL DEFAULT 0,
+    lease_owner      VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    last_error       TEXT,
+    created_at       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    updated_at       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    finished_at      TIMESTAMP,
+    CONSTRAINT check_sync_job_status CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'FAILED'))
+);
+
+CREATE UNIQUE INDEX uq_sync_jobs_open_channel ON sync_jobs(channel_id) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_sync_jobs_due ON sync_jobs(run_after) WHERE status = 'PENDING';
+CREATE INDEX idx_sync_jobs_lease ON sync_jobs(lease_expires_at) WHERE status = 'RUNNING';
@@ -0,0 +1,11 @@
+-- Adaptive sync cadence: each channel carries its own next sync time, derived
+-- from recent activity by SyncCadence, instead of everything syncing at 07:00.
+ALTER TABLE channels ADD COLUMN IF NOT EXISTS next_sync_at TIMESTAMP;
+ALTER TABLE channels ADD COLUMN IF NOT EXISTS sync_interval_minutes INTEGER;
+
+-- Spread existing channels over the next day rather than queueing them all at once
+UPDATE channels
+SET next_sync_at = NOW() + random() * INTERVAL '24 hours'
+WHERE is_active = TRUE AND next_sync_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_channels_next_sync ON channels(next_sync_at) WHERE is_active = TRUE;
@@ -0,0 +1,5 @@
+-- Lease taken by ChannelTokenRefresher while it refreshes a channel's OAuth token,
+-- so only one replica at a time spends a (possibly rotating) refresh token.
+ALTER TABLE channels ADD COLUMN IF NOT EXISTS token_refresh_until TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_channels_token_expires ON channels(token_expires_at) WHERE is_active = TRUE;
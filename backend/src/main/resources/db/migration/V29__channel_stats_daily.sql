@@ -0,0 +1,27 @@
+-- Daily follower rollup: one row per channel per calendar day holding the last
+-- follower count seen that day. Written by the sync path on every successful
+-- sync (even when the raw snapshot is skipped as unchanged), so timeline reads
+-- are a primary-key range scan instead of DISTINCT ON over raw snapshots and
+-- decoded chunks. Read through StatsTimeSeries.dailyFollowers.
+
+CREATE TABLE channel_stats_daily (
+    channel_id      BIGINT    NOT NULL REFERENCES channels(id) ON DELETE CASCADE,
+    day             DATE      NOT NULL,
+    followers_count BIGINT,
+    recorded_at     TIMESTAMP NOT NULL,
+    PRIMARY KEY (channel_id, day)
+);
+
+ALTER TABLE channel_stats_daily ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY "backend_full_access" ON channel_stats_daily
+    TO service_role USING (true) WITH CHECK (true);
+
+-- Seed from the hot rows; history already compacted into channel_stats_chunks
+-- is backfilled by StatsCompactor on startup
+INSERT INTO channel_stats_daily (channel_id, day, followers_count, recorded_at)
+SELECT DISTINCT ON (s.channel_id, CAST(s.recorded_at AS DATE))
+       s.channel_id, CAST(s.recorded_at AS DATE) AS day, s.followers_count, s.recorded_at
+FROM channel_stats s
+ORDER BY s.channel_id, CAST(s.recorded_at AS DATE), s.recorded_at DESC
+ON CONFLICT DO NOTHING;
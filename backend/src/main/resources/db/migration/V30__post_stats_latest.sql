@@ -0,0 +1,38 @@
+-- Latest stats per post, maintained by the sync path alongside post_stats.
+-- Channel totals, averages and top-N read this table (one row per post) through
+-- its covering index instead of picking MAX(recorded_at) per post out of the
+-- snapshot history.
+
+CREATE TABLE post_stats_latest (
+    post_id            BIGINT       PRIMARY KEY REFERENCES posts(id) ON DELETE CASCADE,
+    channel_id         BIGINT       NOT NULL REFERENCES channels(id) ON DELETE CASCADE,
+    recorded_at        TIMESTAMP    NOT NULL,
+    views_count        BIGINT       NOT NULL DEFAULT 0,
+    likes_count        BIGINT       NOT NULL DEFAULT 0,
+    comments_count     BIGINT       NOT NULL DEFAULT 0,
+    shares_count       BIGINT       NOT NULL DEFAULT 0,
+    saves_count        BIGINT       NOT NULL DEFAULT 0,
+    watch_time_seconds BIGINT       NOT NULL DEFAULT 0,
+    engagement_rate    DECIMAL(5,2)
+);
+
+-- Serves SUM(views), AVG(engagement_rate) and ORDER BY views DESC per channel as index-only scans
+CREATE INDEX idx_post_stats_latest_channel_views
+    ON post_stats_latest(channel_id, views_count DESC) INCLUDE (post_id, engagement_rate);
+
+ALTER TABLE post_stats_latest ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY "backend_full_access" ON post_stats_latest
+    TO service_role USING (true) WITH CHECK (true);
+
+-- The newest snapshot of every post is never compacted (V24), so the row table is enough
+INSERT INTO post_stats_latest (post_id, channel_id, recorded_at, views_count, likes_count, comments_count,
+                               shares_count, saves_count, watch_time_seconds, engagement_rate)
+SELECT DISTINCT ON (ps.post_id)
+       ps.post_id, p.channel_id, ps.recorded_at,
+       COALESCE(ps.views_count, 0), COALESCE(ps.likes_count, 0), COALESCE(ps.comments_count, 0),
+       COALESCE(ps.shares_count, 0), COALESCE(ps.saves_count, 0), COALESCE(ps.watch_time_seconds, 0),
+       ps.engagement_rate
+FROM post_stats ps
+JOIN posts p ON p.id = ps.post_id
+ORDER BY ps.post_id, ps.recorded_at DESC;
@@ -0,0 +1,10 @@
+-- Tracks which compacted chunks have been folded into channel_stats_daily (V29).
+-- Chunks that predate the rollup start unflagged and are backfilled by
+-- StatsCompactor on startup. Chunks written from now on only hold snapshots
+-- whose days the sync path already recorded, so they default to rolled up.
+
+ALTER TABLE channel_stats_chunks ADD COLUMN daily_rolled_up BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE channel_stats_chunks ALTER COLUMN daily_rolled_up SET DEFAULT true;
+
+CREATE INDEX idx_channel_stats_chunks_not_rolled_up
+    ON channel_stats_chunks(id) WHERE NOT daily_rolled_up;
@@ -0,0 +1,58 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AffiliateClickDailyRepositoryTest extends PostgresTest {
+
+    @Autowired
+    private AffiliateClickDailyRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long first;
+    private long second;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = new Fixtures(jdbc);
+        long projectId = fixtures.project();
+        first = fixtures.affiliateCampaign(projectId);
+        second = fixtures.affiliateCampaign(projectId);
+    }
+
+    @Test
+    void upsertAddsCountersAndCampaignTotals() {
+        repository.upsertClicks("[" + row(second, "2026-03-02", 4) + "," + row(first, "2026-03-01", 1) + ","
+                + row(first, "2026-03-02", 2) + "]");
+        repository.upsertClicks("[" + row(first, "2026-03-01", 3) + "]");
+
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM affiliate_click_daily WHERE campaign_id = ? AND date = '2026-03-01'",
+                Integer.class, first)).isEqualTo(4);
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM affiliate_campaigns WHERE id = ?", Long.class, first))
+                .isEqualTo(6L);
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM affiliate_campaigns WHERE id = ?", Long.class, second))
+                .isEqualTo(4L);
+    }
+
+    @Test
+    void rowsForDeletedCampaignsAreDropped() {
+        jdbc.update("DELETE FROM affiliate_campaigns WHERE id = ?", second);
+
+        repository.upsertClicks("[" + row(first, "2026-03-01", 1) + "," + row(second, "2026-03-01", 4) + "]");
+
+        assertThat(jdbc.queryForList("SELECT campaign_id FROM affiliate_click_daily", Long.class)).containsExactly(first);
+    }
+
+    private static String row(long id, String date, int total) {
+        return "{\"id\":" + id + ",\"date\":\"" + date + "\",\"total\":" + total + ",\"uniq\":" + total
+                + ",\"by_referer\":{},\"by_device\":{},\"sketch\":null,\"base_md5\":null}";
+    }
+}
@@ -0,0 +1,105 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PostStatsLatestRepositoryTest extends PostgresTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2026, 3, 1, 10, 0);
+    private static final LocalDateTime T2 = T1.plusHours(6);
+
+    @Autowired
+    private PostStatsLatestRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long channelId;
+    private long postA;
+    private long postB;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = new Fixtures(jdbc);
+        channelId = fixtures.channel(fixtures.project());
+        postA = fixtures.post(channelId, T1.minusDays(3));
+        postB = fixtures.post(channelId, T1.minusDays(2));
+    }
+
+    @Test
+    void olderRunArrivingLateDoesNotOverwriteTheNewerSnapshot() {
+        repository.upsertFromSync(channelId, rows(postA, 200, 20), T2);
+        repository.upsertFromSync(channelId, rows(postA, 100, 10), T1);
+
+        assertThat(views(postA)).isEqualTo(200);
+        assertThat(recordedAt(postA)).isEqualTo(T2);
+    }
+
+    @Test
+    void newerRunReplacesTheSnapshot() {
+        repository.upsertFromSync(channelId, rows(postA, 100, 10), T1);
+        repository.upsertFromSync(channelId, rows(postA, 200, 20), T2);
+
+        assertThat(views(postA)).isEqualTo(200);
+        assertThat(recordedAt(postA)).isEqualTo(T2);
+    }
+
+    @Test
+    void unchangedCountersAreLeftAlone() {
+        repository.upsertFromSync(channelId, rows(postA, 100, 10), T1);
+        assertThat(repository.upsertFromSync(channelId, rows(postA, 100, 10), T2)).isZero();
+        assertThat(recordedAt(postA)).isEqualTo(T1);
+    }
+
+    @Test
+    void rowsForUnknownPostsAreIgnored() {
+        String json = "[{\"platform_post_id\":\"missing\",\"views\":1,\"likes\":0,\"comments\":0,\"shares\":0}]";
+        assertThat(repository.upsertFromSync(channelId, json, T1)).isZero();
+    }
+
+    @Test
+    void channelAggregatesReadTheLatestRowPerPost() {
+        repository.upsertFromSync(channelId, rows(postA, 100, 10), T1);
+        repository.upsertFromSync(channelId, rows(postB, 400, 10), T1);
+        repository.upsertFromSync(channelId, rows(postA, 1_000, 50), T2);
+
+        assertThat(repository.getTotalViewsForChannel(channelId)).isEqualTo(1_400L);
+        // (5% + 2.5%) / 2
+        assertThat(repository.getAverageEngagementRateForChannel(channelId)).isCloseTo(3.75, within(0.001));
+        List<Object[]> top = repository.getTopPostsByViews(channelId, PageRequest.of(0, 1));
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0)[0]).isEqualTo(postA);
+        assertThat(top.get(0)[1]).isEqualTo(1_000L);
+    }
+
+    @Test
+    void emptyChannelHasNoTotals() {
+        assertThat(repository.getTotalViewsForChannel(channelId)).isNull();
+        assertThat(repository.getAverageEngagementRateForChannel(channelId)).isNull();
+    }
+
+    private String rows(long postId, long views, long likes) {
+        String platformId = jdbc.queryForObject("SELECT platform_post_id FROM posts WHERE id = ?", String.class, postId);
+        return "[{\"platform_post_id\":\"" + platformId + "\",\"views\":" + views + ",\"likes\":" + likes
+                + ",\"comments\":0,\"shares\":0}]";
+    }
+
+    private long views(long postId) {
+        return jdbc.queryForObject("SELECT views_count FROM post_stats_latest WHERE post_id = ?", Long.class, postId);
+    }
+
+    private LocalDateTime recordedAt(long postId) {
+        return jdbc.queryForObject("SELECT recorded_at FROM post_stats_latest WHERE post_id = ?", LocalDateTime.class, postId);
+    }
+}
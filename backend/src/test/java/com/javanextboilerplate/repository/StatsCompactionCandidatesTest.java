@@ -0,0 +1,79 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsCompactionCandidatesTest extends PostgresTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 3, 20, 0, 0);
+
+    @Autowired
+    private PostStatsRepository postStatsRepository;
+    @Autowired
+    private ChannelStatsRepository channelStatsRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Fixtures fixtures;
+    private long channelId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbc);
+        channelId = fixtures.channel(fixtures.project());
+    }
+
+    @Test
+    void postWithOnlyItsLatestSnapshotIsNotVisited() {
+        long stale = fixtures.post(channelId, CUTOFF.minusDays(60));
+        postStats(stale, CUTOFF.minusDays(30));
+
+        assertThat(postStatsRepository.findPostIdsWithStatsBefore(CUTOFF)).doesNotContain(stale);
+    }
+
+    @Test
+    void postWithAnOldSnapshotBehindItsLatestIsVisited() {
+        long oldOnly = fixtures.post(channelId, CUTOFF.minusDays(60));
+        postStats(oldOnly, CUTOFF.minusDays(30));
+        postStats(oldOnly, CUTOFF.minusDays(29));
+        long stillSynced = fixtures.post(channelId, CUTOFF.minusDays(60));
+        postStats(stillSynced, CUTOFF.minusDays(30));
+        postStats(stillSynced, CUTOFF.plusDays(1));
+        long hotOnly = fixtures.post(channelId, CUTOFF.minusDays(1));
+        postStats(hotOnly, CUTOFF.plusHours(1));
+        postStats(hotOnly, CUTOFF.plusHours(2));
+
+        assertThat(postStatsRepository.findPostIdsWithStatsBefore(CUTOFF))
+                .contains(oldOnly, stillSynced)
+                .doesNotContain(hotOnly);
+    }
+
+    @Test
+    void channelWithOnlyItsLatestSnapshotIsNotVisited() {
+        channelStats(channelId, CUTOFF.minusDays(30));
+        long synced = fixtures.channel(fixtures.project());
+        channelStats(synced, CUTOFF.minusDays(30));
+        channelStats(synced, CUTOFF.plusDays(1));
+
+        assertThat(channelStatsRepository.findChannelIdsWithStatsBefore(CUTOFF))
+                .contains(synced)
+                .doesNotContain(channelId);
+    }
+
+    private void postStats(long postId, LocalDateTime recordedAt) {
+        jdbc.update("INSERT INTO post_stats (post_id, recorded_at) VALUES (?, ?)", postId, Timestamp.valueOf(recordedAt));
+    }
+
+    private void channelStats(long channelId, LocalDateTime recordedAt) {
+        jdbc.update("INSERT INTO channel_stats (channel_id, recorded_at) VALUES (?, ?)", channelId, Timestamp.valueOf(recordedAt));
+    }
+}
@@ -0,0 +1,112 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncJobRepositoryTest extends PostgresTest {
+
+    @Autowired
+    private SyncJobRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long channelA;
+    private long channelB;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = new Fixtures(jdbc);
+        long projectId = fixtures.project();
+        channelA = fixtures.channel(projectId);
+        channelB = fixtures.channel(projectId);
+        jdbc.update("DELETE FROM sync_jobs");
+    }
+
+    @Test
+    void enqueueKeepsOneOpenJobPerChannel() {
+        assertThat(repository.enqueue(List.of(channelA, channelB))).isEqualTo(2);
+        assertThat(repository.enqueue(List.of(channelA, channelB))).isZero();
+    }
+
+    @Test
+    void claimTakesDueJobsOnceAndCountsTheAttempt() {
+        repository.enqueue(List.of(channelA, channelB));
+        jdbc.update("UPDATE sync_jobs SET run_after = NOW() + INTERVAL '1 hour' WHERE channel_id = ?", channelB);
+
+        List<Object[]> claimed = repository.claim("a", 10, 600, 5);
+        assertThat(claimed).hasSize(1);
+        assertThat(((Number) claimed.get(0)[1]).longValue()).isEqualTo(channelA);
+        assertThat(((Number) claimed.get(0)[2]).intValue()).isEqualTo(1);
+        assertThat(repository.claim("b", 10, 600, 5)).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndTheOldOwnerCannotFinish() {
+        repository.enqueue(List.of(channelA));
+        long jobId = ((Number) repository.claim("a", 10, 600, 5).get(0)[0]).longValue();
+        expireLease(jobId);
+
+        List<Object[]> reclaimed = repository.claim("b", 10, 600, 5);
+        assertThat(reclaimed).hasSize(1);
+        assertThat(((Number) reclaimed.get(0)[2]).intValue()).isEqualTo(2);
+
+        assertThat(repository.renewLeases(List.of(jobId), "a", 600)).isEmpty();
+        assertThat(repository.complete(jobId, "a")).isZero();
+        assertThat(repository.fail(jobId, "a", "late", 60, 5)).isZero();
+        assertThat(repository.complete(jobId, "b")).isEqualTo(1);
+    }
+
+    @Test
+    void renewedLeaseIsNotReclaimed() {
+        repository.enqueue(List.of(channelA));
+        long jobId = ((Number) repository.claim("a", 10, 600, 5).get(0)[0]).longValue();
+        expireLease(jobId);
+
+        assertThat(repository.renewLeases(List.of(jobId), "a", 600)).containsExactly(jobId);
+        assertThat(repository.claim("b", 10, 600, 5)).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseWithNoAttemptsLeftIsFailedByHousekeeping() {
+        repository.enqueue(List.of(channelA));
+        long jobId = ((Number) repository.claim("a", 10, 600, 1).get(0)[0]).longValue();
+        expireLease(jobId);
+
+        assertThat(repository.claim("b", 10, 600, 1)).isEmpty();
+        assertThat(repository.failAbandoned(1)).isEqualTo(1);
+        assertThat(status(jobId)).isEqualTo("FAILED");
+    }
+
+    @Test
+    void failRequeuesWithBackoffUntilTheLastAttempt() {
+        repository.enqueue(List.of(channelA));
+        long jobId = ((Number) repository.claim("a", 10, 600, 2).get(0)[0]).longValue();
+
+        assertThat(repository.fail(jobId, "a", "boom", 3600, 2)).isEqualTo(1);
+        assertThat(status(jobId)).isEqualTo("PENDING");
+        assertThat(repository.claim("a", 10, 600, 2)).isEmpty();
+
+        jdbc.update("UPDATE sync_jobs SET run_after = NOW() WHERE id = ?", jobId);
+        repository.claim("a", 10, 600, 2);
+        repository.fail(jobId, "a", "boom again", 60, 2);
+        assertThat(status(jobId)).isEqualTo("FAILED");
+        assertThat(repository.enqueue(List.of(channelA))).isEqualTo(1);
+    }
+
+    private void expireLease(long jobId) {
+        jdbc.update("UPDATE sync_jobs SET lease_expires_at = NOW() - INTERVAL '1 second' WHERE id = ?", jobId);
+    }
+
+    private String status(long jobId) {
+        return jdbc.queryForObject("SELECT status FROM sync_jobs WHERE id = ?", String.class, jobId);
+    }
+}
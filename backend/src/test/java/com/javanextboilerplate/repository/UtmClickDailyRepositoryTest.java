@@ -0,0 +1,123 @@
+package com.javanextboilerplate.repository;
+
+import com.javanextboilerplate.service.HyperLogLog;
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UtmClickDailyRepositoryTest extends PostgresTest {
+
+    private static final String DAY = "2026-03-01";
+
+    @Autowired
+    private UtmClickDailyRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long linkId;
+
+    @BeforeEach
+    void setUp() {
+        linkId = new Fixtures(jdbc).utmLink(new Fixtures(jdbc).project());
+    }
+
+    @Test
+    void upsertAddsCountersAndLinkTotal() {
+        repository.upsertClicks(row(3, 2, null, null));
+        repository.upsertClicks(row(4, 1, null, null));
+
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM utm_click_daily WHERE utm_link_id = ?", Integer.class, linkId))
+                .isEqualTo(7);
+        assertThat(jdbc.queryForObject("SELECT unique_clicks FROM utm_click_daily WHERE utm_link_id = ?", Integer.class, linkId))
+                .isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM utm_links WHERE id = ?", Long.class, linkId))
+                .isEqualTo(7L);
+    }
+
+    @Test
+    void rowsForDeletedLinksAreDropped() {
+        long deleted = new Fixtures(jdbc).utmLink(new Fixtures(jdbc).project());
+        jdbc.update("DELETE FROM utm_links WHERE id = ?", deleted);
+        String rows = row(2, 1, null, null).replace("}]", "},") + row(5, 5, null, null).substring(1)
+                .replace("\"id\":" + linkId, "\"id\":" + deleted);
+
+        repository.upsertClicks(rows);
+
+        assertThat(jdbc.queryForList("SELECT utm_link_id FROM utm_click_daily", Long.class)).containsExactly(linkId);
+        assertThat(jdbc.queryForObject("SELECT total_clicks FROM utm_links WHERE id = ?", Long.class, linkId))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void unchangedRowTakesTheMergedSketchAsIs() {
+        HyperLogLog stored = sketch(0, 500);
+        repository.upsertClicks(row(1, 1, stored, null));
+
+        Object[] read = repository.findSketches(keys()).get(0);
+        HyperLogLog merged = sketch(400, 900).merge((byte[]) read[2]);
+        repository.upsertClicks(row(1, 1, merged, (String) read[3]));
+
+        assertThat(storedSketch()).isEqualTo(merged.toBytes());
+    }
+
+    @Test
+    void rowWrittenInBetweenFallsBackToRegisterMerge() {
+        repository.upsertClicks(row(1, 1, sketch(0, 500), null));
+        Object[] read = repository.findSketches(keys()).get(0);
+        HyperLogLog ours = sketch(1_000, 1_500).merge((byte[]) read[2]);
+
+        // Another replica flushes between our read and our write
+        HyperLogLog theirs = sketch(2_000, 2_500);
+        repository.upsertClicks(row(1, 1, theirs, null));
+        repository.upsertClicks(row(1, 1, ours, (String) read[3]));
+
+        byte[] expected = HyperLogLog.fromBytes(ours.toBytes()).merge(theirs).merge(sketch(0, 500)).toBytes();
+        assertThat(storedSketch()).isEqualTo(expected);
+    }
+
+    @Test
+    void sqlMergeMatchesJavaMerge() {
+        HyperLogLog a = sketch(0, 3_000);
+        HyperLogLog b = sketch(2_000, 6_000);
+        byte[] merged = jdbc.queryForObject("SELECT hll_merge(?, ?)", byte[].class, a.toBytes(), b.toBytes());
+        assertThat(merged).isEqualTo(HyperLogLog.fromBytes(a.toBytes()).merge(b).toBytes());
+    }
+
+    @Test
+    void findSketchesSkipsRowsWithoutOne() {
+        repository.upsertClicks(row(1, 1, null, null));
+        assertThat(repository.findSketches(keys())).isEmpty();
+    }
+
+    private String keys() {
+        return "[{\"id\":" + linkId + ",\"date\":\"" + DAY + "\"}]";
+    }
+
+    private byte[] storedSketch() {
+        List<byte[]> rows = jdbc.queryForList("SELECT visitor_sketch FROM utm_click_daily WHERE utm_link_id = ?",
+                byte[].class, linkId);
+        return rows.get(0);
+    }
+
+    private String row(int total, int uniq, HyperLogLog sketch, String baseMd5) {
+        return "[{\"id\":" + linkId + ",\"date\":\"" + DAY + "\",\"total\":" + total + ",\"uniq\":" + uniq
+                + ",\"by_referer\":{\"Google\":" + total + "},\"by_device\":{\"Mobile\":" + total + "}"
+                + ",\"sketch\":" + (sketch == null ? "null" : "\"" + Base64.getEncoder().encodeToString(sketch.toBytes()) + "\"")
+                + ",\"base_md5\":" + (baseMd5 == null ? "null" : "\"" + baseMd5 + "\"") + "}]";
+    }
+
+    private static HyperLogLog sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) sketch.add(HyperLogLog.hash("visitor-" + i, "ua"));
+        return sketch;
+    }
+}
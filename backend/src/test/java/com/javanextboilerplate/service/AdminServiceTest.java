@@ -0,0 +1,40 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.User;
+import com.javanextboilerplate.repository.ChannelRepository;
+import com.javanextboilerplate.repository.SaasProjectRepository;
+import com.javanextboilerplate.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminServiceTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AdminService service = new AdminService(userService, userRepository,
+            mock(SaasProjectRepository.class), mock(ChannelRepository.class),
+            mock(ChannelSyncService.class), mock(SyncJobQueue.class));
+
+    @Test
+    void cachedUserIsEvictedOnlyOnceTheFlagHasCommitted() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).supabaseUserId("sb-1").isAdmin(true).build()));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.setAdmin(1L, false);
+            verify(userService, never()).evictCachedUser("sb-1");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userService).evictCachedUser("sb-1");
+    }
+}
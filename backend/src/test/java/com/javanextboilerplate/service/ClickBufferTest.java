@@ -0,0 +1,107 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.repository.AffiliateClickDailyRepository;
+import com.javanextboilerplate.repository.UtmClickDailyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ClickBufferTest {
+
+    private final AffiliateClickDailyRepository affiliateRepository = mock(AffiliateClickDailyRepository.class);
+    private final UtmClickDailyRepository utmRepository = mock(UtmClickDailyRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ClickBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ClickBuffer(affiliateRepository, utmRepository, objectMapper, new TrackingMetrics(registry));
+        ReflectionTestUtils.setField(buffer, "maxKeys", 2);
+    }
+
+    @Test
+    void fullBufferShedsNewKeysWithoutWriting() {
+        buffer.record(ClickBuffer.Target.UTM, 1L, "Google", "Desktop", true, 1L);
+        buffer.record(ClickBuffer.Target.UTM, 2L, "Google", "Desktop", true, 2L);
+        buffer.record(ClickBuffer.Target.UTM, 3L, "Google", "Desktop", true, 3L);
+        // Existing keys still aggregate
+        buffer.record(ClickBuffer.Target.UTM, 1L, "Google", "Desktop", false, 1L);
+
+        verifyNoInteractions(utmRepository, affiliateRepository);
+        assertThat(dropped("buffer_full")).isEqualTo(1);
+    }
+
+    @Test
+    void flushWritesRowsInRecordOrder() throws Exception {
+        ReflectionTestUtils.setField(buffer, "maxKeys", 100);
+        for (long id : new long[] {42, 7, 19, 3}) {
+            buffer.record(ClickBuffer.Target.UTM, id, "Google", "Mobile", true, id);
+        }
+        buffer.record(ClickBuffer.Target.UTM, 7L, "Reddit", "Desktop", false, 99L);
+
+        buffer.flush();
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(utmRepository).upsertClicks(json.capture());
+        verify(affiliateRepository, never()).upsertClicks(anyString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode row : objectMapper.readTree(json.getValue())) ids.add(row.get("id").asLong());
+        assertThat(ids).containsExactly(3L, 7L, 19L, 42L);
+        JsonNode seven = objectMapper.readTree(json.getValue()).get(1);
+        assertThat(seven.get("total").asInt()).isEqualTo(2);
+        assertThat(seven.get("uniq").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlushIsRequeuedAndRetried() {
+        buffer.record(ClickBuffer.Target.AFFILIATE, 1L, "Google", "Desktop", true, 1L);
+        doThrow(new QueryTimeoutException("timeout")).doNothing()
+                .when(affiliateRepository).upsertClicks(anyString());
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(affiliateRepository, times(2)).upsertClicks(anyString());
+        assertThat(dropped("flush_failed")).isZero();
+    }
+
+    @Test
+    void requeueDropsWhatNoLongerFitsAndCountsIt() {
+        buffer.record(ClickBuffer.Target.AFFILIATE, 1L, "Google", "Desktop", true, 1L);
+        buffer.record(ClickBuffer.Target.AFFILIATE, 1L, "Google", "Desktop", true, 2L);
+        // The failing flush runs while new clicks refill the buffer to its bound
+        doAnswer(inv -> {
+            buffer.record(ClickBuffer.Target.AFFILIATE, 5L, "Google", "Desktop", true, 5L);
+            buffer.record(ClickBuffer.Target.AFFILIATE, 6L, "Google", "Desktop", true, 6L);
+            throw new QueryTimeoutException("timeout");
+        }).when(affiliateRepository).upsertClicks(anyString());
+
+        buffer.flush();
+
+        assertThat(dropped("flush_failed")).isEqualTo(2);
+    }
+
+    private double dropped(String reason) {
+        var counter = registry.find("tracking.clicks.dropped").tag("reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
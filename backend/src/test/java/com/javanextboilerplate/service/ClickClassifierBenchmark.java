@@ -0,0 +1,108 @@
+package com.javanextboilerplate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClickClassifier against the per-click substring scans it replaced.
+ *
+ * Not a unit test (surefire only picks up *Test). Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     org.openjdk.jmh.Main ClickClassifierBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickClassifierBenchmark {
+
+    private static final List<String> AGENTS = List.of(
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+
+    private static final List<String> REFERERS = List.of(
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+            "https://t.co/AbCdEf123",
+            "https://www.reddit.com/r/programming/comments/xyz",
+            "https://news.example.org/article?id=42");
+
+    private static final Set<String> BOT_UA_FRAGMENTS = Set.of(
+            "bot", "crawler", "spider", "curl", "wget", "python", "go-http");
+
+    private ClickClassifier classifier;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        classifier = new ClickClassifier();
+    }
+
+    /** Repeat visitors: every UA is already cached. */
+    @Benchmark
+    public void classifierCachedAgent(Blackhole bh) {
+        bh.consume(classifier.classifyAgent(AGENTS.get(counter++ & 3)));
+    }
+
+    /** One-off UAs: every call misses the cache and runs the automaton. */
+    @Benchmark
+    public void classifierUncachedAgent(Blackhole bh) {
+        bh.consume(classifier.classifyAgent(AGENTS.get(counter & 3) + (counter++)));
+    }
+
+    @Benchmark
+    public void substringScanAgent(Blackhole bh) {
+        String ua = AGENTS.get(counter++ & 3);
+        String lower = ua.toLowerCase();
+        bh.consume(BOT_UA_FRAGMENTS.stream().anyMatch(lower::contains));
+        bh.consume(parseDevice(ua));
+    }
+
+    @Benchmark
+    public void classifierReferer(Blackhole bh) {
+        bh.consume(classifier.classifyReferer(REFERERS.get(counter++ & 3)));
+    }
+
+    @Benchmark
+    public void substringScanReferer(Blackhole bh) {
+        bh.consume(parseReferer(REFERERS.get(counter++ & 3)));
+    }
+
+    // Previous implementation, as it was in AffiliateCampaignService
+
+    private static String parseReferer(String referer) {
+        String r = referer.toLowerCase();
+        if (r.contains("youtube.com") || r.contains("youtu.be")) return "YouTube";
+        if (r.contains("t.co") || r.contains("twitter.com") || r.contains("x.com")) return "Twitter/X";
+        if (r.contains("instagram.com")) return "Instagram";
+        if (r.contains("reddit.com")) return "Reddit";
+        if (r.contains("linkedin.com")) return "LinkedIn";
+        if (r.contains("tiktok.com")) return "TikTok";
+        return "Other";
+    }
+
+    private static String parseDevice(String ua) {
+        if (ua.contains("iPad") || (ua.contains("Android") && ua.contains("Tablet"))) return "Tablet";
+        if (ua.contains("Mobile") || (ua.contains("Android") && !ua.contains("Tablet"))) return "Mobile";
+        return "Desktop";
+    }
+}
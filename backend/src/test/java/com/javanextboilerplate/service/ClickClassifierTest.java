@@ -0,0 +1,125 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.service.ClickClassifier.Agent;
+import com.javanextboilerplate.service.ClickClassifier.Device;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClickClassifierTest {
+
+    private final ClickClassifier classifier = new ClickClassifier();
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/120.0 Safari/537.36 | false | DESKTOP",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148 Safari/604.1     | false | MOBILE",
+            "Mozilla/5.0 (iPad; CPU OS 17_0 like Mac OS X) AppleWebKit/605.1.15                     | false | TABLET",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) Chrome/120.0 Mobile Safari/537.36            | false | MOBILE",
+            "Mozilla/5.0 (Linux; Android 13; SM-X700 Tablet) Chrome/120.0 Safari/537.36            | false | TABLET",
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)              | true  | DESKTOP",
+            "curl/8.4.0                                                                             | true  | DESKTOP",
+            "Go-http-client/2.0                                                                     | true  | DESKTOP",
+            "python-requests/2.31 (Android)                                                         | true  | MOBILE",
+    })
+    void classifiesCommonAgents(String ua, boolean bot, Device device) {
+        assertThat(classifier.classifyAgent(ua)).isEqualTo(new Agent(bot, device));
+    }
+
+    @Test
+    void missingAgentCountsAsBot() {
+        assertThat(classifier.classifyAgent(null).bot()).isTrue();
+        assertThat(classifier.classifyAgent("  ").bot()).isTrue();
+    }
+
+    @Test
+    void botFragmentsMatchInAnyCaseDeviceTokensOnlyAsWritten() {
+        assertThat(classifier.classifyAgent("SomeCRAWLER/1.0").bot()).isTrue();
+        assertThat(classifier.classifyAgent("WGET").bot()).isTrue();
+        assertThat(classifier.classifyAgent("custom ipad android mobile").device()).isEqualTo(Device.DESKTOP);
+        assertThat(classifier.classifyAgent("custom MOBILE").device()).isEqualTo(Device.DESKTOP);
+    }
+
+    @Test
+    void findsOverlappingAndNestedPatterns() {
+        // "robot" ends in "bot"; "spiderbot" holds two fragments; failure links must carry partial matches
+        assertThat(classifier.classifyAgent("SuperRobot").bot()).isTrue();
+        assertThat(classifier.classifyAgent("spiderbot").bot()).isTrue();
+        assertThat(classifier.classifyAgent("bo bo t").bot()).isFalse();
+        assertThat(classifier.classifyAgent("crawlecrawler").bot()).isTrue();
+        assertThat(classifier.classifyAgent("AndroidTablet").device()).isEqualTo(Device.TABLET);
+        assertThat(classifier.classifyAgent("AndAndroid").device()).isEqualTo(Device.MOBILE);
+    }
+
+    @Test
+    void nonAsciiBreaksAMatch() {
+        assertThat(classifier.classifyAgent("boöt").bot()).isFalse();
+        assertThat(classifier.classifyAgent("éboté").bot()).isTrue();
+    }
+
+    @Test
+    void agreesWithPlainSubstringScanOnRandomInput() {
+        String alphabet = "botBOTcrawlerspidCURLwgetpythongo-httpiPadAndroidTabletMobile ;/é";
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder ua = new StringBuilder();
+            int length = 1 + random.nextInt(40);
+            for (int i = 0; i < length; i++) ua.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String s = ua.toString();
+            if (s.isBlank()) continue;
+            assertThat(classifier.classifyAgent(s)).as(s).isEqualTo(naive(s));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "https://www.youtube.com/watch?v=1        | YouTube",
+            "https://youtu.be/abc                     | YouTube",
+            "https://t.co/xyz                         | Twitter/X",
+            "https://mobile.twitter.com/u             | Twitter/X",
+            "https://x.com/u/status/1                 | Twitter/X",
+            "https://WWW.REDDIT.COM/r/java            | Reddit",
+            "https://old.reddit.com:443/r/java        | Reddit",
+            "https://user:pw@www.linkedin.com/feed    | LinkedIn",
+            "https://www.tiktok.com/@someone          | TikTok",
+            "https://www.google.com/search?q=x        | Google",
+            "instagram.com/p/abc                      | Instagram",
+            "https://notyoutube.com/                  | Other",
+            "https://youtube.com.evil.example/        | Other",
+            "https://example.com/?next=https://t.co/x | Other",
+            "https://example.com#x.com                | Other",
+    })
+    void classifiesRefererByHost(String referer, String platform) {
+        assertThat(classifier.classifyReferer(referer)).isEqualTo(platform);
+    }
+
+    @Test
+    void blankRefererIsDirect() {
+        assertThat(classifier.classifyReferer(null)).isEqualTo("Direct");
+        assertThat(classifier.classifyReferer("")).isEqualTo("Direct");
+    }
+
+    /** The substring checks the automaton replaced, restricted to the ASCII runs the automaton sees. */
+    private static Agent naive(String ua) {
+        boolean bot = false;
+        boolean iPad = false, android = false, tablet = false, mobile = false;
+        for (String run : ua.split("[^\\x00-\\x7F]")) {
+            String lower = run.toLowerCase();
+            for (String fragment : new String[] {"bot", "crawler", "spider", "curl", "wget", "python", "go-http"}) {
+                bot |= lower.contains(fragment);
+            }
+            iPad |= run.contains("iPad");
+            android |= run.contains("Android");
+            tablet |= run.contains("Tablet");
+            mobile |= run.contains("Mobile");
+        }
+        Device device = iPad || (android && tablet) ? Device.TABLET
+                : mobile || android ? Device.MOBILE
+                : Device.DESKTOP;
+        return new Agent(bot, device);
+    }
+}
@@ -0,0 +1,87 @@
+package com.javanextboilerplate.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    /** Three standard errors at precision 10 (1.04 / sqrt(1024) ≈ 3.25%). */
+    private static final double TOLERANCE = 0.0975;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1_000, 10_000, 100_000, 1_000_000})
+    void estimatesDistinctVisitorsWithinThreeStandardErrors(int distinct) {
+        HyperLogLog sketch = sketchOf(0, distinct);
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * TOLERANCE)));
+    }
+
+    @Test
+    void repeatedVisitorsAreCountedOnce() {
+        HyperLogLog sketch = sketchOf(0, 5_000);
+        long once = sketch.estimate();
+        for (int round = 0; round < 3; round++) sketch.merge(sketchOf(0, 5_000));
+        assertThat(sketch.estimate()).isEqualTo(once);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        // [0, 60k) ∪ [40k, 100k) = 100k distinct
+        HyperLogLog a = sketchOf(0, 60_000);
+        HyperLogLog b = sketchOf(40_000, 100_000);
+        long union = HyperLogLog.fromBytes(a.toBytes()).merge(b).estimate();
+        assertThat((double) union).isCloseTo(100_000, within(100_000 * TOLERANCE));
+        // Same registers as one sketch fed everything
+        assertThat(HyperLogLog.fromBytes(a.toBytes()).merge(b).toBytes()).isEqualTo(sketchOf(0, 100_000).toBytes());
+    }
+
+    @Test
+    void mergeIsCommutativeAndIdempotent() {
+        HyperLogLog a = sketchOf(0, 3_000);
+        HyperLogLog b = sketchOf(2_000, 9_000);
+        byte[] ab = HyperLogLog.fromBytes(a.toBytes()).merge(b).toBytes();
+        byte[] ba = HyperLogLog.fromBytes(b.toBytes()).merge(a).toBytes();
+        assertThat(ab).isEqualTo(ba);
+        assertThat(HyperLogLog.fromBytes(ab).merge(b).toBytes()).isEqualTo(ab);
+    }
+
+    @Test
+    void mergingStoredBytesMatchesMergingSketches() {
+        HyperLogLog a = sketchOf(0, 1_000);
+        HyperLogLog b = sketchOf(500, 4_000);
+        assertThat(HyperLogLog.fromBytes(a.toBytes()).merge(b.toBytes()).toBytes())
+                .isEqualTo(HyperLogLog.fromBytes(a.toBytes()).merge(b).toBytes());
+    }
+
+    @Test
+    void storedBytesRoundTripAndMalformedInputIsIgnored() {
+        HyperLogLog sketch = sketchOf(0, 2_000);
+        assertThat(sketch.toBytes()).hasSize(HyperLogLog.REGISTERS);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes()).estimate()).isEqualTo(sketch.estimate());
+
+        assertThat(HyperLogLog.fromBytes(null).estimate()).isZero();
+        assertThat(HyperLogLog.fromBytes(new byte[16]).estimate()).isZero();
+        assertThat(sketch.merge(new byte[16]).estimate()).isEqualTo(HyperLogLog.fromBytes(sketch.toBytes()).estimate());
+    }
+
+    @Test
+    void hashSeparatesItsTwoParts() {
+        assertThat(HyperLogLog.hash("1.2.3.4", "ua")).isEqualTo(HyperLogLog.hash("1.2.3.4", "ua"));
+        assertThat(HyperLogLog.hash("1.2.3.4", "ua")).isNotEqualTo(HyperLogLog.hash("1.2.3.4u", "a"));
+        assertThat(HyperLogLog.hash(null, "ua")).isNotEqualTo(HyperLogLog.hash("ua", null));
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) sketch.add(HyperLogLog.hash("10." + (i >>> 16) + "." + ((i >>> 8) & 255) + "." + (i & 255), "Mozilla/5.0"));
+        return sketch;
+    }
+}
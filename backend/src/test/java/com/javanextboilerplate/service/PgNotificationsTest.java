@@ -0,0 +1,69 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PgNotificationsTest extends PostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private PgNotifications notifications;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        notifications = new PgNotifications(jdbcTemplate, dataSource.getUrl(),
+                dataSource.getUsername(), dataSource.getPassword(), 50);
+        notifications.listen("test_channel", received::add);
+        notifications.start();
+        for (int i = 0; i < 100 && notifications.listeningSince() == null; i++) Thread.sleep(50);
+        assertThat(notifications.listeningSince()).isNotNull();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notifications.stop();
+    }
+
+    @Test
+    void deliversPublishedPayloads() throws InterruptedException {
+        notifications.publish("test_channel", "hello");
+        notifications.publish("other_channel", "ignored");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("hello");
+        assertThat(received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void deliversOnCommitAndDropsOnRollback() throws InterruptedException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            notifications.publish("test_channel", "rolled back");
+            status.setRollbackOnly();
+        });
+        tx.executeWithoutResult(status -> notifications.publish("test_channel", "committed"));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("committed");
+    }
+}
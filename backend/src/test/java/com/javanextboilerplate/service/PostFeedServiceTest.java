@@ -0,0 +1,125 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.dto.response.PostResponse;
+import com.javanextboilerplate.repository.PostRepository;
+import com.javanextboilerplate.repository.PostStatsLatestRepository;
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class PostFeedServiceTest extends PostgresTest {
+
+    private static final LocalDateTime TIE = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostStatsLatestRepository postStatsLatestRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private PostFeedService feed;
+    private long channelId;
+    private final List<Long> tied = new ArrayList<>();
+    private long newer;
+    private long older;
+
+    @BeforeEach
+    void setUp() {
+        feed = new PostFeedService(postRepository, postStatsLatestRepository, mock(StatsTimeSeries.class));
+        Fixtures fixtures = new Fixtures(jdbc);
+        channelId = fixtures.channel(fixtures.project());
+        older = fixtures.post(channelId, TIE.minusHours(1));
+        for (int i = 0; i < 5; i++) tied.add(fixtures.post(channelId, TIE));
+        newer = fixtures.post(channelId, TIE.plusHours(1));
+        fixtures.post(channelId, TIE.minusDays(30));
+    }
+
+    @Test
+    void unpagedReturnsTheWholeWindow() {
+        PostFeedService.Page page = feed.recentPosts(List.of(channelId), 7, PostFeedService.UNPAGED, null, 0);
+        assertThat(ids(page)).containsExactly(newer, tied.get(4), tied.get(3), tied.get(2), tied.get(1), tied.get(0), older);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void pagesThroughEqualPublishTimesWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PostFeedService.Page page = feed.recentPosts(List.of(channelId), 7, 2, cursor, 0);
+            seen.addAll(ids(page));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).containsExactly(newer, tied.get(4), tied.get(3), tied.get(2), tied.get(1), tied.get(0), older);
+    }
+
+    @Test
+    void cursorInsideATieResumesBelowItsId() {
+        // Ids on either side of the cursor share its published_at
+        String cursor = TIE + "_" + tied.get(2);
+        PostFeedService.Page page = feed.recentPosts(List.of(channelId), 7, 10, cursor, 0);
+        assertThat(ids(page)).containsExactly(tied.get(1), tied.get(0), older);
+    }
+
+    @Test
+    void cursorEndsExactlyAtTheLastPost() {
+        PostFeedService.Page page = feed.recentPosts(List.of(channelId), 7, 6, null, 0);
+        assertThat(page.nextCursor()).isEqualTo(TIE + "_" + tied.get(0));
+        PostFeedService.Page last = feed.recentPosts(List.of(channelId), 7, 6, page.nextCursor(), 0);
+        assertThat(ids(last)).containsExactly(older);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> feed.recentPosts(List.of(channelId), 7, 10, "yesterday", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void windowIsClampedToMaxDays() {
+        long ancient = new Fixtures(jdbc).post(channelId, LocalDateTime.now().minusDays(PostFeedService.MAX_DAYS + 10));
+        PostFeedService.Page page = feed.recentPosts(List.of(channelId), 100_000, PostFeedService.UNPAGED, null, 0);
+        assertThat(ids(page)).hasSize(8).doesNotContain(ancient);
+    }
+
+    @Test
+    void unpagedStopsAtMaxLimitAndHandsBackACursor() {
+        Fixtures fixtures = new Fixtures(jdbc);
+        for (int i = 0; i < PostFeedService.MAX_LIMIT; i++) fixtures.post(channelId, TIE.minusHours(2));
+
+        PostFeedService.Page page = feed.recentPosts(List.of(channelId), 7, PostFeedService.UNPAGED, null, 0);
+        assertThat(page.posts()).hasSize(PostFeedService.MAX_LIMIT);
+        assertThat(page.nextCursor()).isNotNull();
+
+        PostFeedService.Page rest = feed.recentPosts(List.of(channelId), 7, 10, page.nextCursor(), 0);
+        assertThat(page.posts().size() + rest.posts().size()).isEqualTo(PostFeedService.MAX_LIMIT + 7);
+    }
+
+    @Test
+    void unpagedSparklinesAreRejected() {
+        assertThatThrownBy(() -> feed.recentPosts(List.of(channelId), 7, PostFeedService.UNPAGED, null, 30))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> ids(PostFeedService.Page page) {
+        return page.posts().stream().map(PostResponse::getId).toList();
+    }
+}
@@ -0,0 +1,160 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.repository.LinkedChannelRepository;
+import com.javanextboilerplate.repository.SeoAuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Two replicas joined by an in-memory stand-in for LISTEN/NOTIFY. */
+class ProjectEventHubTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Map<String, List<Consumer<String>>> bus = new ConcurrentHashMap<>();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final List<ProjectEventHub> hubs = new ArrayList<>();
+    private volatile boolean listening = true;
+
+    private ProjectEventHub a;
+    private ProjectEventHub b;
+    private SimpleMeterRegistry bRegistry;
+
+    @BeforeEach
+    void setUp() {
+        a = replica(new SimpleMeterRegistry(), 20_000);
+        bRegistry = new SimpleMeterRegistry();
+        b = replica(bRegistry, 20_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hubs.forEach(ProjectEventHub::close);
+    }
+
+    @Test
+    void clicksOnOneReplicaArePublishedForAStreamOnAnother() {
+        b.subscribe(7L);
+
+        a.click(7L, SlugRoutingTable.Kind.UTM, 11L, true);
+        a.click(7L, SlugRoutingTable.Kind.UTM, 11L, false);
+        a.flush();
+
+        assertThat(events).hasSize(1);
+        ProjectEventHub.Message message = read(events.get(0));
+        assertThat(message.projectId()).isEqualTo(7L);
+        assertThat(message.utm()).containsExactly(new ProjectEventHub.ClickDelta(11L, 2, 1));
+    }
+
+    @Test
+    void unwatchedProjectsProduceNothing() {
+        b.subscribe(7L);
+
+        a.click(8L, SlugRoutingTable.Kind.AFFILIATE, 3L, true);
+        a.channelSynced(5L, 8L, 100, LocalDateTime.now());
+        a.flush();
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void remoteWatchesExpireWithoutHeartbeats() throws Exception {
+        ProjectEventHub fast = replica(new SimpleMeterRegistry(), 1);
+        b.subscribe(7L);
+        Thread.sleep(20);
+
+        fast.click(7L, SlugRoutingTable.Kind.UTM, 11L, true);
+        fast.flush();
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void deliversLocallyWhenNotListening() {
+        listening = false;
+        a.subscribe(7L);
+
+        a.click(7L, SlugRoutingTable.Kind.UTM, 11L, true);
+        a.flush();
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void deletingAProjectClosesStreamsOnEveryReplica() throws Exception {
+        b.subscribe(7L);
+        assertThat(bRegistry.get("live.subscribers").gauge().value()).isEqualTo(1);
+
+        a.closeProject(7L);
+
+        for (int i = 0; i < 100 && bRegistry.get("live.subscribers").gauge().value() > 0; i++) Thread.sleep(10);
+        assertThat(bRegistry.get("live.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void largeWindowsAreSplitUnderTheNotifyLimit() throws Exception {
+        ProjectEventHub.Window window = new ProjectEventHub.Window();
+        for (long id = 0; id < 120; id++) window.utmClicks.put(id, new int[] {1_000_000, 1_000_000});
+        for (long id = 0; id < 40; id++) {
+            window.channels.put(id, new ProjectEventHub.ChannelSynced(Long.MAX_VALUE - id, Long.MAX_VALUE, LocalDateTime.now()));
+        }
+
+        List<ProjectEventHub.Message> messages = ProjectEventHub.split(7L, window);
+
+        assertThat(messages).hasSize(4);
+        assertThat(messages.stream().mapToInt(m -> m.utm().size()).sum()).isEqualTo(120);
+        assertThat(messages.stream().mapToInt(m -> m.channels().size()).sum()).isEqualTo(40);
+        for (ProjectEventHub.Message message : messages) {
+            assertThat(message.utm().size() + message.affiliate().size() + message.channels().size())
+                    .isLessThanOrEqualTo(ProjectEventHub.MAX_ENTRIES_PER_MESSAGE);
+            assertThat(objectMapper.writeValueAsString(message).length()).isLessThan(8000);
+        }
+    }
+
+    private ProjectEventHub replica(SimpleMeterRegistry registry, long heartbeatMs) {
+        PgNotifications notifications = mock(PgNotifications.class);
+        when(notifications.listeningSince()).thenAnswer(inv -> listening ? Instant.now() : null);
+        doAnswer(inv -> {
+            bus.computeIfAbsent(inv.getArgument(0), c -> new CopyOnWriteArrayList<>()).add(inv.getArgument(1));
+            return null;
+        }).when(notifications).listen(anyString(), any());
+        doAnswer(inv -> {
+            String channel = inv.getArgument(0);
+            String payload = inv.getArgument(1);
+            if (channel.equals(ProjectEventHub.EVENTS_CHANNEL)) events.add(payload);
+            bus.getOrDefault(channel, List.of()).forEach(handler -> handler.accept(payload));
+            return null;
+        }).when(notifications).publish(anyString(), anyString());
+
+        ProjectEventHub hub = new ProjectEventHub(mock(LinkedChannelRepository.class), mock(SeoAuditRepository.class),
+                notifications, objectMapper, registry, 60_000, heartbeatMs);
+        hub.listen();
+        hubs.add(hub);
+        return hub;
+    }
+
+    private ProjectEventHub.Message read(String payload) {
+        try {
+            return objectMapper.readValue(payload, ProjectEventHub.Message.class);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.javanextboilerplate.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlugBloomFilterTest {
+
+    @Test
+    void containsEverySlugAdded() {
+        List<String> slugs = slugs("known", 5_000);
+        SlugBloomFilter filter = SlugBloomFilter.of(slugs, 0);
+        assertThat(slugs).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositivesStayNearOnePercentAtCapacity() {
+        SlugBloomFilter filter = SlugBloomFilter.of(slugs("known", 20_000), 0);
+        long falsePositives = slugs("unknown", 100_000).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+    }
+
+    @Test
+    void headroomKeepsTheRateDownForLaterAdds() {
+        SlugBloomFilter filter = SlugBloomFilter.of(slugs("known", 1_000), 10_000);
+        slugs("later", 10_000).forEach(filter::add);
+        long falsePositives = slugs("unknown", 100_000).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+    }
+
+    @Test
+    void emptyFilterRejectsEverything() {
+        SlugBloomFilter filter = new SlugBloomFilter(0);
+        assertThat(slugs("x", 100)).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        SlugBloomFilter filter = new SlugBloomFilter(80_000);
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 8).forEach(t -> executor.execute(() -> slugs("t" + t, 10_000).forEach(filter::add)));
+        }
+        for (int t = 0; t < 8; t++) {
+            assertThat(slugs("t" + t, 10_000)).allMatch(filter::mightContain);
+        }
+    }
+
+    private static List<String> slugs(String prefix, int count) {
+        List<String> slugs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) slugs.add(prefix + "-" + Integer.toHexString(i));
+        return slugs;
+    }
+}
@@ -0,0 +1,266 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.AffiliateCampaign;
+import com.javanextboilerplate.entity.UtmLink;
+import com.javanextboilerplate.repository.AffiliateCampaignRepository;
+import com.javanextboilerplate.repository.UtmLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlugRoutingTableTest {
+
+    private final AffiliateCampaignRepository campaignRepository = mock(AffiliateCampaignRepository.class);
+    private final UtmLinkRepository linkRepository = mock(UtmLinkRepository.class);
+    private final PgNotifications notifications = mock(PgNotifications.class);
+    private final List<String> campaignSlugs = new ArrayList<>();
+    private SlugRoutingTable table;
+    private Consumer<String> slugCreated;
+    private Consumer<String> slugDeleted;
+    private Consumer<String> projectDeleted;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        table = new SlugRoutingTable(campaignRepository, linkRepository, notifications);
+        table.listen();
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(notifications).listen(eq("slug_created"), handler.capture());
+        slugCreated = handler.getValue();
+        verify(notifications).listen(eq("slug_deleted"), handler.capture());
+        slugDeleted = handler.getValue();
+        verify(notifications).listen(eq("slug_project_deleted"), handler.capture());
+        projectDeleted = handler.getValue();
+
+        when(campaignRepository.findAllSlugs()).thenAnswer(inv -> List.copyOf(campaignSlugs));
+        when(linkRepository.findAllSlugs()).thenReturn(List.of());
+        when(campaignRepository.findBySlug(anyString())).thenReturn(Optional.empty());
+        when(linkRepository.findBySlug(anyString())).thenReturn(Optional.empty());
+        when(notifications.listeningSince()).thenReturn(Instant.now().minusSeconds(60));
+    }
+
+    @Test
+    void activeRoutesResolveWithoutTheDatabase() {
+        AffiliateCampaign campaign = campaign("promo", true);
+        when(campaignRepository.findByIsActiveTrue()).thenReturn(List.of(campaign));
+        campaignSlugs.add("promo");
+        table.reload();
+
+        assertThat(table.resolve("promo")).get().extracting(SlugRoutingTable.Route::recordId).isEqualTo(1L);
+        verify(campaignRepository, never()).findBySlug(anyString());
+    }
+
+    @Test
+    void unknownSlugIsRejectedByTheFilter() {
+        table.reload();
+        assertThat(table.resolve("nope")).isEmpty();
+        verify(campaignRepository, never()).findBySlug(anyString());
+    }
+
+    @Test
+    void everyMissGoesToTheDatabaseBeforeTheFirstLoad() {
+        table.resolve("nope");
+        verify(campaignRepository).findBySlug("nope");
+    }
+
+    @Test
+    void everyMissGoesToTheDatabaseWhileNotListening() {
+        table.reload();
+        when(notifications.listeningSince()).thenReturn(null);
+        table.resolve("nope");
+        verify(campaignRepository).findBySlug("nope");
+    }
+
+    @Test
+    void filterIsDistrustedAfterReconnectUntilTheNextSync() {
+        table.reload();
+        when(notifications.listeningSince()).thenReturn(Instant.now().plusSeconds(1));
+        table.resolve("nope");
+        verify(campaignRepository).findBySlug("nope");
+
+        when(notifications.listeningSince()).thenReturn(Instant.now().minusSeconds(1));
+        table.syncNewSlugs();
+        table.resolve("other");
+        verify(campaignRepository, never()).findBySlug("other");
+    }
+
+    @Test
+    void slugCreatedOnAnotherReplicaFallsThroughToTheDatabase() {
+        table.reload();
+        AffiliateCampaign campaign = campaign("remote", true);
+        when(campaignRepository.findBySlug("remote")).thenReturn(Optional.of(campaign));
+
+        slugCreated.accept("remote");
+
+        assertThat(table.resolve("remote")).isPresent();
+    }
+
+    @Test
+    void putAddsTheSlugAndTellsOtherReplicas() {
+        table.reload();
+        AffiliateCampaign campaign = campaign("local", true);
+        table.put(campaign);
+
+        verify(notifications).publish("slug_created", "local");
+        assertThat(table.resolve("local")).isPresent();
+    }
+
+    @Test
+    void inactivePutIsKnownButNotRouted() {
+        table.reload();
+        table.put(campaign("paused", false));
+        assertThat(table.resolve("paused")).isEmpty();
+        verify(campaignRepository).findBySlug("paused");
+    }
+
+    @Test
+    void reloadDropsRoutesThatAreNoLongerActive() {
+        AffiliateCampaign campaign = campaign("gone", true);
+        table.put(campaign);
+        table.reload();
+        assertThat(table.resolve("gone")).isEmpty();
+    }
+
+    @Test
+    void syncAddsSlugsCreatedSinceTheLastRun() {
+        table.reload();
+        when(campaignRepository.findSlugsCreatedSince(any(LocalDateTime.class))).thenReturn(List.of("synced"));
+        table.syncNewSlugs();
+
+        table.resolve("synced");
+        verify(campaignRepository).findBySlug("synced");
+    }
+
+    @Test
+    void slugAddedWhileReloadIsQueryingSurvivesTheSwap() {
+        table.reload();
+        // The slug is created after the slug query has read the table but before the new filter is swapped in
+        when(linkRepository.findAllSlugs()).thenAnswer(inv -> {
+            slugCreated.accept("racing");
+            return List.of();
+        });
+        table.reload();
+
+        table.resolve("racing");
+        verify(campaignRepository).findBySlug("racing");
+    }
+
+    @Test
+    void routeChangesWaitForTheCommit() {
+        table.reload();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            table.put(campaign("pending", true));
+            assertThat(table.resolve("pending")).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(table.resolve("pending")).isPresent();
+    }
+
+    @Test
+    void removeTellsOtherReplicasAndDropsTheRouteOnCommit() {
+        table.reload();
+        table.put(campaign("promo", true));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            table.remove("promo");
+            verify(notifications).publish("slug_deleted", "promo");
+            assertThat(table.resolve("promo")).isPresent();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(table.resolve("promo")).isEmpty();
+    }
+
+    @Test
+    void slugDeletedOnAnotherReplicaStopsRedirecting() {
+        AffiliateCampaign campaign = campaign("promo", true);
+        when(campaignRepository.findByIsActiveTrue()).thenReturn(List.of(campaign));
+        campaignSlugs.add("promo");
+        table.reload();
+
+        slugDeleted.accept("promo");
+
+        assertThat(table.resolve("promo")).isEmpty();
+    }
+
+    @Test
+    void projectDeletedOnAnotherReplicaDropsItsRoutes() {
+        table.reload();
+        table.put(campaign("promo", true));
+
+        projectDeleted.accept("1");
+
+        assertThat(table.resolve("promo")).isEmpty();
+    }
+
+    @Test
+    void missThatReadTheRowBeforeTheDeleteDoesNotCacheIt() {
+        campaignSlugs.add("racing");
+        table.reload();
+        AffiliateCampaign campaign = campaign("racing", true);
+        // The delete commits after the lookup has read the row
+        when(campaignRepository.findBySlug("racing")).thenAnswer(inv -> {
+            slugDeleted.accept("racing");
+            return Optional.of(campaign);
+        }).thenReturn(Optional.empty());
+
+        assertThat(table.resolve("racing")).isPresent();
+        assertThat(table.resolve("racing")).isEmpty();
+    }
+
+    @Test
+    void reloadDoesNotBringBackARouteDeletedWhileItRan() {
+        campaignSlugs.add("racing");
+        table.reload();
+        AffiliateCampaign campaign = campaign("racing", true);
+        when(campaignRepository.findByIsActiveTrue()).thenAnswer(inv -> {
+            slugDeleted.accept("racing");
+            return List.of(campaign);
+        });
+        table.reload();
+
+        assertThat(table.resolve("racing")).isEmpty();
+        verify(campaignRepository).findBySlug("racing");
+    }
+
+    @Test
+    void buildsUtmDestinations() {
+        UtmLink link = UtmLink.builder()
+                .id(7L).projectId(1L).slug("s").destinationUrl("https://example.com/p?x=1")
+                .utmSource("news").utmMedium("email").utmCampaign("spring sale").utmTerm(" ")
+                .build();
+        assertThat(SlugRoutingTable.buildUtmUrl(link))
+                .isEqualTo("https://example.com/p?x=1&utm_source=news&utm_medium=email&utm_campaign=spring sale");
+    }
+
+    private static AffiliateCampaign campaign(String slug, boolean active) {
+        return AffiliateCampaign.builder()
+                .id(1L).projectId(1L).slug(slug).name(slug).destinationUrl("https://example.com")
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.javanextboilerplate.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatsChunkCodecTest {
+
+    private static final long DAY = 86_400;
+    private static final long START = 1_767_225_600L; // 2026-01-01T00:00:00Z
+
+    @Test
+    void roundTripsDecreasingCountersThroughZigzag() {
+        StatsChunkCodec.Series series = series(
+                new long[] {START, START + DAY, START + 2 * DAY, START + 3 * DAY},
+                new long[] {1_000, 990, 10, -5});
+        assertRoundTrip(series);
+    }
+
+    @Test
+    void roundTripsNullSentinelsNextToRealValues() {
+        long nil = StatsChunkCodec.NULL;
+        StatsChunkCodec.Series series = series(
+                new long[] {START, START + DAY, START + 2 * DAY, START + 3 * DAY, START + 4 * DAY},
+                new long[] {nil, 5, nil, nil, Long.MAX_VALUE},
+                new long[] {0, nil, -1, Long.MAX_VALUE, nil});
+        assertRoundTrip(series);
+    }
+
+    @Test
+    void roundTripsRandomSeries() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(50);
+            long[] times = new long[n];
+            long[][] columns = new long[3][n];
+            long t = START;
+            for (int i = 0; i < n; i++) {
+                t += random.nextInt(2 * (int) DAY);
+                times[i] = t;
+                for (int c = 0; c < 3; c++) {
+                    columns[c][i] = switch (random.nextInt(4)) {
+                        case 0 -> StatsChunkCodec.NULL;
+                        case 1 -> random.nextLong();
+                        default -> random.nextInt(1_000_000) - 500_000;
+                    };
+                }
+            }
+            assertRoundTrip(new StatsChunkCodec.Series(times, columns));
+        }
+    }
+
+    @Test
+    void roundTripsEmptySeries() {
+        StatsChunkCodec.Series decoded = StatsChunkCodec.decode(StatsChunkCodec.encode(StatsChunkCodec.Series.empty(7)));
+        assertThat(decoded.size()).isZero();
+        assertThat(decoded.columns()).hasNumberOfRows(7);
+    }
+
+    @Test
+    void slowlyMovingDailySnapshotsCostAFewBytesPerColumn() {
+        int n = 31;
+        long[] times = new long[n];
+        long[] followers = new long[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = START + i * DAY;
+            followers[i] = 120_000 + i * 37;
+        }
+        byte[] payload = StatsChunkCodec.encode(series(times, followers));
+        // 31 points x 2 columns: the first point of each column is a few bytes, the rest 2-3
+        assertThat(payload.length).isLessThan(n * 2 * 3 + 20);
+    }
+
+    @Test
+    void mergeInterleavesAndLetsTheSecondSeriesWinOnEqualTimes() {
+        StatsChunkCodec.Series stored = series(
+                new long[] {START, START + 2 * DAY, START + 4 * DAY},
+                new long[] {10, 30, 50});
+        StatsChunkCodec.Series incoming = series(
+                new long[] {START + DAY, START + 2 * DAY, START + 5 * DAY},
+                new long[] {20, 31, 60});
+
+        StatsChunkCodec.Series merged = StatsChunkCodec.merge(stored, incoming);
+
+        assertThat(merged.times()).containsExactly(START, START + DAY, START + 2 * DAY, START + 4 * DAY, START + 5 * DAY);
+        assertThat(merged.columns()[0]).containsExactly(10, 20, 31, 50, 60);
+    }
+
+    @Test
+    void mergeWithFullOverlapKeepsOnlyTheSecondSeries() {
+        long[] times = {START, START + DAY};
+        StatsChunkCodec.Series merged = StatsChunkCodec.merge(
+                series(times, new long[] {1, 2}),
+                series(times, new long[] {StatsChunkCodec.NULL, 3}));
+        assertThat(merged.times()).containsExactly(times);
+        assertThat(merged.columns()[0]).containsExactly(StatsChunkCodec.NULL, 3);
+    }
+
+    @Test
+    void mergeWithEmptySeriesIsIdentity() {
+        StatsChunkCodec.Series series = series(new long[] {START, START + DAY}, new long[] {1, 2});
+        StatsChunkCodec.Series empty = StatsChunkCodec.Series.empty(1);
+        assertThat(StatsChunkCodec.merge(empty, series).columns()[0]).containsExactly(1, 2);
+        assertThat(StatsChunkCodec.merge(series, empty).columns()[0]).containsExactly(1, 2);
+    }
+
+    @Test
+    void mergedSeriesSurvivesEncoding() {
+        StatsChunkCodec.Series merged = StatsChunkCodec.merge(
+                series(new long[] {START, START + 3 * DAY}, new long[] {5, StatsChunkCodec.NULL}),
+                series(new long[] {START + DAY, START + 3 * DAY}, new long[] {-7, 9}));
+        assertRoundTrip(merged);
+    }
+
+    @Test
+    void rejectsUnknownVersionAndTruncatedPayloads() {
+        byte[] payload = StatsChunkCodec.encode(series(new long[] {START}, new long[] {1}));
+        byte[] wrongVersion = payload.clone();
+        wrongVersion[0] = 2;
+        assertThatThrownBy(() -> StatsChunkCodec.decode(wrongVersion)).isInstanceOf(IllegalStateException.class);
+        byte[] truncated = Arrays.copyOf(payload, payload.length - 1);
+        assertThatThrownBy(() -> StatsChunkCodec.decode(truncated)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static StatsChunkCodec.Series series(long[] times, long[]... columns) {
+        return new StatsChunkCodec.Series(times, columns);
+    }
+
+    private static void assertRoundTrip(StatsChunkCodec.Series series) {
+        StatsChunkCodec.Series decoded = StatsChunkCodec.decode(StatsChunkCodec.encode(series));
+        assertThat(decoded.times()).containsExactly(series.times());
+        assertThat(decoded.columns()).isDeepEqualTo(series.columns());
+    }
+}
@@ -0,0 +1,141 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.repository.ChannelStatsChunkRepository;
+import com.javanextboilerplate.repository.ChannelStatsRepository;
+import com.javanextboilerplate.repository.PostStatsChunkRepository;
+import com.javanextboilerplate.repository.PostStatsRepository;
+import com.javanextboilerplate.support.Fixtures;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsCompactorBackfillTest extends PostgresTest {
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Autowired
+    private ChannelStatsRepository channelStatsRepository;
+    @Autowired
+    private ChannelStatsChunkRepository channelChunkRepository;
+    @Autowired
+    private PostStatsRepository postStatsRepository;
+    @Autowired
+    private PostStatsChunkRepository postChunkRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private StatsCompactor compactor;
+    private long channelId;
+
+    @BeforeEach
+    void setUp() {
+        compactor = new StatsCompactor(channelStatsRepository, channelChunkRepository, postStatsRepository,
+                postChunkRepository, new TransactionTemplate(transactionManager), jdbc, new ObjectMapper());
+        ReflectionTestUtils.setField(compactor, "dailyBackfillBatch", 1);
+        channelId = new Fixtures(jdbc).channel(new Fixtures(jdbc).project());
+    }
+
+    @Test
+    void backfillsAChunkWhoseMonthIsPartlyInTheRollupAlready() {
+        // V29 seeded the hot days at the end of the month
+        daily("2026-03-20", 500, MARCH.plusDays(19).withHour(18));
+        chunk(MARCH, false,
+                point(MARCH.plusDays(17).withHour(10), 400),
+                point(MARCH.plusDays(18).withHour(10), 420),
+                point(MARCH.plusDays(18).withHour(22), 430),
+                point(MARCH.plusDays(19).withHour(9), 450));
+
+        compactor.backfillDailyRollup();
+
+        assertThat(dailyFollowers()).containsExactly(
+                Map.entry("2026-03-18", 400L),
+                Map.entry("2026-03-19", 430L),
+                Map.entry("2026-03-20", 500L));
+        assertThat(unrolledChunks()).isZero();
+    }
+
+    @Test
+    void laterChunkReadingReplacesAnEarlierRollupRow() {
+        daily("2026-03-05", 100, MARCH.plusDays(4).withHour(8));
+        chunk(MARCH, false, point(MARCH.plusDays(4).withHour(20), 120));
+
+        compactor.backfillDailyRollup();
+
+        assertThat(dailyFollowers()).containsExactly(Map.entry("2026-03-05", 120L));
+    }
+
+    @Test
+    void processesEveryUnflaggedChunkAcrossBatchesAndSkipsFlaggedOnes() {
+        chunk(MARCH.minusMonths(2), false, point(MARCH.minusMonths(2).plusDays(2), 10));
+        chunk(MARCH.minusMonths(1), true, point(MARCH.minusMonths(1).plusDays(2), 20));
+        chunk(MARCH, false, point(MARCH.plusDays(2), 30));
+
+        compactor.backfillDailyRollup();
+
+        assertThat(dailyFollowers()).containsExactly(
+                Map.entry("2026-01-03", 10L),
+                Map.entry("2026-03-03", 30L));
+        assertThat(unrolledChunks()).isZero();
+    }
+
+    @Test
+    void chunksWrittenByCompactionDefaultToRolledUp() {
+        jdbc.update("""
+                INSERT INTO channel_stats_chunks (channel_id, period_start, first_at, last_at, point_count, payload)
+                VALUES (?, ?, ?, ?, 0, ?)
+                """, channelId, Timestamp.valueOf(MARCH), Timestamp.valueOf(MARCH), Timestamp.valueOf(MARCH), new byte[0]);
+        assertThat(unrolledChunks()).isZero();
+    }
+
+    private void chunk(LocalDateTime periodStart, boolean rolledUp, long[]... points) {
+        long[] times = Arrays.stream(points).mapToLong(p -> p[0]).toArray();
+        long[][] columns = new long[StatsTimeSeries.CHANNEL_COLUMNS][points.length];
+        for (int i = 0; i < points.length; i++) {
+            columns[0][i] = points[i][1];
+            for (int c = 1; c < columns.length; c++) columns[c][i] = StatsChunkCodec.NULL;
+        }
+        byte[] payload = StatsChunkCodec.encode(new StatsChunkCodec.Series(times, columns));
+        jdbc.update("""
+                INSERT INTO channel_stats_chunks (channel_id, period_start, first_at, last_at, point_count, payload, daily_rolled_up)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, channelId, Timestamp.valueOf(periodStart),
+                Timestamp.valueOf(StatsTimeSeries.fromEpoch(times[0])),
+                Timestamp.valueOf(StatsTimeSeries.fromEpoch(times[times.length - 1])),
+                points.length, payload, rolledUp);
+    }
+
+    private static long[] point(LocalDateTime at, long followers) {
+        return new long[] {StatsTimeSeries.toEpoch(at), followers};
+    }
+
+    private void daily(String day, long followers, LocalDateTime recordedAt) {
+        jdbc.update("INSERT INTO channel_stats_daily (channel_id, day, followers_count, recorded_at) VALUES (?, CAST(? AS DATE), ?, ?)",
+                channelId, day, followers, Timestamp.valueOf(recordedAt));
+    }
+
+    private List<Map.Entry<String, Long>> dailyFollowers() {
+        return jdbc.query("SELECT CAST(day AS TEXT), followers_count FROM channel_stats_daily WHERE channel_id = ? ORDER BY day",
+                (rs, i) -> Map.entry(rs.getString(1), rs.getLong(2)), channelId);
+    }
+
+    private int unrolledChunks() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM channel_stats_chunks WHERE channel_id = ? AND NOT daily_rolled_up",
+                Integer.class, channelId);
+    }
+}
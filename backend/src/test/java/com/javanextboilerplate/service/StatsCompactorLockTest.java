@@ -0,0 +1,87 @@
+package com.javanextboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javanextboilerplate.repository.ChannelStatsChunkRepository;
+import com.javanextboilerplate.repository.ChannelStatsRepository;
+import com.javanextboilerplate.repository.PostStatsChunkRepository;
+import com.javanextboilerplate.repository.PostStatsRepository;
+import com.javanextboilerplate.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatsCompactorLockTest extends PostgresTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private final ChannelStatsRepository channelStatsRepository = mock(ChannelStatsRepository.class);
+    private final PostStatsRepository postStatsRepository = mock(PostStatsRepository.class);
+    private StatsCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        compactor = new StatsCompactor(channelStatsRepository, mock(ChannelStatsChunkRepository.class),
+                postStatsRepository, mock(PostStatsChunkRepository.class),
+                mock(TransactionTemplate.class), new JdbcTemplate(dataSource), new ObjectMapper());
+        when(channelStatsRepository.findChannelIdsWithStatsBefore(any(LocalDateTime.class))).thenReturn(List.of());
+        when(postStatsRepository.findPostIdsWithStatsBefore(any(LocalDateTime.class))).thenReturn(List.of());
+    }
+
+    @Test
+    void skipsWhileAnotherSessionHoldsTheLock() throws Exception {
+        try (Connection other = dataSource.getConnection()) {
+            lock(other, "pg_advisory_lock");
+            compactor.compact();
+            verify(channelStatsRepository, never()).findChannelIdsWithStatsBefore(any());
+            lock(other, "pg_advisory_unlock");
+        }
+        compactor.compact();
+        verify(channelStatsRepository).findChannelIdsWithStatsBefore(any());
+    }
+
+    @Test
+    void releasesTheLockAfterTheRun() throws Exception {
+        compactor.compact();
+        verify(channelStatsRepository).findChannelIdsWithStatsBefore(any());
+        // Session locks are re-entrant, so check from a connection the compactor cannot have used
+        try (Connection other = DriverManager.getConnection(dataSourceProperties.getUrl(), dataSourceProperties.getUsername(),
+                dataSourceProperties.getPassword())) {
+            assertThat(lock(other, "pg_try_advisory_lock")).isTrue();
+            lock(other, "pg_advisory_unlock");
+        }
+    }
+
+    private static boolean lock(Connection connection, String function) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT CAST(" + function + "(?) AS TEXT)")) {
+            statement.setLong(1, StatsCompactor.COMPACTION_LOCK);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && !"false".equals(rs.getString(1));
+            }
+        }
+    }
+}
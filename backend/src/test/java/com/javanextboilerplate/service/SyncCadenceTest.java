@@ -0,0 +1,121 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncCadenceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private final SyncCadence cadence = new SyncCadence();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cadence, "minMinutes", 60);
+        ReflectionTestUtils.setField(cadence, "maxMinutes", 10080);
+        ReflectionTestUtils.setField(cadence, "initialMinutes", 1440);
+        ReflectionTestUtils.setField(cadence, "activeFollowerChange", 0.002);
+        ReflectionTestUtils.setField(cadence, "jitter", 0.1);
+    }
+
+    @Test
+    void firstSyncStartsAtTheInitialInterval() {
+        Channel channel = channel(240, 1_000L);
+        cadence.schedule(channel, null, null, 5, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(1440);
+    }
+
+    @Test
+    void newPostsHalveTheInterval() {
+        Channel channel = channel(1440, 1_000L);
+        cadence.schedule(channel, 1_000L, NOW.minusDays(1), 1, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(720);
+    }
+
+    @Test
+    void quietSyncDoublesTheInterval() {
+        Channel channel = channel(1440, 1_000L);
+        cadence.schedule(channel, 1_000L, NOW.minusDays(1), 0, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(2880);
+    }
+
+    @Test
+    void followerChangeIsJudgedPerDay() {
+        // 0.1% in one hour is 2.4% a day: active
+        Channel hourly = channel(60 * 4, 100_100L);
+        cadence.schedule(hourly, 100_000L, NOW.minusHours(1), 0, NOW);
+        assertThat(hourly.getSyncIntervalMinutes()).isEqualTo(120);
+
+        // The same 0.1% over a week is well under 0.2% a day: quiet
+        Channel weekly = channel(60 * 4, 100_100L);
+        cadence.schedule(weekly, 100_000L, NOW.minusDays(7), 0, NOW);
+        assertThat(weekly.getSyncIntervalMinutes()).isEqualTo(480);
+    }
+
+    @Test
+    void losingFollowersCountsAsActivity() {
+        Channel channel = channel(1440, 9_000L);
+        cadence.schedule(channel, 10_000L, NOW.minusDays(1), 0, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(720);
+    }
+
+    @Test
+    void unknownFollowerCountsAreQuiet() {
+        Channel channel = channel(1440, null);
+        cadence.schedule(channel, 10_000L, NOW.minusDays(1), 0, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(2880);
+    }
+
+    @Test
+    void zeroFollowersBeforeDoesNotDivideByZero() {
+        Channel channel = channel(1440, 5L);
+        cadence.schedule(channel, 0L, NOW.minusDays(1), 0, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(720);
+    }
+
+    @Test
+    void intervalStaysWithinBounds() {
+        Channel hot = channel(90, 1_000L);
+        cadence.schedule(hot, 1_000L, NOW.minusHours(1), 3, NOW);
+        assertThat(hot.getSyncIntervalMinutes()).isEqualTo(60);
+
+        Channel dormant = channel(8000, 1_000L);
+        cadence.schedule(dormant, 1_000L, NOW.minusDays(5), 0, NOW);
+        assertThat(dormant.getSyncIntervalMinutes()).isEqualTo(10080);
+    }
+
+    @Test
+    void missingIntervalStartsFromTheInitialOne() {
+        Channel channel = channel(null, 1_000L);
+        cadence.schedule(channel, 1_000L, NOW.minusDays(1), 0, NOW);
+        assertThat(channel.getSyncIntervalMinutes()).isEqualTo(2880);
+    }
+
+    @Test
+    void nextSyncIsTheIntervalPlusOrMinusTenPercent() {
+        for (int i = 0; i < 200; i++) {
+            Channel channel = channel(1440, 1_000L);
+            cadence.schedule(channel, 1_000L, NOW.minusDays(1), 1, NOW);
+            Duration wait = Duration.between(NOW, channel.getNextSyncAt());
+            assertThat(wait.toSeconds()).isBetween(648L * 60, 792L * 60);
+        }
+    }
+
+    @Test
+    void retryWaitsTheCurrentIntervalWithinBounds() {
+        assertThat(Duration.between(NOW, cadence.retryAt(channel(30, 0L), NOW)).toMinutes()).isBetween(54L, 66L);
+        assertThat(Duration.between(NOW, cadence.retryAt(channel(null, 0L), NOW)).toMinutes()).isBetween(1296L, 1584L);
+        assertThat(Duration.between(NOW, cadence.retryAt(channel(20_000, 0L), NOW)).toMinutes()).isBetween(9072L, 11088L);
+    }
+
+    private static Channel channel(Integer intervalMinutes, Long followers) {
+        return Channel.builder().syncIntervalMinutes(intervalMinutes).followerCount(followers).build();
+    }
+}
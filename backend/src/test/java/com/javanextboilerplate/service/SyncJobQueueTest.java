@@ -0,0 +1,133 @@
+package com.javanextboilerplate.service;
+
+import com.javanextboilerplate.entity.Channel;
+import com.javanextboilerplate.entity.Platform;
+import com.javanextboilerplate.repository.ChannelRepository;
+import com.javanextboilerplate.repository.SyncJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SyncJobQueueTest {
+
+    private final SyncJobRepository jobRepository = mock(SyncJobRepository.class);
+    private final ChannelRepository channelRepository = mock(ChannelRepository.class);
+    private final ChannelSyncService syncService = mock(ChannelSyncService.class);
+    private final SyncCadence cadence = mock(SyncCadence.class);
+    private SyncJobQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new SyncJobQueue(jobRepository, channelRepository, syncService,
+                new SyncMetrics(new SimpleMeterRegistry()), cadence);
+        ReflectionTestUtils.setField(queue, "batchSize", 20);
+        ReflectionTestUtils.setField(queue, "leaseSeconds", 600);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 5);
+        when(channelRepository.findAllById(anyList())).thenReturn(List.of(channel(7L, true)));
+        when(jobRepository.renewLeases(anyList(), anyString(), anyInt())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void backoffDoublesFromOneMinuteAndCapsAtAnHourPlusJitter() {
+        int[] bases = {60, 60, 120, 240, 480, 960, 1920, 3600, 3600};
+        for (int attempts = 0; attempts < bases.length; attempts++) {
+            for (int sample = 0; sample < 50; sample++) {
+                assertThat(SyncJobQueue.backoffSeconds(attempts))
+                        .isBetween(bases[attempts], bases[attempts] + bases[attempts] / 5);
+            }
+        }
+    }
+
+    @Test
+    void completesASuccessfulJob() throws Exception {
+        claimOnce(1L, 7L, 1);
+        queue.work();
+        verify(syncService).syncChannelThrottled(any(Channel.class));
+        verify(jobRepository).complete(eq(1L), anyString());
+    }
+
+    @Test
+    void renewsTheLeaseWhileTheJobRuns() throws Exception {
+        claimOnce(1L, 7L, 1);
+        List<List<Long>> renewedWhileRunning = new ArrayList<>();
+        doAnswer(inv -> {
+            queue.renewLeases();
+            return null;
+        }).when(syncService).syncChannelThrottled(any(Channel.class));
+        doAnswer(inv -> {
+            renewedWhileRunning.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        }).when(jobRepository).renewLeases(anyList(), anyString(), eq(600));
+
+        queue.work();
+        assertThat(renewedWhileRunning).containsExactly(List.of(1L));
+
+        // Finished jobs are no longer renewed
+        queue.renewLeases();
+        assertThat(renewedWhileRunning).hasSize(1);
+    }
+
+    @Test
+    void failedJobIsRequeuedWithBackoff() throws Exception {
+        claimOnce(1L, 7L, 2);
+        doThrow(new IllegalStateException("boom")).when(syncService).syncChannelThrottled(any(Channel.class));
+        when(jobRepository.fail(anyLong(), anyString(), anyString(), anyInt(), anyInt())).thenReturn(1);
+
+        queue.work();
+
+        verify(jobRepository).fail(eq(1L), anyString(), eq("boom"), intThat(b -> b >= 120 && b <= 144), eq(5));
+        verify(channelRepository, never()).postponeSync(anyLong(), any());
+    }
+
+    @Test
+    void lastAttemptPostponesTheChannel() throws Exception {
+        claimOnce(1L, 7L, 5);
+        doThrow(new IllegalStateException("boom")).when(syncService).syncChannelThrottled(any(Channel.class));
+        LocalDateTime retryAt = LocalDateTime.now().plusHours(6);
+        when(cadence.retryAt(any(Channel.class), any(LocalDateTime.class))).thenReturn(retryAt);
+
+        queue.work();
+
+        verify(channelRepository).postponeSync(7L, retryAt);
+    }
+
+    @Test
+    void inactiveChannelIsCompletedWithoutSyncing() {
+        when(channelRepository.findAllById(anyList())).thenReturn(List.of(channel(7L, false)));
+        claimOnce(1L, 7L, 1);
+        queue.work();
+        verifyNoInteractions(syncService);
+        verify(jobRepository).complete(eq(1L), anyString());
+    }
+
+    private void claimOnce(long jobId, long channelId, int attempts) {
+        List<Object[]> claimed = new ArrayList<>();
+        claimed.add(new Object[] {jobId, channelId, attempts});
+        when(jobRepository.claim(anyString(), anyInt(), anyInt(), anyInt())).thenReturn(claimed, List.of());
+    }
+
+    private static Channel channel(Long id, boolean active) {
+        return Channel.builder().id(id).platform(Platform.YOUTUBE).channelName("c").isActive(active).build();
+    }
+}
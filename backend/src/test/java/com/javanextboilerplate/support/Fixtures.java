@@ -0,0 +1,59 @@
+package com.javanextboilerplate.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Minimal parent rows for repository tests, inserted with plain SQL. */
+public final class Fixtures {
+
+    private final JdbcTemplate jdbc;
+
+    public Fixtures(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public long user() {
+        return jdbc.queryForObject("INSERT INTO users (email) VALUES (?) RETURNING id", Long.class,
+                UUID.randomUUID() + "@example.com");
+    }
+
+    public long project() {
+        return jdbc.queryForObject("INSERT INTO saas_projects (user_id, name) VALUES (?, 'Test') RETURNING id",
+                Long.class, user());
+    }
+
+    public long utmLink(long projectId) {
+        return jdbc.queryForObject("""
+                INSERT INTO utm_links (project_id, name, slug, destination_url, utm_source, utm_medium, utm_campaign)
+                VALUES (?, 'Link', ?, 'https://example.com', 'src', 'med', 'camp') RETURNING id
+                """, Long.class, projectId, slug());
+    }
+
+    public long affiliateCampaign(long projectId) {
+        return jdbc.queryForObject("""
+                INSERT INTO affiliate_campaigns (project_id, name, slug, destination_url)
+                VALUES (?, 'Campaign', ?, 'https://example.com') RETURNING id
+                """, Long.class, projectId, slug());
+    }
+
+    public long channel(long projectId) {
+        return jdbc.queryForObject("""
+                INSERT INTO channels (project_id, platform, channel_name, channel_id)
+                VALUES (?, 'YOUTUBE', 'Channel', ?) RETURNING id
+                """, Long.class, projectId, slug());
+    }
+
+    public long post(long channelId, LocalDateTime publishedAt) {
+        return jdbc.queryForObject("""
+                INSERT INTO posts (channel_id, platform_post_id, published_at)
+                VALUES (?, ?, ?) RETURNING id
+                """, Long.class, channelId, slug(), Timestamp.valueOf(publishedAt));
+    }
+
+    private static String slug() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
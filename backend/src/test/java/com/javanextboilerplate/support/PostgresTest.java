@@ -0,0 +1,70 @@
+package com.javanextboilerplate.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base class for tests that need the real schema: native queries, jsonb
+ * UPSERTs and the SQL functions in the migrations only run on PostgreSQL.
+ *
+ * Uses TEST_DATABASE_URL (with TEST_DATABASE_USER / TEST_DATABASE_PASSWORD)
+ * when set, otherwise a postgres:16 Testcontainer shared by the whole run.
+ * Without either, subclasses are skipped. Flyway migrates the database and
+ * every test rolls back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ExtendWith(PostgresTest.Available.class)
+public abstract class PostgresTest {
+
+    private static final String URL = System.getenv("TEST_DATABASE_URL");
+
+    private static PostgreSQLContainer<?> container;
+
+    /** Registered through the inherited @ExtendWith; @EnabledIf would not reach subclasses. */
+    static final class Available implements ExecutionCondition {
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            return URL != null || DockerClientFactory.instance().isDockerAvailable()
+                    ? ConditionEvaluationResult.enabled("PostgreSQL available")
+                    : ConditionEvaluationResult.disabled("Neither TEST_DATABASE_URL nor Docker is available");
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (URL != null) {
+            registry.add("spring.datasource.url", () -> URL);
+            registry.add("spring.datasource.username", () -> env("TEST_DATABASE_USER", "postgres"));
+            registry.add("spring.datasource.password", () -> env("TEST_DATABASE_PASSWORD", ""));
+        } else {
+            PostgreSQLContainer<?> postgres = container();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+        // Creates the Supabase roles the RLS policies refer to
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration,classpath:db/test-callbacks");
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return container;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
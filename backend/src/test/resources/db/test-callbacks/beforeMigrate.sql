@@ -0,0 +1,8 @@
+-- Supabase provides this role; plain PostgreSQL needs it for the RLS policies.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = 'service_role') THEN
+        CREATE ROLE service_role;
+    END IF;
+END
+$$;